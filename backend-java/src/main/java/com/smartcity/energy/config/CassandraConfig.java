@@ -5,14 +5,17 @@ import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.net.InetSocketAddress;
 
 /**
  * Cassandra Configuration using DataStax Java Driver 4.x
  * IMPORTANT: NO ORM - Using Raw CQL with CqlSession and PreparedStatement
+ * Not loaded under profile {@code inmemory} (in-process storage engine)
  */
 @Configuration
+@Profile("!inmemory")
 public class CassandraConfig {
 
     @Value("${cassandra.contact-points}")
@@ -0,0 +1,20 @@
+package com.smartcity.energy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+
+/**
+ * Energy domain configuration
+ * Single time zone used to bucket readings into days and hours
+ */
+@Configuration
+public class EnergyConfig {
+
+    @Bean
+    public ZoneId energyZoneId(@Value("${energy.zone:Asia/Jakarta}") String zone) {
+        return ZoneId.of(zone);
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartcity.energy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Scheduler configuration
+ * Short periodic ticks (liveness wheel, continuous-query panes, load broadcasts,
+ * bucket flushes) run on the default scheduler; jobs that block on Cassandra (warm-up,
+ * archiving, migration, reconciliation, reloads, forecasts, stats broadcasts) declare
+ * {@code scheduler = SchedulingConfig.BULK_SCHEDULER} so they can never stall the ticks.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BULK_SCHEDULER = "bulkTaskScheduler";
+
+    /**
+     * Default scheduler of {@code @Scheduled} methods (picked by its bean name)
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${energy.scheduling.pool-size:2}") int poolSize) {
+        return scheduler("tick-", poolSize);
+    }
+
+    @Bean(BULK_SCHEDULER)
+    public ThreadPoolTaskScheduler bulkTaskScheduler(@Value("${energy.scheduling.bulk-pool-size:4}") int poolSize) {
+        return scheduler("bulk-", poolSize);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
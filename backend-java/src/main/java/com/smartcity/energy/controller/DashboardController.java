@@ -0,0 +1,51 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.dto.DashboardResponse;
+import com.smartcity.energy.service.DashboardService;
+import com.smartcity.energy.service.SingleFlight;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final SingleFlight singleFlight;
+
+    public DashboardController(DashboardService dashboardService, SingleFlight singleFlight) {
+        this.dashboardService = dashboardService;
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Get every dashboard widget in one response, optionally only the listed fields
+     * GET /api/v1/dashboard?fields=city,hourly,savings
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<DashboardResponse>> getDashboard(
+            @RequestParam(required = false) String fields) {
+        Set<String> selected = new TreeSet<>();
+        if (fields == null || fields.isBlank()) {
+            selected.addAll(DashboardService.FIELDS);
+        } else {
+            for (String field : fields.split(",")) {
+                String name = field.trim().toLowerCase();
+                if (!DashboardService.FIELDS.contains(name)) {
+                    return ResponseEntity
+                        .status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("Unknown field: " + name + " (allowed: " + DashboardService.FIELDS + ")"));
+                }
+                selected.add(name);
+            }
+        }
+        DashboardResponse dashboard = singleFlight.execute("dashboard:" + String.join(",", selected),
+            () -> dashboardService.getDashboard(selected));
+        return ResponseEntity.ok(ApiResponse.success(dashboard));
+    }
+}
@@ -1,31 +1,54 @@
 package com.smartcity.energy.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartcity.energy.dto.ApiResponse;
 import com.smartcity.energy.dto.EnergyIngestRequest;
 import com.smartcity.energy.dto.EnergyLatestResponse;
+import com.smartcity.energy.model.Anomaly;
 import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.service.AnomalyDetectionService;
 import com.smartcity.energy.service.EnergyService;
+import com.smartcity.energy.service.ExportService;
 import com.smartcity.energy.service.SensorService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/energy")
 public class EnergyController {
 
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_POINTS = 5000;
+
     private final EnergyService energyService;
     private final SensorService sensorService;
+    private final AnomalyDetectionService anomalyDetectionService;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final ZoneId zoneId;
 
-    public EnergyController(EnergyService energyService, SensorService sensorService) {
+    public EnergyController(EnergyService energyService, SensorService sensorService,
+                            AnomalyDetectionService anomalyDetectionService, ExportService exportService,
+                            ObjectMapper objectMapper, ZoneId energyZoneId) {
         this.energyService = energyService;
         this.sensorService = sensorService;
+        this.anomalyDetectionService = anomalyDetectionService;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.zoneId = energyZoneId;
     }
 
     /**
@@ -81,10 +104,129 @@ public class EnergyController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         
         if (date == null) {
-            date = LocalDate.now();
+            date = LocalDate.now(zoneId);
         }
         
         List<EnergyLatestResponse> readings = energyService.getReadingsByDate(sensorId, date);
         return ResponseEntity.ok(ApiResponse.success(readings));
     }
+
+    /**
+     * Get readings for a specific date as a compressed Gorilla block
+     * GET /api/v1/energy/history/{sensorId}?date=2024-01-01&format=gorilla
+     */
+    @GetMapping(value = "/history/{sensorId}", params = "format=gorilla")
+    public ResponseEntity<byte[]> getEncodedReadingsByDate(
+            @PathVariable UUID sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        if (date == null) {
+            date = LocalDate.now(zoneId);
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(energyService.getEncodedReadingsByDate(sensorId, date));
+    }
+
+    /**
+     * Get detected anomalies of a sensor for a date
+     * GET /api/v1/energy/anomalies/{sensorId}?date=2024-01-01
+     */
+    @GetMapping("/anomalies/{sensorId}")
+    public ResponseEntity<ApiResponse<List<Anomaly>>> getAnomalies(
+            @PathVariable UUID sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        if (date == null) {
+            date = LocalDate.now(zoneId);
+        }
+
+        return ResponseEntity.ok(ApiResponse.success(anomalyDetectionService.getAnomalies(sensorId, date)));
+    }
+
+    /**
+     * Get downsampled readings over a multi-day range
+     * GET /api/v1/energy/history/{sensorId}/range?from=2024-01-01&to=2024-01-30&points=500
+     */
+    @GetMapping("/history/{sensorId}/range")
+    public ResponseEntity<ApiResponse<List<EnergyLatestResponse>>> getReadingsInRange(
+            @PathVariable UUID sensorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "500") int points) {
+
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("Range must be between 1 and " + MAX_RANGE_DAYS + " days"));
+        }
+        if (points < 3 || points > MAX_POINTS) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("points must be between 3 and " + MAX_POINTS));
+        }
+
+        List<EnergyLatestResponse> readings = energyService.getReadingsInRange(sensorId, from, to, points);
+        return ResponseEntity.ok(ApiResponse.success(readings));
+    }
+
+    /**
+     * Stream raw readings of a district or a sensor set as CSV, NDJSON or binary columnar frames
+     * GET /api/v1/energy/export?district=Menteng&from=2024-01-01&to=2024-01-31&format=csv
+     * GET /api/v1/energy/export?sensorIds=uuid1,uuid2&from=2024-01-01&to=2024-01-31&format=ndjson
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReadings(
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) List<UUID> sensorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            return exportError(HttpStatus.BAD_REQUEST, "Range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return exportError(HttpStatus.BAD_REQUEST, "format must be one of csv, ndjson, binary");
+        }
+        if ((district == null) == (sensorIds == null || sensorIds.isEmpty())) {
+            return exportError(HttpStatus.BAD_REQUEST, "Specify either district or sensorIds");
+        }
+
+        List<UUID> sensors;
+        if (district != null) {
+            sensors = sensorService.getSensorIdsByDistrict(district);
+            if (sensors.isEmpty()) {
+                return exportError(HttpStatus.NOT_FOUND, "No sensors in district: " + district);
+            }
+        } else {
+            for (UUID sensorId : sensorIds) {
+                if (!sensorService.sensorExists(sensorId)) {
+                    return exportError(HttpStatus.NOT_FOUND, "Sensor not found: " + sensorId);
+                }
+            }
+            sensors = sensorIds;
+        }
+
+        StreamingResponseBody body = out -> exportService.export(sensors, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"energy-logs-" + from + "-" + to
+                + "." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+
+    /**
+     * Export errors keep the ApiResponse envelope (the endpoint's body type is a stream)
+     */
+    private ResponseEntity<StreamingResponseBody> exportError(HttpStatus status, String message) {
+        return ResponseEntity
+            .status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> objectMapper.writeValue(out, ApiResponse.error(message)));
+    }
 }
@@ -0,0 +1,92 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.dto.RebuildStatusResponse;
+import com.smartcity.energy.service.BucketBackfillService;
+import com.smartcity.energy.service.DailySummaryRebuildService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/maintenance")
+@Profile("!inmemory")
+public class MaintenanceController {
+
+    private final DailySummaryRebuildService dailySummaryRebuildService;
+    private final BucketBackfillService bucketBackfillService;
+
+    public MaintenanceController(DailySummaryRebuildService dailySummaryRebuildService,
+                                 BucketBackfillService bucketBackfillService) {
+        this.dailySummaryRebuildService = dailySummaryRebuildService;
+        this.bucketBackfillService = bucketBackfillService;
+    }
+
+    /**
+     * Start (or resume) rebuilding daily summaries from raw readings
+     * POST /api/v1/maintenance/rebuild/daily-summaries?from=2026-01-01&to=2026-12-31
+     */
+    @PostMapping("/rebuild/daily-summaries")
+    public ResponseEntity<ApiResponse<RebuildStatusResponse>> rebuildDailySummaries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("to must not be before from"));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Rebuild started", dailySummaryRebuildService.start(from, to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get progress of the running or last daily summary rebuild
+     * GET /api/v1/maintenance/rebuild/daily-summaries
+     */
+    @GetMapping("/rebuild/daily-summaries")
+    public ResponseEntity<ApiResponse<RebuildStatusResponse>> getRebuildStatus() {
+        return ResponseEntity.ok(ApiResponse.success(dailySummaryRebuildService.getStatus()));
+    }
+
+    /**
+     * Start (or resume) backfilling the 5-minute and 1-hour tiers from raw readings
+     * POST /api/v1/maintenance/backfill/buckets?from=2026-09-20&to=2026-10-18
+     */
+    @PostMapping("/backfill/buckets")
+    public ResponseEntity<ApiResponse<RebuildStatusResponse>> backfillBuckets(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("to must not be before from"));
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Backfill started", bucketBackfillService.start(from, to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get progress of the running or last bucket backfill
+     * GET /api/v1/maintenance/backfill/buckets
+     */
+    @GetMapping("/backfill/buckets")
+    public ResponseEntity<ApiResponse<RebuildStatusResponse>> getBackfillStatus() {
+        return ResponseEntity.ok(ApiResponse.success(bucketBackfillService.getStatus()));
+    }
+}
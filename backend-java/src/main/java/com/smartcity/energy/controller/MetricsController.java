@@ -0,0 +1,44 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.dto.CoalescingStatsResponse;
+import com.smartcity.energy.dto.StorageMigrationResponse;
+import com.smartcity.energy.service.SingleFlight;
+import com.smartcity.energy.service.StorageMigrationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+public class MetricsController {
+
+    private final SingleFlight singleFlight;
+    private final StorageMigrationService storageMigrationService;
+
+    public MetricsController(SingleFlight singleFlight, StorageMigrationService storageMigrationService) {
+        this.singleFlight = singleFlight;
+        this.storageMigrationService = storageMigrationService;
+    }
+
+    /**
+     * Get single-flight coalescing counters per endpoint group
+     * GET /api/v1/metrics/coalescing
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<ApiResponse<List<CoalescingStatsResponse>>> getCoalescingStats() {
+        return ResponseEntity.ok(ApiResponse.success(singleFlight.getStats()));
+    }
+
+    /**
+     * Get raw storage mode and compact-table migration progress
+     * GET /api/v1/metrics/storage
+     */
+    @GetMapping("/storage")
+    public ResponseEntity<ApiResponse<StorageMigrationResponse>> getStorageStatus() {
+        return ResponseEntity.ok(ApiResponse.success(storageMigrationService.getStatus()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.dto.ContinuousQueryRequest;
+import com.smartcity.energy.dto.ContinuousQueryResponse;
+import com.smartcity.energy.service.ContinuousQueryService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/queries")
+public class QueryController {
+
+    private final ContinuousQueryService continuousQueryService;
+
+    public QueryController(ContinuousQueryService continuousQueryService) {
+        this.continuousQueryService = continuousQueryService;
+    }
+
+    /**
+     * Register a continuous windowed aggregation; results are pushed to the returned topic
+     * POST /api/v1/queries
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<ContinuousQueryResponse>> registerQuery(
+            @Valid @RequestBody ContinuousQueryRequest request) {
+        try {
+            ContinuousQueryResponse query = continuousQueryService.register(request);
+            return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Query registered", query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get all registered queries
+     * GET /api/v1/queries
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<ContinuousQueryResponse>>> getQueries() {
+        return ResponseEntity.ok(ApiResponse.success(continuousQueryService.getQueries()));
+    }
+
+    /**
+     * Get a registered query
+     * GET /api/v1/queries/{queryId}
+     */
+    @GetMapping("/{queryId}")
+    public ResponseEntity<ApiResponse<ContinuousQueryResponse>> getQuery(@PathVariable UUID queryId) {
+        return continuousQueryService.getQuery(queryId)
+            .map(query -> ResponseEntity.ok(ApiResponse.success(query)))
+            .orElse(ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Query not found")));
+    }
+
+    /**
+     * Unregister a query and free its state
+     * DELETE /api/v1/queries/{queryId}
+     */
+    @DeleteMapping("/{queryId}")
+    public ResponseEntity<ApiResponse<Void>> unregisterQuery(@PathVariable UUID queryId) {
+        if (!continuousQueryService.unregister(queryId)) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Query not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Query unregistered", null));
+    }
+}
@@ -0,0 +1,91 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.AlertRuleRequest;
+import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.model.AlertRule;
+import com.smartcity.energy.service.AlertRuleService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/rules")
+public class RuleController {
+
+    private final AlertRuleService alertRuleService;
+
+    public RuleController(AlertRuleService alertRuleService) {
+        this.alertRuleService = alertRuleService;
+    }
+
+    /**
+     * Create an alert rule (active immediately)
+     * POST /api/v1/rules
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<AlertRule>> createRule(
+            @Valid @RequestBody AlertRuleRequest request) {
+        AlertRule rule = alertRuleService.createRule(request);
+        return ResponseEntity
+            .status(HttpStatus.CREATED)
+            .body(ApiResponse.success("Rule created successfully", rule));
+    }
+
+    /**
+     * Get all alert rules
+     * GET /api/v1/rules
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AlertRule>>> getRules() {
+        return ResponseEntity.ok(ApiResponse.success(alertRuleService.getRules()));
+    }
+
+    /**
+     * Get alert rule by ID
+     * GET /api/v1/rules/{ruleId}
+     */
+    @GetMapping("/{ruleId}")
+    public ResponseEntity<ApiResponse<AlertRule>> getRule(@PathVariable UUID ruleId) {
+        return alertRuleService.getRule(ruleId)
+            .map(rule -> ResponseEntity.ok(ApiResponse.success(rule)))
+            .orElse(ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Rule not found")));
+    }
+
+    /**
+     * Replace an alert rule
+     * PUT /api/v1/rules/{ruleId}
+     */
+    @PutMapping("/{ruleId}")
+    public ResponseEntity<ApiResponse<AlertRule>> updateRule(
+            @PathVariable UUID ruleId,
+            @Valid @RequestBody AlertRuleRequest request) {
+        if (alertRuleService.getRule(ruleId).isEmpty()) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Rule not found"));
+        }
+        AlertRule updated = alertRuleService.updateRule(ruleId, request);
+        return ResponseEntity.ok(ApiResponse.success("Rule updated", updated));
+    }
+
+    /**
+     * Delete an alert rule
+     * DELETE /api/v1/rules/{ruleId}
+     */
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<ApiResponse<Void>> deleteRule(@PathVariable UUID ruleId) {
+        if (alertRuleService.getRule(ruleId).isEmpty()) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Rule not found"));
+        }
+        alertRuleService.deleteRule(ruleId);
+        return ResponseEntity.ok(ApiResponse.success("Rule deleted", null));
+    }
+}
@@ -5,6 +5,7 @@ import com.smartcity.energy.dto.CreateSensorRequest;
 import com.smartcity.energy.dto.UpdateSensorRequest;
 import com.smartcity.energy.dto.SensorResponse;
 import com.smartcity.energy.service.SensorService;
+import com.smartcity.energy.service.SingleFlight;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +19,11 @@ import java.util.UUID;
 public class SensorController {
 
     private final SensorService sensorService;
+    private final SingleFlight singleFlight;
 
-    public SensorController(SensorService sensorService) {
+    public SensorController(SensorService sensorService, SingleFlight singleFlight) {
         this.sensorService = sensorService;
+        this.singleFlight = singleFlight;
     }
 
     /**
@@ -31,6 +34,7 @@ public class SensorController {
     public ResponseEntity<ApiResponse<SensorResponse>> createSensor(
             @Valid @RequestBody CreateSensorRequest request) {
         SensorResponse sensor = sensorService.createSensor(request);
+        singleFlight.invalidate("sensors");
         return ResponseEntity
             .status(HttpStatus.CREATED)
             .body(ApiResponse.success("Sensor created successfully", sensor));
@@ -42,7 +46,7 @@ public class SensorController {
      */
     @GetMapping
     public ResponseEntity<ApiResponse<List<SensorResponse>>> getAllSensors() {
-        List<SensorResponse> sensors = sensorService.getAllSensors();
+        List<SensorResponse> sensors = singleFlight.execute("sensors:all", sensorService::getAllSensors);
         return ResponseEntity.ok(ApiResponse.success(sensors));
     }
 
@@ -67,7 +71,8 @@ public class SensorController {
     @GetMapping("/district/{districtName}")
     public ResponseEntity<ApiResponse<List<SensorResponse>>> getSensorsByDistrict(
             @PathVariable String districtName) {
-        List<SensorResponse> sensors = sensorService.getSensorsByDistrict(districtName);
+        List<SensorResponse> sensors = singleFlight.execute("sensors:district:" + districtName,
+            () -> sensorService.getSensorsByDistrict(districtName));
         return ResponseEntity.ok(ApiResponse.success(sensors));
     }
 
@@ -85,6 +90,7 @@ public class SensorController {
                 .body(ApiResponse.error("Sensor not found"));
         }
         sensorService.updateSensorStatus(sensorId, status);
+        singleFlight.invalidate("sensors");
         return ResponseEntity.ok(ApiResponse.success("Status updated", null));
     }
 
@@ -102,6 +108,7 @@ public class SensorController {
                 .body(ApiResponse.error("Sensor not found"));
         }
         SensorResponse updated = sensorService.updateSensor(sensorId, request);
+        singleFlight.invalidate("sensors");
         return ResponseEntity.ok(ApiResponse.success("Sensor updated", updated));
     }
 
@@ -117,6 +124,7 @@ public class SensorController {
                 .body(ApiResponse.error("Sensor not found"));
         }
         sensorService.deleteSensor(sensorId);
+        singleFlight.invalidate("sensors");
         return ResponseEntity.ok(ApiResponse.success("Sensor deleted", null));
     }
 }
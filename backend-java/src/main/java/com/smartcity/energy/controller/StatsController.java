@@ -1,25 +1,63 @@
 package com.smartcity.energy.controller;
 
 import com.smartcity.energy.dto.ApiResponse;
+import com.smartcity.energy.dto.DistrictRankingResponse;
 import com.smartcity.energy.dto.DistrictStatsResponse;
+import com.smartcity.energy.dto.ForecastResponse;
 import com.smartcity.energy.dto.HourlyStatsResponse;
+import com.smartcity.energy.dto.LoadResponse;
+import com.smartcity.energy.dto.PowerQualityResponse;
+import com.smartcity.energy.dto.TopSensorResponse;
+import com.smartcity.energy.dto.VoltageQuantilesResponse;
 import com.smartcity.energy.model.DistrictProfile;
+import com.smartcity.energy.service.ForecastService;
+import com.smartcity.energy.service.LeaderboardService;
+import com.smartcity.energy.service.LoadService;
+import com.smartcity.energy.service.PowerQualityService;
+import com.smartcity.energy.service.SingleFlight;
 import com.smartcity.energy.service.StatsService;
+import com.smartcity.energy.service.VoltageQuantileService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/stats")
 public class StatsController {
 
+    private static final int MAX_FORECAST_HOURS = 168;
+
     private final StatsService statsService;
+    private final VoltageQuantileService voltageQuantileService;
+    private final LeaderboardService leaderboardService;
+    private final LoadService loadService;
+    private final ForecastService forecastService;
+    private final PowerQualityService powerQualityService;
+    private final SingleFlight singleFlight;
+    private final ZoneId zoneId;
 
-    public StatsController(StatsService statsService) {
+    public StatsController(StatsService statsService,
+                           VoltageQuantileService voltageQuantileService,
+                           LeaderboardService leaderboardService,
+                           LoadService loadService,
+                           ForecastService forecastService,
+                           PowerQualityService powerQualityService,
+                           SingleFlight singleFlight,
+                           ZoneId energyZoneId) {
         this.statsService = statsService;
+        this.voltageQuantileService = voltageQuantileService;
+        this.leaderboardService = leaderboardService;
+        this.loadService = loadService;
+        this.forecastService = forecastService;
+        this.powerQualityService = powerQualityService;
+        this.singleFlight = singleFlight;
+        this.zoneId = energyZoneId;
     }
 
     /**
@@ -28,7 +66,7 @@ public class StatsController {
      */
     @GetMapping
     public ResponseEntity<ApiResponse<DistrictStatsResponse>> getCityStats() {
-        DistrictStatsResponse stats = statsService.getCityStats();
+        DistrictStatsResponse stats = singleFlight.execute("stats:city", statsService::getCityStats);
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
@@ -39,7 +77,8 @@ public class StatsController {
     @GetMapping("/daily/{district}")
     public ResponseEntity<ApiResponse<DistrictStatsResponse>> getDistrictStats(
             @PathVariable String district) {
-        DistrictStatsResponse stats = statsService.getDistrictStats(district);
+        DistrictStatsResponse stats = singleFlight.execute("stats:district:" + district,
+            () -> statsService.getDistrictStats(district));
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
@@ -49,21 +88,136 @@ public class StatsController {
      */
     @GetMapping("/districts")
     public ResponseEntity<ApiResponse<List<DistrictProfile>>> getAllDistricts() {
-        List<DistrictProfile> districts = statsService.getAllDistricts();
+        List<DistrictProfile> districts = singleFlight.execute("stats:districts", statsService::getAllDistricts);
         return ResponseEntity.ok(ApiResponse.success(districts));
     }
 
     /**
-     * Get hourly aggregated energy data for a specific date
-     * GET /api/v1/stats/hourly?date=2024-01-01
+     * Get districts ranked by today's kWh per capita
+     * GET /api/v1/stats/districts/ranking
+     */
+    @GetMapping("/districts/ranking")
+    public ResponseEntity<ApiResponse<List<DistrictRankingResponse>>> getDistrictRanking() {
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getDistrictRanking()));
+    }
+
+    /**
+     * Get the top consuming sensors today
+     * GET /api/v1/stats/top-sensors?k=10
+     */
+    @GetMapping("/top-sensors")
+    public ResponseEntity<ApiResponse<List<TopSensorResponse>>> getTopSensors(
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getTopSensors(Math.max(1, k))));
+    }
+
+    /**
+     * Get hourly aggregated energy data for a specific date, optionally for one district
+     * GET /api/v1/stats/hourly?date=2024-01-01&district=Jakarta%20Utara
      */
     @GetMapping("/hourly")
     public ResponseEntity<ApiResponse<List<HourlyStatsResponse>>> getHourlyStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String district) {
+        LocalDate day = date != null ? date : LocalDate.now(zoneId);
+        List<HourlyStatsResponse> hourlyStats = singleFlight.execute("stats:hourly:" + day + ":" + district,
+            () -> statsService.getHourlyStats(day, district));
+        return ResponseEntity.ok(ApiResponse.success(hourlyStats));
+    }
+
+    /**
+     * Get voltage quantiles (p5/p50/p95/p99) for a sensor, a district or the whole city
+     * GET /api/v1/stats/voltage/quantiles?sensorId=...|district=...&hours=24
+     */
+    @GetMapping("/voltage/quantiles")
+    public ResponseEntity<ApiResponse<VoltageQuantilesResponse>> getVoltageQuantiles(
+            @RequestParam(required = false) UUID sensorId,
+            @RequestParam(required = false) String district,
+            @RequestParam(defaultValue = "24") int hours) {
+        VoltageQuantilesResponse quantiles;
+        if (sensorId != null) {
+            quantiles = voltageQuantileService.getSensorQuantiles(sensorId, hours);
+        } else if (district != null) {
+            quantiles = voltageQuantileService.getDistrictQuantiles(district, hours);
+        } else {
+            quantiles = voltageQuantileService.getCityQuantiles(hours);
+        }
+        return ResponseEntity.ok(ApiResponse.success(quantiles));
+    }
+
+    /**
+     * Get instantaneous load (kW over 1/5/15 minutes) for a sensor, a district or the whole city
+     * GET /api/v1/stats/load?sensorId=...|district=...
+     */
+    @GetMapping("/load")
+    public ResponseEntity<ApiResponse<LoadResponse>> getLoad(
+            @RequestParam(required = false) UUID sensorId,
+            @RequestParam(required = false) String district) {
+        LoadResponse load;
+        if (sensorId != null) {
+            load = loadService.getSensorLoad(sensorId);
+        } else if (district != null) {
+            load = loadService.getDistrictLoad(district);
+        } else {
+            load = loadService.getCityLoad();
+        }
+        return ResponseEntity.ok(ApiResponse.success(load));
+    }
+
+    /**
+     * Get instantaneous load of every district
+     * GET /api/v1/stats/load/districts
+     */
+    @GetMapping("/load/districts")
+    public ResponseEntity<ApiResponse<List<LoadResponse>>> getDistrictLoads() {
+        return ResponseEntity.ok(ApiResponse.success(loadService.getDistrictLoads()));
+    }
+
+    /**
+     * Get next-hour / next-day kWh forecast of a district, per energy source
+     * GET /api/v1/stats/forecast/{district}?source=GRID&horizon=24
+     */
+    @GetMapping("/forecast/{district}")
+    public ResponseEntity<ApiResponse<List<ForecastResponse>>> getForecast(
+            @PathVariable String district,
+            @RequestParam(required = false) String source,
+            @RequestParam(defaultValue = "24") int horizon) {
+        if (horizon < 1 || horizon > MAX_FORECAST_HOURS) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("horizon must be between 1 and " + MAX_FORECAST_HOURS));
+        }
+        if (source != null && !source.equalsIgnoreCase("SOLAR") && !source.equalsIgnoreCase("GRID")) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("source must be SOLAR or GRID"));
+        }
+        List<ForecastResponse> forecasts = source != null
+            ? List.of(forecastService.getForecast(district, source, horizon))
+            : forecastService.getForecasts(district, horizon);
+        return ResponseEntity.ok(ApiResponse.success(forecasts));
+    }
+
+    /**
+     * Get sag / swell / interruption counts and durations of a sensor or district for a date
+     * GET /api/v1/stats/power-quality?sensorId=...|district=...&date=2024-01-01
+     */
+    @GetMapping("/power-quality")
+    public ResponseEntity<ApiResponse<PowerQualityResponse>> getPowerQuality(
+            @RequestParam(required = false) UUID sensorId,
+            @RequestParam(required = false) String district,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if (sensorId == null && district == null) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("sensorId or district is required"));
+        }
         if (date == null) {
-            date = LocalDate.now();
+            date = LocalDate.now(zoneId);
         }
-        List<HourlyStatsResponse> hourlyStats = statsService.getHourlyStats(date);
-        return ResponseEntity.ok(ApiResponse.success(hourlyStats));
+        PowerQualityResponse summary = sensorId != null
+            ? powerQualityService.getSensorSummary(sensorId, date)
+            : powerQualityService.getDistrictSummary(district, date);
+        return ResponseEntity.ok(ApiResponse.success(summary));
     }
 }
@@ -0,0 +1,48 @@
+package com.smartcity.energy.controller;
+
+import com.smartcity.energy.dto.DistrictStatsResponse;
+import com.smartcity.energy.dto.HourlyStatsResponse;
+import com.smartcity.energy.service.StatsBroadcastService;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+
+/**
+ * STOMP snapshot endpoints: the reply goes only to the subscribing session.
+ * Clients subscribe here once, then follow deltas on /topic/stats/...
+ */
+@Controller
+public class StatsSubscriptionController {
+
+    private final StatsBroadcastService broadcastService;
+
+    public StatsSubscriptionController(StatsBroadcastService broadcastService) {
+        this.broadcastService = broadcastService;
+    }
+
+    /**
+     * SUBSCRIBE /app/stats/city
+     */
+    @SubscribeMapping("/stats/city")
+    public DistrictStatsResponse citySnapshot() {
+        return broadcastService.getCitySnapshot();
+    }
+
+    /**
+     * SUBSCRIBE /app/stats/district/{name}
+     */
+    @SubscribeMapping("/stats/district/{name}")
+    public DistrictStatsResponse districtSnapshot(@DestinationVariable String name) {
+        return broadcastService.getDistrictSnapshot(name);
+    }
+
+    /**
+     * SUBSCRIBE /app/stats/hourly
+     */
+    @SubscribeMapping("/stats/hourly")
+    public List<HourlyStatsResponse> hourlySnapshot() {
+        return broadcastService.getHourlySnapshot();
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartcity.energy.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO for alerts published on /topic/alerts
+ */
+public class AlertMessage {
+
+    private String source;        // 'ANOMALY' or 'RULE'
+    private String type;
+    private UUID sensorId;
+    private String districtName;
+    private String metric;
+    private double value;
+    private double threshold;
+    private String message;
+    private Instant timestamp;
+
+    public AlertMessage() {}
+
+    public AlertMessage(String source, String type, UUID sensorId, String districtName, String metric,
+                        double value, double threshold, String message, Instant timestamp) {
+        this.source = source;
+        this.type = type;
+        this.sensorId = sensorId;
+        this.districtName = districtName;
+        this.metric = metric;
+        this.value = value;
+        this.threshold = threshold;
+        this.message = message;
+        this.timestamp = timestamp;
+    }
+
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public UUID getSensorId() { return sensorId; }
+    public void setSensorId(UUID sensorId) { this.sensorId = sensorId; }
+
+    public String getDistrictName() { return districtName; }
+    public void setDistrictName(String districtName) { this.districtName = districtName; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Instant getTimestamp() { return timestamp; }
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
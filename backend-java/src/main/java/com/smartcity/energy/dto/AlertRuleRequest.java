@@ -0,0 +1,150 @@
+package com.smartcity.energy.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.util.UUID;
+
+/**
+ * DTO for creating or replacing an alert rule.
+ * windowSeconds = 0 evaluates every reading (optionally N consecutive times);
+ * otherwise the SUM/AVG over the trailing window per sensor or district is compared.
+ */
+public class AlertRuleRequest {
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    private Boolean enabled;
+
+    private UUID sensorId;
+
+    private String districtName;
+
+    private String energySource;
+
+    @NotNull(message = "Metric is required")
+    @Pattern(regexp = "(?i)kwh|voltage", message = "Metric must be kwh or voltage")
+    private String metric;
+
+    @NotNull(message = "Comparator is required")
+    @Pattern(regexp = "(?i)LT|LE|GT|GE", message = "Comparator must be LT, LE, GT or GE")
+    private String comparator;
+
+    @NotNull(message = "Threshold is required")
+    private Double threshold;
+
+    @Min(value = 1, message = "Consecutive must be at least 1")
+    @Max(value = 1000, message = "Consecutive must be at most 1000")
+    private Integer consecutive;
+
+    @Min(value = 0, message = "Window must not be negative")
+    @Max(value = 86400, message = "Window must be at most 86400 seconds")
+    private Integer windowSeconds;
+
+    @Pattern(regexp = "(?i)SUM|AVG", message = "Aggregate must be SUM or AVG")
+    private String aggregate;
+
+    @Pattern(regexp = "(?i)SENSOR|DISTRICT", message = "Group by must be SENSOR or DISTRICT")
+    private String groupBy;
+
+    public AlertRuleRequest() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public String getDistrictName() {
+        return districtName;
+    }
+
+    public void setDistrictName(String districtName) {
+        this.districtName = districtName;
+    }
+
+    public String getEnergySource() {
+        return energySource;
+    }
+
+    public void setEnergySource(String energySource) {
+        this.energySource = energySource;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getComparator() {
+        return comparator;
+    }
+
+    public void setComparator(String comparator) {
+        this.comparator = comparator;
+    }
+
+    public Double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(Double threshold) {
+        this.threshold = threshold;
+    }
+
+    public Integer getConsecutive() {
+        return consecutive;
+    }
+
+    public void setConsecutive(Integer consecutive) {
+        this.consecutive = consecutive;
+    }
+
+    public Integer getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(Integer windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public String getAggregate() {
+        return aggregate;
+    }
+
+    public void setAggregate(String aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartcity.energy.dto;
+
+/**
+ * DTO for single-flight coalescing counters of one endpoint group
+ */
+public class CoalescingStatsResponse {
+
+    private String group;
+    private long requests;
+    private long computations;
+    private long sharedInFlight;
+    private long cacheHits;
+    private double coalescingRatio;
+
+    public CoalescingStatsResponse() {}
+
+    public CoalescingStatsResponse(String group, long requests, long computations,
+                                   long sharedInFlight, long cacheHits, double coalescingRatio) {
+        this.group = group;
+        this.requests = requests;
+        this.computations = computations;
+        this.sharedInFlight = sharedInFlight;
+        this.cacheHits = cacheHits;
+        this.coalescingRatio = coalescingRatio;
+    }
+
+    public String getGroup() { return group; }
+    public void setGroup(String group) { this.group = group; }
+
+    public long getRequests() { return requests; }
+    public void setRequests(long requests) { this.requests = requests; }
+
+    public long getComputations() { return computations; }
+    public void setComputations(long computations) { this.computations = computations; }
+
+    public long getSharedInFlight() { return sharedInFlight; }
+    public void setSharedInFlight(long sharedInFlight) { this.sharedInFlight = sharedInFlight; }
+
+    public long getCacheHits() { return cacheHits; }
+    public void setCacheHits(long cacheHits) { this.cacheHits = cacheHits; }
+
+    public double getCoalescingRatio() { return coalescingRatio; }
+    public void setCoalescingRatio(double coalescingRatio) { this.coalescingRatio = coalescingRatio; }
+}
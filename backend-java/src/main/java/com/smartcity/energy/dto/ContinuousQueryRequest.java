@@ -0,0 +1,105 @@
+package com.smartcity.energy.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for registering a continuous windowed aggregation.
+ * Filters are optional and combined with AND; without slideSeconds the window is tumbling.
+ */
+public class ContinuousQueryRequest {
+
+    private String name;
+
+    private String districtName;
+
+    private String energySource;
+
+    private List<UUID> sensorIds;
+
+    @NotNull(message = "Metric is required")
+    @Pattern(regexp = "(?i)kwh|voltage", message = "Metric must be kwh or voltage")
+    private String metric;
+
+    @NotNull(message = "Aggregate is required")
+    @Pattern(regexp = "(?i)SUM|AVG|MIN|MAX|COUNT", message = "Aggregate must be SUM, AVG, MIN, MAX or COUNT")
+    private String aggregate;
+
+    @NotNull(message = "Window is required")
+    @Min(value = 1, message = "Window must be at least 1 second")
+    @Max(value = 86400, message = "Window must be at most 86400 seconds")
+    private Integer windowSeconds;
+
+    @Min(value = 1, message = "Slide must be at least 1 second")
+    private Integer slideSeconds;
+
+    public ContinuousQueryRequest() {}
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDistrictName() {
+        return districtName;
+    }
+
+    public void setDistrictName(String districtName) {
+        this.districtName = districtName;
+    }
+
+    public String getEnergySource() {
+        return energySource;
+    }
+
+    public void setEnergySource(String energySource) {
+        this.energySource = energySource;
+    }
+
+    public List<UUID> getSensorIds() {
+        return sensorIds;
+    }
+
+    public void setSensorIds(List<UUID> sensorIds) {
+        this.sensorIds = sensorIds;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getAggregate() {
+        return aggregate;
+    }
+
+    public void setAggregate(String aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    public Integer getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(Integer windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public Integer getSlideSeconds() {
+        return slideSeconds;
+    }
+
+    public void setSlideSeconds(Integer slideSeconds) {
+        this.slideSeconds = slideSeconds;
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartcity.energy.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a registered continuous query
+ */
+public class ContinuousQueryResponse {
+
+    private UUID queryId;
+    private String name;
+    private String districtName;
+    private String energySource;
+    private List<UUID> sensorIds;
+    private String metric;
+    private String aggregate;
+    private int windowSeconds;
+    private int slideSeconds;
+    private String topic;
+    private Instant createdAt;
+
+    public ContinuousQueryResponse() {}
+
+    public ContinuousQueryResponse(UUID queryId, String name, String districtName, String energySource,
+                                   List<UUID> sensorIds, String metric, String aggregate,
+                                   int windowSeconds, int slideSeconds, String topic, Instant createdAt) {
+        this.queryId = queryId;
+        this.name = name;
+        this.districtName = districtName;
+        this.energySource = energySource;
+        this.sensorIds = sensorIds;
+        this.metric = metric;
+        this.aggregate = aggregate;
+        this.windowSeconds = windowSeconds;
+        this.slideSeconds = slideSeconds;
+        this.topic = topic;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getQueryId() { return queryId; }
+    public void setQueryId(UUID queryId) { this.queryId = queryId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDistrictName() { return districtName; }
+    public void setDistrictName(String districtName) { this.districtName = districtName; }
+
+    public String getEnergySource() { return energySource; }
+    public void setEnergySource(String energySource) { this.energySource = energySource; }
+
+    public List<UUID> getSensorIds() { return sensorIds; }
+    public void setSensorIds(List<UUID> sensorIds) { this.sensorIds = sensorIds; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public String getAggregate() { return aggregate; }
+    public void setAggregate(String aggregate) { this.aggregate = aggregate; }
+
+    public int getWindowSeconds() { return windowSeconds; }
+    public void setWindowSeconds(int windowSeconds) { this.windowSeconds = windowSeconds; }
+
+    public int getSlideSeconds() { return slideSeconds; }
+    public void setSlideSeconds(int slideSeconds) { this.slideSeconds = slideSeconds; }
+
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
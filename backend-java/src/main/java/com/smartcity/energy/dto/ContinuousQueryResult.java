@@ -0,0 +1,41 @@
+package com.smartcity.energy.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO pushed to /topic/queries/{queryId} when a window closes
+ */
+public class ContinuousQueryResult {
+
+    private UUID queryId;
+    private Instant windowStart;
+    private Instant windowEnd;
+    private Double value;
+    private long count;
+
+    public ContinuousQueryResult() {}
+
+    public ContinuousQueryResult(UUID queryId, Instant windowStart, Instant windowEnd, Double value, long count) {
+        this.queryId = queryId;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.value = value;
+        this.count = count;
+    }
+
+    public UUID getQueryId() { return queryId; }
+    public void setQueryId(UUID queryId) { this.queryId = queryId; }
+
+    public Instant getWindowStart() { return windowStart; }
+    public void setWindowStart(Instant windowStart) { this.windowStart = windowStart; }
+
+    public Instant getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(Instant windowEnd) { this.windowEnd = windowEnd; }
+
+    public Double getValue() { return value; }
+    public void setValue(Double value) { this.value = value; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
@@ -0,0 +1,68 @@
+package com.smartcity.energy.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO for the dashboard bundle; fields that were not requested are omitted
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardResponse {
+
+    private String date;
+    private DistrictStatsResponse city;
+    private List<DistrictStatsResponse> districts;
+    private List<HourlyStatsResponse> hourly;
+    private Long solarSavings;
+    private Long realtimeCost;
+    private Double emissions;
+    private EnergyBreakdown breakdown;
+
+    public DashboardResponse() {}
+
+    public String getDate() { return date; }
+    public void setDate(String date) { this.date = date; }
+
+    public DistrictStatsResponse getCity() { return city; }
+    public void setCity(DistrictStatsResponse city) { this.city = city; }
+
+    public List<DistrictStatsResponse> getDistricts() { return districts; }
+    public void setDistricts(List<DistrictStatsResponse> districts) { this.districts = districts; }
+
+    public List<HourlyStatsResponse> getHourly() { return hourly; }
+    public void setHourly(List<HourlyStatsResponse> hourly) { this.hourly = hourly; }
+
+    public Long getSolarSavings() { return solarSavings; }
+    public void setSolarSavings(Long solarSavings) { this.solarSavings = solarSavings; }
+
+    public Long getRealtimeCost() { return realtimeCost; }
+    public void setRealtimeCost(Long realtimeCost) { this.realtimeCost = realtimeCost; }
+
+    public Double getEmissions() { return emissions; }
+    public void setEmissions(Double emissions) { this.emissions = emissions; }
+
+    public EnergyBreakdown getBreakdown() { return breakdown; }
+    public void setBreakdown(EnergyBreakdown breakdown) { this.breakdown = breakdown; }
+
+    /**
+     * Grid / solar kWh split for the pie chart
+     */
+    public static class EnergyBreakdown {
+        private double gridKwh;
+        private double solarKwh;
+
+        public EnergyBreakdown() {}
+
+        public EnergyBreakdown(double gridKwh, double solarKwh) {
+            this.gridKwh = gridKwh;
+            this.solarKwh = solarKwh;
+        }
+
+        public double getGridKwh() { return gridKwh; }
+        public void setGridKwh(double gridKwh) { this.gridKwh = gridKwh; }
+
+        public double getSolarKwh() { return solarKwh; }
+        public void setSolarKwh(double solarKwh) { this.solarKwh = solarKwh; }
+    }
+}
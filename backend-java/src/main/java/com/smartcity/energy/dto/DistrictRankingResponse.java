@@ -0,0 +1,41 @@
+package com.smartcity.energy.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for district ranking by kWh per capita
+ */
+public class DistrictRankingResponse {
+
+    private int rank;
+    private String district;
+    private BigDecimal totalKwh;
+    private int population;
+    private BigDecimal kwhPerCapita;
+
+    public DistrictRankingResponse() {}
+
+    public DistrictRankingResponse(int rank, String district, BigDecimal totalKwh,
+                                   int population, BigDecimal kwhPerCapita) {
+        this.rank = rank;
+        this.district = district;
+        this.totalKwh = totalKwh;
+        this.population = population;
+        this.kwhPerCapita = kwhPerCapita;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public String getDistrict() { return district; }
+    public void setDistrict(String district) { this.district = district; }
+
+    public BigDecimal getTotalKwh() { return totalKwh; }
+    public void setTotalKwh(BigDecimal totalKwh) { this.totalKwh = totalKwh; }
+
+    public int getPopulation() { return population; }
+    public void setPopulation(int population) { this.population = population; }
+
+    public BigDecimal getKwhPerCapita() { return kwhPerCapita; }
+    public void setKwhPerCapita(BigDecimal kwhPerCapita) { this.kwhPerCapita = kwhPerCapita; }
+}
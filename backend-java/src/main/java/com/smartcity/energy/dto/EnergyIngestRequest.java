@@ -1,5 +1,10 @@
 package com.smartcity.energy.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -13,9 +18,14 @@ public class EnergyIngestRequest {
     private UUID sensorId;
     
     @NotNull(message = "kWh usage is required")
+    @DecimalMin(value = "0", message = "kWh usage must not be negative")
+    @DecimalMax(value = "2147.483647", message = "kWh usage must not exceed 2147.483647")
+    @Digits(integer = 4, fraction = 6, message = "kWh usage must have at most 6 decimals")
     private BigDecimal kwhUsage;
     
     @NotNull(message = "Voltage is required")
+    @Min(value = 0, message = "Voltage must not be negative")
+    @Max(value = 32767, message = "Voltage must not exceed 32767")
     private Integer voltage;
 
     public EnergyIngestRequest() {}
@@ -0,0 +1,74 @@
+package com.smartcity.energy.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO for hourly kWh forecast of a district and energy source
+ */
+public class ForecastResponse {
+
+    private String district;
+    private String energySource;
+    private boolean ready;
+    private Instant lastObservedHour;
+    private BigDecimal nextHourKwh;
+    private BigDecimal nextDayKwh;
+    private List<Point> hours;
+
+    public ForecastResponse() {}
+
+    public ForecastResponse(String district, String energySource, boolean ready, Instant lastObservedHour,
+                            BigDecimal nextHourKwh, BigDecimal nextDayKwh, List<Point> hours) {
+        this.district = district;
+        this.energySource = energySource;
+        this.ready = ready;
+        this.lastObservedHour = lastObservedHour;
+        this.nextHourKwh = nextHourKwh;
+        this.nextDayKwh = nextDayKwh;
+        this.hours = hours;
+    }
+
+    public String getDistrict() { return district; }
+    public void setDistrict(String district) { this.district = district; }
+
+    public String getEnergySource() { return energySource; }
+    public void setEnergySource(String energySource) { this.energySource = energySource; }
+
+    public boolean isReady() { return ready; }
+    public void setReady(boolean ready) { this.ready = ready; }
+
+    public Instant getLastObservedHour() { return lastObservedHour; }
+    public void setLastObservedHour(Instant lastObservedHour) { this.lastObservedHour = lastObservedHour; }
+
+    public BigDecimal getNextHourKwh() { return nextHourKwh; }
+    public void setNextHourKwh(BigDecimal nextHourKwh) { this.nextHourKwh = nextHourKwh; }
+
+    public BigDecimal getNextDayKwh() { return nextDayKwh; }
+    public void setNextDayKwh(BigDecimal nextDayKwh) { this.nextDayKwh = nextDayKwh; }
+
+    public List<Point> getHours() { return hours; }
+    public void setHours(List<Point> hours) { this.hours = hours; }
+
+    /**
+     * Forecast kWh for the hour starting at {@code hour}
+     */
+    public static class Point {
+        private Instant hour;
+        private BigDecimal kwh;
+
+        public Point() {}
+
+        public Point(Instant hour, BigDecimal kwh) {
+            this.hour = hour;
+            this.kwh = kwh;
+        }
+
+        public Instant getHour() { return hour; }
+        public void setHour(Instant hour) { this.hour = hour; }
+
+        public BigDecimal getKwh() { return kwh; }
+        public void setKwh(BigDecimal kwh) { this.kwh = kwh; }
+    }
+}
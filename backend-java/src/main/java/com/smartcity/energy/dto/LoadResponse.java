@@ -0,0 +1,41 @@
+package com.smartcity.energy.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * DTO for instantaneous power (kW) over trailing 1/5/15 minute windows
+ */
+public class LoadResponse {
+
+    private String scope;
+    private BigDecimal kw1m;
+    private BigDecimal kw5m;
+    private BigDecimal kw15m;
+    private Instant timestamp;
+
+    public LoadResponse() {}
+
+    public LoadResponse(String scope, BigDecimal kw1m, BigDecimal kw5m, BigDecimal kw15m, Instant timestamp) {
+        this.scope = scope;
+        this.kw1m = kw1m;
+        this.kw5m = kw5m;
+        this.kw15m = kw15m;
+        this.timestamp = timestamp;
+    }
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public BigDecimal getKw1m() { return kw1m; }
+    public void setKw1m(BigDecimal kw1m) { this.kw1m = kw1m; }
+
+    public BigDecimal getKw5m() { return kw5m; }
+    public void setKw5m(BigDecimal kw5m) { this.kw5m = kw5m; }
+
+    public BigDecimal getKw15m() { return kw15m; }
+    public void setKw15m(BigDecimal kw15m) { this.kw15m = kw15m; }
+
+    public Instant getTimestamp() { return timestamp; }
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,83 @@
+package com.smartcity.energy.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for power-quality event counts and durations of a sensor or district on one day
+ */
+public class PowerQualityResponse {
+
+    private String scope;
+    private LocalDate date;
+    private Counters total;
+    private List<Counters> hours;
+
+    public PowerQualityResponse() {}
+
+    public PowerQualityResponse(String scope, LocalDate date, Counters total, List<Counters> hours) {
+        this.scope = scope;
+        this.date = date;
+        this.total = total;
+        this.hours = hours;
+    }
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public Counters getTotal() { return total; }
+    public void setTotal(Counters total) { this.total = total; }
+
+    public List<Counters> getHours() { return hours; }
+    public void setHours(List<Counters> hours) { this.hours = hours; }
+
+    /**
+     * Event counts and total durations (seconds); {@code hour} is null for the daily total
+     */
+    public static class Counters {
+        private Integer hour;
+        private int sagCount;
+        private int swellCount;
+        private int interruptionCount;
+        private double sagSeconds;
+        private double swellSeconds;
+        private double interruptionSeconds;
+
+        public Counters() {}
+
+        public Counters(Integer hour, int sagCount, int swellCount, int interruptionCount,
+                        double sagSeconds, double swellSeconds, double interruptionSeconds) {
+            this.hour = hour;
+            this.sagCount = sagCount;
+            this.swellCount = swellCount;
+            this.interruptionCount = interruptionCount;
+            this.sagSeconds = sagSeconds;
+            this.swellSeconds = swellSeconds;
+            this.interruptionSeconds = interruptionSeconds;
+        }
+
+        public Integer getHour() { return hour; }
+        public void setHour(Integer hour) { this.hour = hour; }
+
+        public int getSagCount() { return sagCount; }
+        public void setSagCount(int sagCount) { this.sagCount = sagCount; }
+
+        public int getSwellCount() { return swellCount; }
+        public void setSwellCount(int swellCount) { this.swellCount = swellCount; }
+
+        public int getInterruptionCount() { return interruptionCount; }
+        public void setInterruptionCount(int interruptionCount) { this.interruptionCount = interruptionCount; }
+
+        public double getSagSeconds() { return sagSeconds; }
+        public void setSagSeconds(double sagSeconds) { this.sagSeconds = sagSeconds; }
+
+        public double getSwellSeconds() { return swellSeconds; }
+        public void setSwellSeconds(double swellSeconds) { this.swellSeconds = swellSeconds; }
+
+        public double getInterruptionSeconds() { return interruptionSeconds; }
+        public void setInterruptionSeconds(double interruptionSeconds) { this.interruptionSeconds = interruptionSeconds; }
+    }
+}
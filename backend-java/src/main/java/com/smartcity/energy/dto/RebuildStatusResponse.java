@@ -0,0 +1,62 @@
+package com.smartcity.energy.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the progress of a daily summary rebuild
+ */
+public class RebuildStatusResponse {
+
+    private String scanId;
+    private String state;
+    private int rangesTotal;
+    private int rangesCompleted;
+    private int rangesResumed;
+    private long rowsScanned;
+    private int datesRebuilt;
+    private List<String> skippedDates;
+    private String message;
+
+    public RebuildStatusResponse() {}
+
+    public RebuildStatusResponse(String scanId, String state, int rangesTotal, int rangesCompleted,
+                                 int rangesResumed, long rowsScanned, int datesRebuilt,
+                                 List<String> skippedDates, String message) {
+        this.scanId = scanId;
+        this.state = state;
+        this.rangesTotal = rangesTotal;
+        this.rangesCompleted = rangesCompleted;
+        this.rangesResumed = rangesResumed;
+        this.rowsScanned = rowsScanned;
+        this.datesRebuilt = datesRebuilt;
+        this.skippedDates = skippedDates;
+        this.message = message;
+    }
+
+    public String getScanId() { return scanId; }
+    public void setScanId(String scanId) { this.scanId = scanId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public int getRangesTotal() { return rangesTotal; }
+    public void setRangesTotal(int rangesTotal) { this.rangesTotal = rangesTotal; }
+
+    public int getRangesCompleted() { return rangesCompleted; }
+    public void setRangesCompleted(int rangesCompleted) { this.rangesCompleted = rangesCompleted; }
+
+    public int getRangesResumed() { return rangesResumed; }
+    public void setRangesResumed(int rangesResumed) { this.rangesResumed = rangesResumed; }
+
+    public long getRowsScanned() { return rowsScanned; }
+    public void setRowsScanned(long rowsScanned) { this.rowsScanned = rowsScanned; }
+
+    public int getDatesRebuilt() { return datesRebuilt; }
+    public void setDatesRebuilt(int datesRebuilt) { this.datesRebuilt = datesRebuilt; }
+
+    public List<String> getSkippedDates() { return skippedDates; }
+    public void setSkippedDates(List<String> skippedDates) { this.skippedDates = skippedDates; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,42 @@
+package com.smartcity.energy.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO for automatic sensor status changes published on /topic/sensors/status
+ */
+public class SensorStatusMessage {
+
+    private UUID sensorId;
+    private String districtName;
+    private String previousStatus;
+    private String status;
+    private Instant timestamp;
+
+    public SensorStatusMessage() {}
+
+    public SensorStatusMessage(UUID sensorId, String districtName, String previousStatus,
+                               String status, Instant timestamp) {
+        this.sensorId = sensorId;
+        this.districtName = districtName;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.timestamp = timestamp;
+    }
+
+    public UUID getSensorId() { return sensorId; }
+    public void setSensorId(UUID sensorId) { this.sensorId = sensorId; }
+
+    public String getDistrictName() { return districtName; }
+    public void setDistrictName(String districtName) { this.districtName = districtName; }
+
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Instant getTimestamp() { return timestamp; }
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,44 @@
+package com.smartcity.energy.dto;
+
+/**
+ * DTO for the energy_logs to energy_logs_compact migration progress
+ */
+public class StorageMigrationResponse {
+
+    private String mode;
+    private int sensors;
+    private int migratedSensors;
+    private long partitionsCopied;
+    private long rowsCopied;
+    private long rowsSkipped;
+
+    public StorageMigrationResponse() {}
+
+    public StorageMigrationResponse(String mode, int sensors, int migratedSensors,
+                                    long partitionsCopied, long rowsCopied, long rowsSkipped) {
+        this.mode = mode;
+        this.sensors = sensors;
+        this.migratedSensors = migratedSensors;
+        this.partitionsCopied = partitionsCopied;
+        this.rowsCopied = rowsCopied;
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+
+    public int getSensors() { return sensors; }
+    public void setSensors(int sensors) { this.sensors = sensors; }
+
+    public int getMigratedSensors() { return migratedSensors; }
+    public void setMigratedSensors(int migratedSensors) { this.migratedSensors = migratedSensors; }
+
+    public long getPartitionsCopied() { return partitionsCopied; }
+    public void setPartitionsCopied(long partitionsCopied) { this.partitionsCopied = partitionsCopied; }
+
+    public long getRowsCopied() { return rowsCopied; }
+    public void setRowsCopied(long rowsCopied) { this.rowsCopied = rowsCopied; }
+
+    public long getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(long rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+}
@@ -0,0 +1,47 @@
+package com.smartcity.energy.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for one entry of the top consuming sensors leaderboard
+ */
+public class TopSensorResponse {
+
+    private int rank;
+    private UUID sensorId;
+    private String districtName;
+    private String energySource;
+    private BigDecimal totalKwh;
+    private BigDecimal maxErrorKwh;
+
+    public TopSensorResponse() {}
+
+    public TopSensorResponse(int rank, UUID sensorId, String districtName, String energySource,
+                             BigDecimal totalKwh, BigDecimal maxErrorKwh) {
+        this.rank = rank;
+        this.sensorId = sensorId;
+        this.districtName = districtName;
+        this.energySource = energySource;
+        this.totalKwh = totalKwh;
+        this.maxErrorKwh = maxErrorKwh;
+    }
+
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+
+    public UUID getSensorId() { return sensorId; }
+    public void setSensorId(UUID sensorId) { this.sensorId = sensorId; }
+
+    public String getDistrictName() { return districtName; }
+    public void setDistrictName(String districtName) { this.districtName = districtName; }
+
+    public String getEnergySource() { return energySource; }
+    public void setEnergySource(String energySource) { this.energySource = energySource; }
+
+    public BigDecimal getTotalKwh() { return totalKwh; }
+    public void setTotalKwh(BigDecimal totalKwh) { this.totalKwh = totalKwh; }
+
+    public BigDecimal getMaxErrorKwh() { return maxErrorKwh; }
+    public void setMaxErrorKwh(BigDecimal maxErrorKwh) { this.maxErrorKwh = maxErrorKwh; }
+}
@@ -0,0 +1,59 @@
+package com.smartcity.energy.dto;
+
+/**
+ * DTO for voltage quantiles of a sensor, district or the whole city
+ */
+public class VoltageQuantilesResponse {
+
+    private String scope;
+    private int hours;
+    private long sampleCount;
+    private int min;
+    private int p5;
+    private int p50;
+    private int p95;
+    private int p99;
+    private int max;
+
+    public VoltageQuantilesResponse() {}
+
+    public VoltageQuantilesResponse(String scope, int hours, long sampleCount,
+                                    int min, int p5, int p50, int p95, int p99, int max) {
+        this.scope = scope;
+        this.hours = hours;
+        this.sampleCount = sampleCount;
+        this.min = min;
+        this.p5 = p5;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public int getHours() { return hours; }
+    public void setHours(int hours) { this.hours = hours; }
+
+    public long getSampleCount() { return sampleCount; }
+    public void setSampleCount(long sampleCount) { this.sampleCount = sampleCount; }
+
+    public int getMin() { return min; }
+    public void setMin(int min) { this.min = min; }
+
+    public int getP5() { return p5; }
+    public void setP5(int p5) { this.p5 = p5; }
+
+    public int getP50() { return p50; }
+    public void setP50(int p50) { this.p50 = p50; }
+
+    public int getP95() { return p95; }
+    public void setP95(int p95) { this.p95 = p95; }
+
+    public int getP99() { return p99; }
+    public void setP99(int p99) { this.p99 = p99; }
+
+    public int getMax() { return max; }
+    public void setMax(int max) { this.max = max; }
+}
@@ -0,0 +1,141 @@
+package com.smartcity.energy.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * AlertRule Model - Threshold rule evaluated on the ingest stream
+ * Maps to: smart_city.alert_rules table
+ */
+public class AlertRule {
+
+    private UUID ruleId;
+    private String name;
+    private boolean enabled;
+    private UUID sensorId;        // optional scope filters (AND)
+    private String districtName;
+    private String energySource;
+    private String metric;        // 'kwh' or 'voltage'
+    private String comparator;    // 'LT', 'LE', 'GT' or 'GE'
+    private double threshold;
+    private int consecutive;      // readings in a row (per-reading rules)
+    private int windowSeconds;    // 0 = per reading, otherwise windowed aggregate
+    private String aggregate;     // 'SUM' or 'AVG' (windowed rules)
+    private String groupBy;       // 'SENSOR' or 'DISTRICT' (windowed rules)
+    private Instant updatedAt;
+
+    public AlertRule() {}
+
+    // Getters and Setters
+    public UUID getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(UUID ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public String getDistrictName() {
+        return districtName;
+    }
+
+    public void setDistrictName(String districtName) {
+        this.districtName = districtName;
+    }
+
+    public String getEnergySource() {
+        return energySource;
+    }
+
+    public void setEnergySource(String energySource) {
+        this.energySource = energySource;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getComparator() {
+        return comparator;
+    }
+
+    public void setComparator(String comparator) {
+        this.comparator = comparator;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getConsecutive() {
+        return consecutive;
+    }
+
+    public void setConsecutive(int consecutive) {
+        this.consecutive = consecutive;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public String getAggregate() {
+        return aggregate;
+    }
+
+    public void setAggregate(String aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,100 @@
+package com.smartcity.energy.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Anomaly Model - Outlier reading flagged by the streaming detector
+ * Maps to: smart_city.anomalies table
+ */
+public class Anomaly {
+
+    private UUID sensorId;
+    private LocalDate eventDate;
+    private Instant detectedAt;
+    private String metric;        // 'kwh' or 'voltage'
+    private String anomalyType;   // 'ZSCORE' or 'RATE_OF_CHANGE'
+    private double value;
+    private double expected;
+    private double score;
+
+    public Anomaly() {}
+
+    public Anomaly(UUID sensorId, LocalDate eventDate, Instant detectedAt, String metric,
+                   String anomalyType, double value, double expected, double score) {
+        this.sensorId = sensorId;
+        this.eventDate = eventDate;
+        this.detectedAt = detectedAt;
+        this.metric = metric;
+        this.anomalyType = anomalyType;
+        this.value = value;
+        this.expected = expected;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public Instant getDetectedAt() {
+        return detectedAt;
+    }
+
+    public void setDetectedAt(Instant detectedAt) {
+        this.detectedAt = detectedAt;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getAnomalyType() {
+        return anomalyType;
+    }
+
+    public void setAnomalyType(String anomalyType) {
+        this.anomalyType = anomalyType;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    public double getExpected() {
+        return expected;
+    }
+
+    public void setExpected(double expected) {
+        this.expected = expected;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,89 @@
+package com.smartcity.energy.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * EnergyBucket Model - Downsampled readings of one sensor over a fixed bucket
+ * Maps to: smart_city.energy_logs_5m / energy_logs_1h tables
+ */
+public class EnergyBucket {
+
+    private UUID sensorId;
+    private Instant bucketStart;
+    private long totalMwh;        // milli-Wh (kWh * 1,000,000)
+    private long readingCount;
+    private long voltageSum;
+    private int minVoltage;
+    private int maxVoltage;
+
+    public EnergyBucket() {}
+
+    public EnergyBucket(UUID sensorId, Instant bucketStart, long totalMwh, long readingCount,
+                        long voltageSum, int minVoltage, int maxVoltage) {
+        this.sensorId = sensorId;
+        this.bucketStart = bucketStart;
+        this.totalMwh = totalMwh;
+        this.readingCount = readingCount;
+        this.voltageSum = voltageSum;
+        this.minVoltage = minVoltage;
+        this.maxVoltage = maxVoltage;
+    }
+
+    // Getters and Setters
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getTotalMwh() {
+        return totalMwh;
+    }
+
+    public void setTotalMwh(long totalMwh) {
+        this.totalMwh = totalMwh;
+    }
+
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    public void setReadingCount(long readingCount) {
+        this.readingCount = readingCount;
+    }
+
+    public long getVoltageSum() {
+        return voltageSum;
+    }
+
+    public void setVoltageSum(long voltageSum) {
+        this.voltageSum = voltageSum;
+    }
+
+    public int getMinVoltage() {
+        return minVoltage;
+    }
+
+    public void setMinVoltage(int minVoltage) {
+        this.minVoltage = minVoltage;
+    }
+
+    public int getMaxVoltage() {
+        return maxVoltage;
+    }
+
+    public void setMaxVoltage(int maxVoltage) {
+        this.maxVoltage = maxVoltage;
+    }
+}
@@ -7,7 +7,7 @@ import java.util.UUID;
 
 /**
  * EnergyLog Model - Represents time-series energy data
- * Maps to: smart_city.energy_logs table
+ * Maps to: smart_city.energy_logs / energy_logs_compact tables
  */
 public class EnergyLog {
     
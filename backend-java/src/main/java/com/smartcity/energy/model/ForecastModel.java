@@ -0,0 +1,99 @@
+package com.smartcity.energy.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * ForecastModel Model - Persisted Holt-Winters state of one district and energy source
+ * Maps to: smart_city.forecast_models table
+ */
+public class ForecastModel {
+
+    private String districtName;
+    private String energySource;   // 'SOLAR' or 'GRID'
+    private double level;
+    private double trend;
+    private List<Double> season;   // one offset per hour of day
+    private long lastEpochHour;    // last hour folded into the model (epoch hours)
+    private long observations;
+    private Instant updatedAt;
+
+    public ForecastModel() {}
+
+    public ForecastModel(String districtName, String energySource, double level, double trend,
+                         List<Double> season, long lastEpochHour, long observations, Instant updatedAt) {
+        this.districtName = districtName;
+        this.energySource = energySource;
+        this.level = level;
+        this.trend = trend;
+        this.season = season;
+        this.lastEpochHour = lastEpochHour;
+        this.observations = observations;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getDistrictName() {
+        return districtName;
+    }
+
+    public void setDistrictName(String districtName) {
+        this.districtName = districtName;
+    }
+
+    public String getEnergySource() {
+        return energySource;
+    }
+
+    public void setEnergySource(String energySource) {
+        this.energySource = energySource;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public void setLevel(double level) {
+        this.level = level;
+    }
+
+    public double getTrend() {
+        return trend;
+    }
+
+    public void setTrend(double trend) {
+        this.trend = trend;
+    }
+
+    public List<Double> getSeason() {
+        return season;
+    }
+
+    public void setSeason(List<Double> season) {
+        this.season = season;
+    }
+
+    public long getLastEpochHour() {
+        return lastEpochHour;
+    }
+
+    public void setLastEpochHour(long lastEpochHour) {
+        this.lastEpochHour = lastEpochHour;
+    }
+
+    public long getObservations() {
+        return observations;
+    }
+
+    public void setObservations(long observations) {
+        this.observations = observations;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartcity.energy.model;
+
+/**
+ * HourlyRollup Model - Pre-aggregated energy for one hour
+ * Maps to: smart_city.energy_hourly_* counter tables
+ */
+public class HourlyRollup {
+
+    private int hour;
+    private String energySource;  // 'SOLAR' or 'GRID', null for per-sensor rollups
+    private long totalMwh;        // milli-Wh (kWh * 1,000,000)
+    private long readingCount;
+
+    public HourlyRollup() {}
+
+    public HourlyRollup(int hour, String energySource, long totalMwh, long readingCount) {
+        this.hour = hour;
+        this.energySource = energySource;
+        this.totalMwh = totalMwh;
+        this.readingCount = readingCount;
+    }
+
+    // Getters and Setters
+    public int getHour() {
+        return hour;
+    }
+
+    public void setHour(int hour) {
+        this.hour = hour;
+    }
+
+    public String getEnergySource() {
+        return energySource;
+    }
+
+    public void setEnergySource(String energySource) {
+        this.energySource = energySource;
+    }
+
+    public long getTotalMwh() {
+        return totalMwh;
+    }
+
+    public void setTotalMwh(long totalMwh) {
+        this.totalMwh = totalMwh;
+    }
+
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    public void setReadingCount(long readingCount) {
+        this.readingCount = readingCount;
+    }
+}
@@ -0,0 +1,120 @@
+package com.smartcity.energy.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * PowerQualityHour Model - Closed hourly power-quality bucket of one sensor
+ * Maps to: smart_city.power_quality_by_sensor / power_quality_by_district tables
+ */
+public class PowerQualityHour {
+
+    private UUID sensorId;
+    private String districtName;
+    private LocalDate eventDate;
+    private int hour;
+    private int sagCount;
+    private int swellCount;
+    private int interruptionCount;
+    private long sagMillis;
+    private long swellMillis;
+    private long interruptionMillis;
+
+    public PowerQualityHour() {}
+
+    public PowerQualityHour(UUID sensorId, String districtName, LocalDate eventDate, int hour,
+                            int sagCount, int swellCount, int interruptionCount,
+                            long sagMillis, long swellMillis, long interruptionMillis) {
+        this.sensorId = sensorId;
+        this.districtName = districtName;
+        this.eventDate = eventDate;
+        this.hour = hour;
+        this.sagCount = sagCount;
+        this.swellCount = swellCount;
+        this.interruptionCount = interruptionCount;
+        this.sagMillis = sagMillis;
+        this.swellMillis = swellMillis;
+        this.interruptionMillis = interruptionMillis;
+    }
+
+    // Getters and Setters
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public String getDistrictName() {
+        return districtName;
+    }
+
+    public void setDistrictName(String districtName) {
+        this.districtName = districtName;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public int getHour() {
+        return hour;
+    }
+
+    public void setHour(int hour) {
+        this.hour = hour;
+    }
+
+    public int getSagCount() {
+        return sagCount;
+    }
+
+    public void setSagCount(int sagCount) {
+        this.sagCount = sagCount;
+    }
+
+    public int getSwellCount() {
+        return swellCount;
+    }
+
+    public void setSwellCount(int swellCount) {
+        this.swellCount = swellCount;
+    }
+
+    public int getInterruptionCount() {
+        return interruptionCount;
+    }
+
+    public void setInterruptionCount(int interruptionCount) {
+        this.interruptionCount = interruptionCount;
+    }
+
+    public long getSagMillis() {
+        return sagMillis;
+    }
+
+    public void setSagMillis(long sagMillis) {
+        this.sagMillis = sagMillis;
+    }
+
+    public long getSwellMillis() {
+        return swellMillis;
+    }
+
+    public void setSwellMillis(long swellMillis) {
+        this.swellMillis = swellMillis;
+    }
+
+    public long getInterruptionMillis() {
+        return interruptionMillis;
+    }
+
+    public void setInterruptionMillis(long interruptionMillis) {
+        this.interruptionMillis = interruptionMillis;
+    }
+}
@@ -0,0 +1,104 @@
+package com.smartcity.energy.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * SensorDailyAggregate Model - Server-side aggregate of one energy_logs partition
+ * Computed by Cassandra over (sensor_id, event_date)
+ */
+public class SensorDailyAggregate {
+
+    private UUID sensorId;
+    private LocalDate eventDate;
+    private BigDecimal totalKwh;
+    private long readingCount;
+    private int minVoltage;
+    private int maxVoltage;
+    private long voltageSum;
+
+    public SensorDailyAggregate() {}
+
+    public SensorDailyAggregate(UUID sensorId, LocalDate eventDate, BigDecimal totalKwh,
+                                long readingCount, int minVoltage, int maxVoltage, long voltageSum) {
+        this.sensorId = sensorId;
+        this.eventDate = eventDate;
+        this.totalKwh = totalKwh;
+        this.readingCount = readingCount;
+        this.minVoltage = minVoltage;
+        this.maxVoltage = maxVoltage;
+        this.voltageSum = voltageSum;
+    }
+
+    /**
+     * Empty aggregate for a partition without readings
+     */
+    public static SensorDailyAggregate empty(UUID sensorId, LocalDate eventDate) {
+        return new SensorDailyAggregate(sensorId, eventDate, BigDecimal.ZERO, 0, 0, 0, 0);
+    }
+
+    /**
+     * Average voltage over all readings, 0 when the partition is empty
+     */
+    public double getAverageVoltage() {
+        return readingCount > 0 ? (double) voltageSum / readingCount : 0;
+    }
+
+    // Getters and Setters
+    public UUID getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(UUID sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public LocalDate getEventDate() {
+        return eventDate;
+    }
+
+    public void setEventDate(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+
+    public BigDecimal getTotalKwh() {
+        return totalKwh;
+    }
+
+    public void setTotalKwh(BigDecimal totalKwh) {
+        this.totalKwh = totalKwh;
+    }
+
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    public void setReadingCount(long readingCount) {
+        this.readingCount = readingCount;
+    }
+
+    public int getMinVoltage() {
+        return minVoltage;
+    }
+
+    public void setMinVoltage(int minVoltage) {
+        this.minVoltage = minVoltage;
+    }
+
+    public int getMaxVoltage() {
+        return maxVoltage;
+    }
+
+    public void setMaxVoltage(int maxVoltage) {
+        this.maxVoltage = maxVoltage;
+    }
+
+    public long getVoltageSum() {
+        return voltageSum;
+    }
+
+    public void setVoltageSum(long voltageSum) {
+        this.voltageSum = voltageSum;
+    }
+}
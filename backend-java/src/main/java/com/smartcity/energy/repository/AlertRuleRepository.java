@@ -0,0 +1,34 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.model.AlertRule;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * AlertRule Repository - storage contract for threshold alert rules
+ * Implemented by {@link CassandraAlertRuleRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface AlertRuleRepository {
+
+    /**
+     * Save (insert or overwrite) a rule
+     */
+    AlertRule save(AlertRule rule);
+
+    /**
+     * Get all rules
+     */
+    List<AlertRule> findAll();
+
+    /**
+     * Get rule by ID
+     */
+    Optional<AlertRule> findById(UUID ruleId);
+
+    /**
+     * Delete rule
+     */
+    void delete(UUID ruleId);
+}
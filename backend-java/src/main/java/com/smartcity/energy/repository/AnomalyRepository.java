@@ -0,0 +1,24 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.model.Anomaly;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Anomaly Repository - storage contract for flagged anomalies
+ * Implemented by {@link CassandraAnomalyRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface AnomalyRepository {
+
+    /**
+     * Save anomaly asynchronously (never blocks the ingest path)
+     */
+    void saveAsync(Anomaly anomaly);
+
+    /**
+     * Get anomalies of a sensor on a specific date (newest first)
+     */
+    List<Anomaly> findByDate(UUID sensorId, LocalDate date);
+}
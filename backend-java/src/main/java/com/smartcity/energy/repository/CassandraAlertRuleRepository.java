@@ -0,0 +1,131 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.AlertRule;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * AlertRule Repository - Raw CQL implementation (NO ORM)
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraAlertRuleRepository implements AlertRuleRepository {
+
+    private static final String COLUMNS =
+        "rule_id, name, enabled, sensor_id, district_name, energy_source, metric, comparator, " +
+        "threshold, consecutive, window_seconds, aggregate, group_by, updated_at";
+
+    private final CqlSession session;
+
+    private PreparedStatement insertStmt;
+    private PreparedStatement selectAllStmt;
+    private PreparedStatement selectByIdStmt;
+    private PreparedStatement deleteStmt;
+
+    public CassandraAlertRuleRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        insertStmt = session.prepare(
+            "INSERT INTO alert_rules (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        selectAllStmt = session.prepare(
+            "SELECT " + COLUMNS + " FROM alert_rules"
+        );
+
+        selectByIdStmt = session.prepare(
+            "SELECT " + COLUMNS + " FROM alert_rules WHERE rule_id = ?"
+        );
+
+        deleteStmt = session.prepare(
+            "DELETE FROM alert_rules WHERE rule_id = ?"
+        );
+    }
+
+    /**
+     * Save (insert or overwrite) a rule
+     */
+    @Override
+    public AlertRule save(AlertRule rule) {
+        BoundStatement bound = insertStmt.bind(
+            rule.getRuleId(),
+            rule.getName(),
+            rule.isEnabled(),
+            rule.getSensorId(),
+            rule.getDistrictName(),
+            rule.getEnergySource(),
+            rule.getMetric(),
+            rule.getComparator(),
+            rule.getThreshold(),
+            rule.getConsecutive(),
+            rule.getWindowSeconds(),
+            rule.getAggregate(),
+            rule.getGroupBy(),
+            rule.getUpdatedAt()
+        );
+        session.execute(bound);
+        return rule;
+    }
+
+    /**
+     * Get all rules
+     */
+    @Override
+    public List<AlertRule> findAll() {
+        ResultSet rs = session.execute(selectAllStmt.bind());
+        List<AlertRule> rules = new ArrayList<>();
+
+        for (Row row : rs) {
+            rules.add(mapRowToRule(row));
+        }
+
+        return rules;
+    }
+
+    /**
+     * Get rule by ID
+     */
+    @Override
+    public Optional<AlertRule> findById(UUID ruleId) {
+        Row row = session.execute(selectByIdStmt.bind(ruleId)).one();
+        return row != null ? Optional.of(mapRowToRule(row)) : Optional.empty();
+    }
+
+    /**
+     * Delete rule
+     */
+    @Override
+    public void delete(UUID ruleId) {
+        session.execute(deleteStmt.bind(ruleId));
+    }
+
+    private AlertRule mapRowToRule(Row row) {
+        AlertRule rule = new AlertRule();
+        rule.setRuleId(row.getUuid("rule_id"));
+        rule.setName(row.getString("name"));
+        rule.setEnabled(row.getBoolean("enabled"));
+        rule.setSensorId(row.getUuid("sensor_id"));
+        rule.setDistrictName(row.getString("district_name"));
+        rule.setEnergySource(row.getString("energy_source"));
+        rule.setMetric(row.getString("metric"));
+        rule.setComparator(row.getString("comparator"));
+        rule.setThreshold(row.getDouble("threshold"));
+        rule.setConsecutive(row.getInt("consecutive"));
+        rule.setWindowSeconds(row.getInt("window_seconds"));
+        rule.setAggregate(row.getString("aggregate"));
+        rule.setGroupBy(row.getString("group_by"));
+        rule.setUpdatedAt(row.getInstant("updated_at"));
+        return rule;
+    }
+}
@@ -0,0 +1,85 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.Anomaly;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Anomaly Repository - Raw CQL implementation (NO ORM)
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraAnomalyRepository implements AnomalyRepository {
+
+    private final CqlSession session;
+
+    private PreparedStatement insertStmt;
+    private PreparedStatement selectByDateStmt;
+
+    public CassandraAnomalyRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        insertStmt = session.prepare(
+            "INSERT INTO anomalies (sensor_id, event_date, detected_at, metric, anomaly_type, value, expected, score) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        selectByDateStmt = session.prepare(
+            "SELECT sensor_id, event_date, detected_at, metric, anomaly_type, value, expected, score " +
+            "FROM anomalies WHERE sensor_id = ? AND event_date = ?"
+        );
+    }
+
+    /**
+     * Save anomaly asynchronously (never blocks the ingest path)
+     */
+    @Override
+    public void saveAsync(Anomaly anomaly) {
+        BoundStatement bound = insertStmt.bind(
+            anomaly.getSensorId(),
+            anomaly.getEventDate(),
+            anomaly.getDetectedAt(),
+            anomaly.getMetric(),
+            anomaly.getAnomalyType(),
+            anomaly.getValue(),
+            anomaly.getExpected(),
+            anomaly.getScore()
+        );
+        session.executeAsync(bound);
+    }
+
+    /**
+     * Get anomalies of a sensor on a specific date (newest first)
+     */
+    @Override
+    public List<Anomaly> findByDate(UUID sensorId, LocalDate date) {
+        ResultSet rs = session.execute(selectByDateStmt.bind(sensorId, date));
+        List<Anomaly> anomalies = new ArrayList<>();
+
+        for (Row row : rs) {
+            anomalies.add(new Anomaly(
+                row.getUuid("sensor_id"),
+                row.getLocalDate("event_date"),
+                row.getInstant("detected_at"),
+                row.getString("metric"),
+                row.getString("anomaly_type"),
+                row.getDouble("value"),
+                row.getDouble("expected"),
+                row.getDouble("score")
+            ));
+        }
+
+        return anomalies;
+    }
+}
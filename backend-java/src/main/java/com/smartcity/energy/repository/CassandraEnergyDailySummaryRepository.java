@@ -0,0 +1,87 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * EnergyDailySummary Repository - Raw CQL implementation (NO ORM)
+ * Counter table holding total Wh per day per energy source
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraEnergyDailySummaryRepository implements EnergyDailySummaryRepository {
+
+    private final CqlSession session;
+
+    private PreparedStatement incrementStmt;
+    private PreparedStatement selectTotalStmt;
+    private PreparedStatement selectDayStmt;
+
+    public CassandraEnergyDailySummaryRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        incrementStmt = session.prepare(
+            "UPDATE energy_daily_summary SET total_wh = total_wh + ? WHERE date = ? AND energy_source = ?"
+        );
+
+        selectTotalStmt = session.prepare(
+            "SELECT total_wh FROM energy_daily_summary WHERE date = ? AND energy_source = ?"
+        );
+
+        selectDayStmt = session.prepare(
+            "SELECT energy_source, total_wh FROM energy_daily_summary WHERE date = ?"
+        );
+    }
+
+    /**
+     * Increment the daily Wh counter for an energy source
+     */
+    @Override
+    public void incrementWh(String date, String energySource, long wh) {
+        BoundStatement bound = incrementStmt.bind(wh, date, energySource);
+        session.executeAsync(bound);
+    }
+
+    /**
+     * Get total kWh for a date and energy source
+     */
+    @Override
+    public double getTotalKwh(String date, String energySource) {
+        BoundStatement bound = selectTotalStmt.bind(date, energySource);
+        Row row = session.execute(bound).one();
+        return row != null ? row.getLong("total_wh") / 1000.0 : 0;
+    }
+
+    /**
+     * Get total kWh of every energy source for a date in one partition read
+     */
+    @Override
+    public Map<String, Double> getTotalsKwh(String date) {
+        Map<String, Double> totals = new HashMap<>();
+        for (Row row : session.execute(selectDayStmt.bind(date))) {
+            totals.put(row.getString("energy_source"), row.getLong("total_wh") / 1000.0);
+        }
+        return totals;
+    }
+
+    /**
+     * Get the exact Wh counter of every energy source for a date
+     */
+    @Override
+    public Map<String, Long> getTotalsWh(String date) {
+        Map<String, Long> totals = new HashMap<>();
+        for (Row row : session.execute(selectDayStmt.bind(date))) {
+            totals.put(row.getString("energy_source"), row.getLong("total_wh"));
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,869 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.EnergyBucket;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.SensorDailyAggregate;
+import com.smartcity.energy.timeseries.Segment;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * EnergyLog Repository - Raw CQL implementation (NO ORM)
+ * Optimized for time-series data with async writes.
+ * Raw readings live in energy_logs (decimal kWh) or energy_logs_compact (int milli-Wh,
+ * smallint voltage) depending on {@link StorageMode}; in DUAL mode every write goes to
+ * both tables and a partition is read from the compact table once it has been migrated.
+ * Days archived to the cold tier ({@link SegmentArchive}) are read from their segment
+ * file instead, so their partitions can be deleted from Cassandra. Daily reads of days
+ * whose raw rows have started to expire are answered from the bucketed tier that
+ * {@link RetentionPolicy#dayTier} picks, one reading per bucket.
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraEnergyLogRepository implements EnergyLogRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CassandraEnergyLogRepository.class);
+    private static final BigDecimal MIN_COMPACT_KWH = BigDecimal.valueOf(Integer.MIN_VALUE, 6);
+    private static final BigDecimal MAX_COMPACT_KWH = BigDecimal.valueOf(Integer.MAX_VALUE, 6);
+
+    private final CqlSession session;
+
+    // PreparedStatements
+    private RawStatements legacy;
+    private RawStatements compact;
+    private PreparedStatement selectForMigrationStmt;
+    private PreparedStatement insertMigratedStmt;
+    private PreparedStatement selectMigrationStateStmt;
+    private PreparedStatement updateMigrationStateStmt;
+    private PreparedStatement insert5mStmt;
+    private PreparedStatement insert1hStmt;
+    private PreparedStatement select5mRangeStmt;
+    private PreparedStatement select1hRangeStmt;
+
+    private final ZoneId zoneId;
+    private final StorageMode storageMode;
+    private final RetentionPolicy retentionPolicy;
+    private final SegmentArchive segmentArchive;
+
+    // DUAL mode: per sensor, the first date not yet copied to energy_logs_compact
+    // (LocalDate.MAX once the sensor is fully migrated)
+    private final Map<UUID, LocalDate> migratedUntil = new ConcurrentHashMap<>();
+    private final AtomicLong migrationRowsSkipped = new AtomicLong();
+
+    public CassandraEnergyLogRepository(CqlSession session, ZoneId energyZoneId,
+                               RetentionPolicy retentionPolicy, SegmentArchive segmentArchive,
+                               @Value("${energy.storage.mode:LEGACY}") StorageMode storageMode) {
+        this.session = session;
+        this.zoneId = energyZoneId;
+        this.retentionPolicy = retentionPolicy;
+        this.segmentArchive = segmentArchive;
+        this.storageMode = storageMode;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (storageMode != StorageMode.COMPACT) {
+            legacy = new RawStatements(session, "energy_logs", false, retentionPolicy.ttlSeconds(StorageTier.RAW));
+        }
+        if (storageMode != StorageMode.LEGACY) {
+            compact = new RawStatements(session, "energy_logs_compact", true, retentionPolicy.ttlSeconds(StorageTier.RAW));
+        }
+
+        if (storageMode == StorageMode.DUAL) {
+            // Copy keeps the remaining TTL of every legacy row
+            selectForMigrationStmt = session.prepare(
+                "SELECT recorded_at, kwh_usage, voltage, TTL(kwh_usage) AS remaining_ttl " +
+                "FROM energy_logs WHERE sensor_id = ? AND event_date = ?"
+            );
+
+            insertMigratedStmt = session.prepare(
+                "INSERT INTO energy_logs_compact (sensor_id, event_date, recorded_at, kwh_mwh, voltage) " +
+                "VALUES (?, ?, ?, ?, ?) USING TTL ?"
+            );
+
+            selectMigrationStateStmt = session.prepare(
+                "SELECT sensor_id, migrated_until, completed FROM energy_logs_migration"
+            );
+
+            updateMigrationStateStmt = session.prepare(
+                "UPDATE energy_logs_migration SET migrated_until = ?, completed = ? WHERE sensor_id = ?"
+            );
+
+            for (Row row : session.execute(selectMigrationStateStmt.bind())) {
+                migratedUntil.put(row.getUuid("sensor_id"),
+                    row.getBoolean("completed") ? LocalDate.MAX : row.getLocalDate("migrated_until"));
+            }
+        }
+
+
+        // Downsampled tiers: 5-minute buckets partitioned by month, 1-hour buckets by year
+        insert5mStmt = session.prepare(
+            "INSERT INTO energy_logs_5m (sensor_id, bucket_month, bucket_start, total_mwh, reading_count, " +
+            "voltage_sum, min_voltage, max_voltage) VALUES (?, ?, ?, ?, ?, ?, ?, ?) USING TTL ?"
+        );
+
+        insert1hStmt = session.prepare(
+            "INSERT INTO energy_logs_1h (sensor_id, bucket_year, bucket_start, total_mwh, reading_count, " +
+            "voltage_sum, min_voltage, max_voltage) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        select5mRangeStmt = session.prepare(
+            "SELECT bucket_start, total_mwh, reading_count, voltage_sum, min_voltage, max_voltage FROM energy_logs_5m " +
+            "WHERE sensor_id = ? AND bucket_month = ? AND bucket_start >= ? AND bucket_start < ?"
+        );
+
+        select1hRangeStmt = session.prepare(
+            "SELECT bucket_start, total_mwh, reading_count, voltage_sum, min_voltage, max_voltage FROM energy_logs_1h " +
+            "WHERE sensor_id = ? AND bucket_year = ? AND bucket_start >= ? AND bucket_start < ?"
+        );
+    }
+
+    /**
+     * Save energy log synchronously
+     */
+    @Override
+    public EnergyLog save(EnergyLog log) {
+        if (log.getRecordedAt() == null) {
+            log.setRecordedAt(Instant.now());
+        }
+        if (log.getEventDate() == null) {
+            log.setEventDate(LocalDate.now(zoneId));
+        }
+
+        if (legacy != null) {
+            session.execute(legacy.bindInsert(log));
+        }
+        if (compact != null) {
+            session.execute(compact.bindInsert(log));
+        }
+        return log;
+    }
+
+    /**
+     * Save energy log asynchronously (for high-throughput ingestion)
+     */
+    @Async
+    @Override
+    public CompletableFuture<EnergyLog> saveAsync(EnergyLog log) {
+        if (log.getRecordedAt() == null) {
+            log.setRecordedAt(Instant.now());
+        }
+        if (log.getEventDate() == null) {
+            log.setEventDate(LocalDate.now(zoneId));
+        }
+
+        if (storageMode == StorageMode.DUAL) {
+            CompletableFuture<AsyncResultSet> legacyWrite =
+                session.executeAsync(legacy.bindInsert(log)).toCompletableFuture();
+            CompletableFuture<AsyncResultSet> compactWrite =
+                session.executeAsync(compact.bindInsert(log)).toCompletableFuture();
+            return CompletableFuture.allOf(legacyWrite, compactWrite).thenApply(done -> log);
+        }
+
+        RawStatements statements = legacy != null ? legacy : compact;
+        CompletionStage<AsyncResultSet> future = session.executeAsync(statements.bindInsert(log));
+        return future.thenApply(rs -> log).toCompletableFuture();
+    }
+
+    /**
+     * Get the latest reading for a sensor
+     */
+    @Override
+    public Optional<EnergyLog> findLatest(UUID sensorId) {
+        LocalDate today = LocalDate.now(zoneId);
+        RawStatements statements = statementsFor(sensorId, today);
+        ResultSet rs = session.execute(statements.selectLatest.bind(sensorId, today));
+        Row row = rs.one();
+
+        if (row != null) {
+            return Optional.of(statements.mapRowToEnergyLog(row));
+        }
+
+        // Try yesterday if no data today
+        LocalDate yesterday = today.minusDays(1);
+        statements = statementsFor(sensorId, yesterday);
+        rs = session.execute(statements.selectLatest.bind(sensorId, yesterday));
+        row = rs.one();
+
+        if (row != null) {
+            return Optional.of(statements.mapRowToEnergyLog(row));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Get readings for a sensor on a specific date
+     */
+    @Override
+    public List<EnergyLog> findByDate(UUID sensorId, LocalDate date) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            return readArchived(segment, sensorId, date, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return readBuckets(tier, sensorId, date, dayStart(date), dayStart(date.plusDays(1)));
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        ResultSet rs = session.execute(statements.selectDaily.bind(sensorId, date));
+        List<EnergyLog> logs = new ArrayList<>();
+
+        for (Row row : rs) {
+            logs.add(statements.mapRowToEnergyLog(row));
+        }
+
+        return logs;
+    }
+
+    /**
+     * Stream all readings of a sensor's daily partition page by page (async, no EnergyLog objects)
+     */
+    @Override
+    public CompletableFuture<Void> forEachReadingAsync(UUID sensorId, LocalDate date,
+                                                       EnergyReadingVisitor visitor) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            visitArchived(segment, sensorId, visitor);
+            return CompletableFuture.completedFuture(null);
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        return session.executeAsync(statements.selectDaily.bind(sensorId, date))
+            .thenCompose(rs -> visitPages(rs, statements, visitor))
+            .toCompletableFuture();
+    }
+
+    private CompletionStage<Void> visitPages(AsyncResultSet rs, RawStatements statements,
+                                             EnergyReadingVisitor visitor) {
+        for (Row row : rs.currentPage()) {
+            visitor.visit(
+                row.getInstant("recorded_at").toEpochMilli(),
+                statements.kwhUsage(row),
+                statements.voltage(row)
+            );
+        }
+        if (rs.hasMorePages()) {
+            return rs.fetchNextPage().thenCompose(next -> visitPages(next, statements, visitor));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Stream a daily partition on the calling thread with one page prefetched
+     */
+    @Override
+    public void streamReadings(UUID sensorId, LocalDate date, int pageSize, EnergyReadingVisitor visitor) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            visitArchived(segment, sensorId, visitor);
+            return;
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        CompletionStage<AsyncResultSet> nextPage =
+            session.executeAsync(statements.selectDaily.bind(sensorId, date).setPageSize(pageSize));
+        while (nextPage != null) {
+            AsyncResultSet rs = nextPage.toCompletableFuture().join();
+            // Request the following page before visiting this one
+            nextPage = rs.hasMorePages() ? rs.fetchNextPage() : null;
+            for (Row row : rs.currentPage()) {
+                visitor.visit(
+                    row.getInstant("recorded_at").toEpochMilli(),
+                    statements.kwhUsage(row),
+                    statements.voltage(row)
+                );
+            }
+        }
+    }
+
+    /**
+     * Get readings within a time range on a specific date
+     */
+    @Override
+    public List<EnergyLog> findByDateRange(UUID sensorId, LocalDate date, 
+                                            Instant startTime, Instant endTime) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            // end is inclusive, like recorded_at <= ?
+            return readArchived(segment, sensorId, date, startTime.toEpochMilli(), endTime.toEpochMilli() + 1);
+        }
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return readBuckets(tier, sensorId, date,
+                Math.max(dayStart(date), startTime.toEpochMilli()),
+                Math.min(dayStart(date.plusDays(1)), endTime.toEpochMilli() + 1));
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        BoundStatement bound = statements.selectByDateRange.bind(sensorId, date, startTime, endTime);
+        ResultSet rs = session.execute(bound);
+        List<EnergyLog> logs = new ArrayList<>();
+
+        for (Row row : rs) {
+            logs.add(statements.mapRowToEnergyLog(row));
+        }
+
+        return logs;
+    }
+
+    /**
+     * Aggregate a sensor's daily partition in Cassandra (single read, no rows transferred)
+     */
+    @Override
+    public SensorDailyAggregate aggregateDaily(UUID sensorId, LocalDate date) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            return aggregateArchived(segment, sensorId, date);
+        }
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return aggregateBucketsAsync(tier, sensorId, date).join();
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        Row row = session.execute(statements.selectDailyAggregate.bind(sensorId, date)).one();
+        return statements.mapRowToAggregate(row, sensorId, date);
+    }
+
+    /**
+     * Aggregate a sensor's daily partition asynchronously (for fan-out across sensors)
+     */
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateDailyAsync(UUID sensorId, LocalDate date) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            return CompletableFuture.completedFuture(aggregateArchived(segment, sensorId, date));
+        }
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return aggregateBucketsAsync(tier, sensorId, date);
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        return session.executeAsync(statements.selectDailyAggregate.bind(sensorId, date))
+            .thenApply(rs -> statements.mapRowToAggregate(rs.one(), sensorId, date))
+            .toCompletableFuture();
+    }
+
+    /**
+     * Calculate total kWh for a sensor on a specific date
+     */
+    @Override
+    public BigDecimal calculateDailyTotal(UUID sensorId, LocalDate date) {
+        return aggregateDaily(sensorId, date).getTotalKwh();
+    }
+
+    /**
+     * Calculate average voltage for a sensor on a specific date
+     */
+    @Override
+    public double calculateAverageVoltage(UUID sensorId, LocalDate date) {
+        return aggregateDaily(sensorId, date).getAverageVoltage();
+    }
+
+
+    /**
+     * Aggregate a time slice of a sensor's daily partition asynchronously
+     */
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateRangeAsync(UUID sensorId, LocalDate date,
+                                                                      Instant from, Instant to) {
+        Segment segment = segmentArchive.segmentFor(date);
+        if (segment != null) {
+            return CompletableFuture.completedFuture(
+                aggregateArchived(segment, sensorId, date, from.toEpochMilli(), to.toEpochMilli()));
+        }
+        RawStatements statements = statementsFor(sensorId, date);
+        return session.executeAsync(statements.selectRangeAggregate.bind(sensorId, date, from, to))
+            .thenApply(rs -> statements.mapRowToAggregate(rs.one(), sensorId, date))
+            .toCompletableFuture();
+    }
+
+    @Override
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * First date of the sensor's partitions that is not yet in energy_logs_compact
+     * ({@code null} if migration has not started, {@link LocalDate#MAX} once complete)
+     */
+    @Override
+    public LocalDate getMigratedUntil(UUID sensorId) {
+        return migratedUntil.get(sensorId);
+    }
+
+    /**
+     * Copy one legacy partition into energy_logs_compact page by page (DUAL mode only).
+     * Rows keep their remaining TTL; rows written before the table had a TTL get the
+     * raw retention measured from their timestamp. Returns the number of rows copied.
+     */
+    @Override
+    public CompletableFuture<Long> migratePartitionAsync(UUID sensorId, LocalDate date) {
+        if (storageMode != StorageMode.DUAL) {
+            throw new IllegalStateException("Partition migration requires storage mode DUAL");
+        }
+        return session.executeAsync(selectForMigrationStmt.bind(sensorId, date))
+            .thenCompose(rs -> copyPages(rs, sensorId, date, 0))
+            .toCompletableFuture();
+    }
+
+    private CompletionStage<Long> copyPages(AsyncResultSet rs, UUID sensorId, LocalDate date, long copied) {
+        long nowMillis = System.currentTimeMillis();
+        long rawRetentionMillis = retentionPolicy.retentionMillis(StorageTier.RAW);
+        List<CompletableFuture<AsyncResultSet>> writes = new ArrayList<>();
+        for (Row row : rs.currentPage()) {
+            Instant recordedAt = row.getInstant("recorded_at");
+            BigDecimal kwhUsage = row.getBigDecimal("kwh_usage");
+            int voltage = row.getInt("voltage");
+            if (!fitsCompact(kwhUsage, voltage)) {
+                // Written before ingest validated the compact ranges; it would fail or wrap
+                logger.warn("Skipping reading of sensor {} at {} in migration: kWh {} / voltage {} out of compact range",
+                    sensorId, recordedAt, kwhUsage, voltage);
+                migrationRowsSkipped.incrementAndGet();
+                continue;
+            }
+            int ttl = row.isNull("remaining_ttl")
+                ? (int) Math.max(1, (rawRetentionMillis - (nowMillis - recordedAt.toEpochMilli())) / 1000)
+                : row.getInt("remaining_ttl");
+            writes.add(session.executeAsync(insertMigratedStmt.bind(
+                sensorId,
+                date,
+                recordedAt,
+                toMwh(kwhUsage),
+                (short) voltage,
+                ttl
+            )).toCompletableFuture());
+        }
+        long total = copied + writes.size();
+        // One page of writes in flight at a time bounds the load a migration step adds
+        CompletableFuture<Void> pageDone = CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]));
+        if (rs.hasMorePages()) {
+            return pageDone.thenCompose(done -> rs.fetchNextPage())
+                .thenCompose(next -> copyPages(next, sensorId, date, total));
+        }
+        return pageDone.thenApply(done -> total);
+    }
+
+    @Override
+    public long getMigrationRowsSkipped() {
+        return migrationRowsSkipped.get();
+    }
+
+    /**
+     * Whether a legacy reading fits the compact columns (int milli-Wh, smallint voltage)
+     */
+    private static boolean fitsCompact(BigDecimal kwhUsage, int voltage) {
+        return kwhUsage != null
+            && kwhUsage.compareTo(MIN_COMPACT_KWH) >= 0 && kwhUsage.compareTo(MAX_COMPACT_KWH) <= 0
+            && voltage >= Short.MIN_VALUE && voltage <= Short.MAX_VALUE;
+    }
+
+    /**
+     * Record migration progress of a sensor; reads of dates before {@code until} switch to
+     * energy_logs_compact, and all of its reads do once {@code completed} is set
+     */
+    @Override
+    public void markMigrated(UUID sensorId, LocalDate until, boolean completed) {
+        session.execute(updateMigrationStateStmt.bind(until, completed, sensorId));
+        migratedUntil.put(sensorId, completed ? LocalDate.MAX : until);
+    }
+
+    /**
+     * Save a downsampled bucket asynchronously (overwrites the bucket if it exists)
+     */
+    @Override
+    public CompletableFuture<Void> saveBucketAsync(StorageTier tier, EnergyBucket bucket) {
+        ZonedDateTime start = bucket.getBucketStart().atZone(zoneId);
+        BoundStatement bound;
+        if (tier == StorageTier.FIVE_MINUTES) {
+            bound = insert5mStmt.bind(
+                bucket.getSensorId(), start.toLocalDate().withDayOfMonth(1), bucket.getBucketStart(),
+                bucket.getTotalMwh(), bucket.getReadingCount(), bucket.getVoltageSum(),
+                bucket.getMinVoltage(), bucket.getMaxVoltage(), retentionPolicy.ttlSeconds(StorageTier.FIVE_MINUTES)
+            );
+        } else if (tier == StorageTier.ONE_HOUR) {
+            bound = insert1hStmt.bind(
+                bucket.getSensorId(), start.getYear(), bucket.getBucketStart(),
+                bucket.getTotalMwh(), bucket.getReadingCount(), bucket.getVoltageSum(),
+                bucket.getMinVoltage(), bucket.getMaxVoltage()
+            );
+        } else {
+            throw new IllegalArgumentException("Not a bucketed tier: " + tier);
+        }
+        return session.executeAsync(bound).thenApply(rs -> (Void) null).toCompletableFuture();
+    }
+
+    /**
+     * Stream the buckets of a downsampled tier in [fromMillis, toMillis) partition by partition.
+     * Each bucket is visited as one sample: bucket start, mean kWh per reading and mean voltage,
+     * so values stay on the same scale as raw readings.
+     */
+    @Override
+    public CompletableFuture<Void> forEachBucketAsync(StorageTier tier, UUID sensorId, long fromMillis,
+                                                      long toMillis, EnergyReadingVisitor visitor) {
+        return forEachBucketRowAsync(tier, sensorId, fromMillis, toMillis, row -> {
+            long count = row.getLong("reading_count");
+            if (count == 0) {
+                return;
+            }
+            visitor.visit(
+                row.getInstant("bucket_start").toEpochMilli(),
+                BigDecimal.valueOf(row.getLong("total_mwh") / count, 6),
+                (int) (row.getLong("voltage_sum") / count)
+            );
+        });
+    }
+
+    /**
+     * Visit the bucket rows of a downsampled tier in [fromMillis, toMillis), one partition after another
+     */
+    private CompletableFuture<Void> forEachBucketRowAsync(StorageTier tier, UUID sensorId, long fromMillis,
+                                                          long toMillis, Consumer<Row> visitor) {
+        List<BoundStatement> partitions = new ArrayList<>();
+        Instant from = Instant.ofEpochMilli(fromMillis);
+        Instant to = Instant.ofEpochMilli(toMillis);
+        LocalDate first = from.atZone(zoneId).toLocalDate();
+        LocalDate last = to.minusMillis(1).atZone(zoneId).toLocalDate();
+        if (tier == StorageTier.FIVE_MINUTES) {
+            for (LocalDate month = first.withDayOfMonth(1); !month.isAfter(last); month = month.plusMonths(1)) {
+                partitions.add(select5mRangeStmt.bind(sensorId, month, from, to));
+            }
+        } else if (tier == StorageTier.ONE_HOUR) {
+            for (int year = first.getYear(); year <= last.getYear(); year++) {
+                partitions.add(select1hRangeStmt.bind(sensorId, year, from, to));
+            }
+        } else {
+            throw new IllegalArgumentException("Not a bucketed tier: " + tier);
+        }
+
+        CompletionStage<Void> chain = CompletableFuture.completedFuture(null);
+        for (BoundStatement partition : partitions) {
+            chain = chain.thenCompose(done -> session.executeAsync(partition))
+                .thenCompose(rs -> visitBucketPages(rs, visitor));
+        }
+        return chain.toCompletableFuture();
+    }
+
+    private CompletionStage<Void> visitBucketPages(AsyncResultSet rs, Consumer<Row> visitor) {
+        for (Row row : rs.currentPage()) {
+            visitor.accept(row);
+        }
+        if (rs.hasMorePages()) {
+            return rs.fetchNextPage().thenCompose(next -> visitBucketPages(next, visitor));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+
+    /**
+     * Delete the sensor's partition of {@code date} from every raw table in use
+     */
+    @Override
+    public CompletableFuture<Void> deletePartitionAsync(UUID sensorId, LocalDate date) {
+        List<CompletableFuture<AsyncResultSet>> deletes = new ArrayList<>(2);
+        for (RawStatements statements : new RawStatements[] { legacy, compact }) {
+            if (statements != null) {
+                deletes.add(session.executeAsync(statements.deletePartition.bind(sensorId, date)).toCompletableFuture());
+            }
+        }
+        return CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Readings of an archived partition with {@code from <= recorded_at < to}, newest first
+     */
+    private static List<EnergyLog> readArchived(Segment segment, UUID sensorId, LocalDate date, long from, long to) {
+        List<EnergyLog> logs = new ArrayList<>();
+        int partition = segment.indexOf(sensorId);
+        if (partition < 0) {
+            return logs;
+        }
+        segment.scan(partition, from, to, (timestamp, mwh, voltage) -> {
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(sensorId);
+            log.setEventDate(date);
+            log.setRecordedAt(Instant.ofEpochMilli(timestamp));
+            log.setKwhUsage(EnergyLogRepository.kwhFromMwh(mwh));
+            log.setVoltage(voltage);
+            logs.add(log);
+            return true;
+        });
+        return logs;
+    }
+
+    private static void visitArchived(Segment segment, UUID sensorId, EnergyReadingVisitor visitor) {
+        int partition = segment.indexOf(sensorId);
+        if (partition >= 0) {
+            segment.scan(partition, Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, mwh, voltage) -> {
+                visitor.visit(timestamp, BigDecimal.valueOf(mwh, 6), voltage);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Daily aggregate of an archived partition, from the segment's partition columns
+     */
+    private static SensorDailyAggregate aggregateArchived(Segment segment, UUID sensorId, LocalDate date) {
+        int partition = segment.indexOf(sensorId);
+        if (partition < 0) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        return new SensorDailyAggregate(
+            sensorId,
+            date,
+            BigDecimal.valueOf(segment.totalMwh(partition), 6),
+            segment.readingCount(partition),
+            segment.minVoltage(partition),
+            segment.maxVoltage(partition),
+            segment.voltageSum(partition)
+        );
+    }
+
+    /**
+     * Aggregate of an archived partition over {@code from <= recorded_at < to}
+     */
+    private static SensorDailyAggregate aggregateArchived(Segment segment, UUID sensorId, LocalDate date,
+                                                          long from, long to) {
+        int partition = segment.indexOf(sensorId);
+        if (partition < 0) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        long[] sums = new long[3]; // milli-Wh, count, voltage sum
+        int[] range = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+        segment.scan(partition, from, to, (timestamp, mwh, voltage) -> {
+            sums[0] += mwh;
+            sums[1]++;
+            sums[2] += voltage;
+            range[0] = Math.min(range[0], voltage);
+            range[1] = Math.max(range[1], voltage);
+            return true;
+        });
+        if (sums[1] == 0) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        return new SensorDailyAggregate(
+            sensorId, date, BigDecimal.valueOf(sums[0], 6), sums[1], range[0], range[1], sums[2]
+        );
+    }
+
+    /**
+     * Bucketed tier to read {@code date} from, or null while energy_logs still holds the whole day
+     */
+    private StorageTier expiredTier(LocalDate date) {
+        StorageTier tier = retentionPolicy.dayTier(dayStart(date));
+        return tier != StorageTier.RAW ? tier : null;
+    }
+
+    /**
+     * Buckets starting in [from, to) as one reading each (mean kWh and voltage per reading,
+     * as in forEachBucketAsync), newest first like a raw partition
+     */
+    private List<EnergyLog> readBuckets(StorageTier tier, UUID sensorId, LocalDate date, long from, long to) {
+        List<EnergyLog> logs = new ArrayList<>();
+        forEachBucketAsync(tier, sensorId, from, to, (recordedAt, kwhUsage, voltage) -> {
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(sensorId);
+            log.setEventDate(date);
+            log.setRecordedAt(Instant.ofEpochMilli(recordedAt));
+            log.setKwhUsage(kwhUsage);
+            log.setVoltage(voltage);
+            logs.add(log);
+        }).join();
+        Collections.reverse(logs);
+        return logs;
+    }
+
+    /**
+     * Daily aggregate summed from the day's buckets (they keep totals, counts and voltage range)
+     */
+    private CompletableFuture<SensorDailyAggregate> aggregateBucketsAsync(StorageTier tier, UUID sensorId,
+                                                                         LocalDate date) {
+        long[] sums = new long[3]; // milli-Wh, count, voltage sum
+        int[] range = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+        return forEachBucketRowAsync(tier, sensorId, dayStart(date), dayStart(date.plusDays(1)), row -> {
+            if (row.getLong("reading_count") == 0) {
+                return;
+            }
+            sums[0] += row.getLong("total_mwh");
+            sums[1] += row.getLong("reading_count");
+            sums[2] += row.getLong("voltage_sum");
+            range[0] = Math.min(range[0], row.getInt("min_voltage"));
+            range[1] = Math.max(range[1], row.getInt("max_voltage"));
+        }).thenApply(done -> sums[1] == 0
+            ? SensorDailyAggregate.empty(sensorId, date)
+            : new SensorDailyAggregate(sensorId, date, BigDecimal.valueOf(sums[0], 6), sums[1],
+                range[0], range[1], sums[2]));
+    }
+
+    private long dayStart(LocalDate date) {
+        return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Whether reads of the sensor's partition for {@code date} come from energy_logs_compact
+     * (kWh as milli-Wh) rather than the decimal column of energy_logs
+     */
+    boolean readsCompact(UUID sensorId, LocalDate date) {
+        return statementsFor(sensorId, date).compact;
+    }
+
+    /**
+     * Table holding a complete copy of the sensor's partition for {@code date}
+     */
+    private RawStatements statementsFor(UUID sensorId, LocalDate date) {
+        if (storageMode != StorageMode.DUAL) {
+            return legacy != null ? legacy : compact;
+        }
+        LocalDate until = migratedUntil.get(sensorId);
+        return until != null && date.isBefore(until) ? compact : legacy;
+    }
+
+    private static int toMwh(BigDecimal kwh) {
+        return Math.toIntExact(kwh.movePointRight(6).longValue());
+    }
+
+    /**
+     * Prepared statements and row mapping of one raw readings table
+     */
+    private static final class RawStatements {
+
+        final boolean compact;
+        final int ttlSeconds;
+        final PreparedStatement insert;
+        final PreparedStatement selectLatest;       // uses clustering order DESC
+        final PreparedStatement selectByDateRange;
+        final PreparedStatement selectDaily;
+        final PreparedStatement selectDailyAggregate;
+        final PreparedStatement selectRangeAggregate;
+        final PreparedStatement deletePartition;
+
+        RawStatements(CqlSession session, String table, boolean compact, int ttlSeconds) {
+            this.compact = compact;
+            this.ttlSeconds = ttlSeconds;
+            String kwh = compact ? "kwh_mwh" : "kwh_usage";
+            String columns = "sensor_id, event_date, recorded_at, " + kwh + ", voltage";
+
+            // Server-side aggregation over a single partition.
+            // SUM(voltage) instead of AVG(voltage): AVG on an int column truncates in Cassandra.
+            // Compact columns are widened first: SUM/MIN/MAX keep the argument type (int/smallint).
+            String aggregates = compact
+                ? "SELECT SUM(CAST(kwh_mwh AS bigint)) AS total_mwh, COUNT(*) AS reading_count, " +
+                  "MIN(CAST(voltage AS int)) AS min_voltage, MAX(CAST(voltage AS int)) AS max_voltage, " +
+                  "SUM(CAST(voltage AS int)) AS voltage_sum "
+                : "SELECT SUM(kwh_usage) AS total_kwh, COUNT(*) AS reading_count, " +
+                  "MIN(voltage) AS min_voltage, MAX(voltage) AS max_voltage, SUM(voltage) AS voltage_sum ";
+
+            // Raw retention comes from energy.retention.raw-days, not the table default
+            insert = session.prepare(
+                "INSERT INTO " + table + " (" + columns + ") VALUES (?, ?, ?, ?, ?) USING TTL ?"
+            );
+            selectLatest = session.prepare(
+                "SELECT " + columns + " FROM " + table + " WHERE sensor_id = ? AND event_date = ? LIMIT 1"
+            );
+            selectByDateRange = session.prepare(
+                "SELECT " + columns + " FROM " + table + " WHERE sensor_id = ? AND event_date = ? " +
+                "AND recorded_at >= ? AND recorded_at <= ?"
+            );
+            selectDaily = session.prepare(
+                "SELECT " + columns + " FROM " + table + " WHERE sensor_id = ? AND event_date = ?"
+            );
+            selectDailyAggregate = session.prepare(
+                aggregates + "FROM " + table + " WHERE sensor_id = ? AND event_date = ?"
+            );
+            // Same aggregate restricted to a time slice (rebuilds downsampled buckets)
+            selectRangeAggregate = session.prepare(
+                aggregates + "FROM " + table + " WHERE sensor_id = ? AND event_date = ? " +
+                "AND recorded_at >= ? AND recorded_at < ?"
+            );
+            deletePartition = session.prepare(
+                "DELETE FROM " + table + " WHERE sensor_id = ? AND event_date = ?"
+            );
+        }
+
+        BoundStatement bindInsert(EnergyLog log) {
+            if (compact) {
+                return insert.bind(
+                    log.getSensorId(),
+                    log.getEventDate(),
+                    log.getRecordedAt(),
+                    toMwh(log.getKwhUsage()),
+                    (short) log.getVoltage(),
+                    ttlSeconds
+                );
+            }
+            return insert.bind(
+                log.getSensorId(),
+                log.getEventDate(),
+                log.getRecordedAt(),
+                log.getKwhUsage(),
+                log.getVoltage(),
+                ttlSeconds
+            );
+        }
+
+        BigDecimal kwhUsage(Row row) {
+            return compact ? BigDecimal.valueOf(row.getInt("kwh_mwh"), 6) : row.getBigDecimal("kwh_usage");
+        }
+
+        int voltage(Row row) {
+            return compact ? row.getShort("voltage") : row.getInt("voltage");
+        }
+
+        /**
+         * Map Cassandra Row to EnergyLog object
+         */
+        EnergyLog mapRowToEnergyLog(Row row) {
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(row.getUuid("sensor_id"));
+            log.setEventDate(row.getLocalDate("event_date"));
+            log.setRecordedAt(row.getInstant("recorded_at"));
+            // Compact values come back at scale 6; strip so responses match the ingested value
+            log.setKwhUsage(compact ? EnergyLogRepository.kwhFromMwh(row.getInt("kwh_mwh")) : kwhUsage(row));
+            log.setVoltage(voltage(row));
+            return log;
+        }
+
+        /**
+         * Map aggregate Row to SensorDailyAggregate (empty partitions yield nulls for MIN/MAX)
+         */
+        SensorDailyAggregate mapRowToAggregate(Row row, UUID sensorId, LocalDate date) {
+            if (row == null || row.getLong("reading_count") == 0) {
+                return SensorDailyAggregate.empty(sensorId, date);
+            }
+            BigDecimal total = compact
+                ? BigDecimal.valueOf(row.getLong("total_mwh"), 6)
+                : row.getBigDecimal("total_kwh");
+            return new SensorDailyAggregate(
+                sensorId,
+                date,
+                total != null ? total : BigDecimal.ZERO,
+                row.getLong("reading_count"),
+                row.getInt("min_voltage"),
+                row.getInt("max_voltage"),
+                row.getInt("voltage_sum")
+            );
+        }
+    }
+}
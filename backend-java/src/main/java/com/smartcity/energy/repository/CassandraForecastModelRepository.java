@@ -0,0 +1,84 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.ForecastModel;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ForecastModel Repository - Raw CQL implementation (NO ORM)
+ * One row per district and energy source, overwritten as hours close
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraForecastModelRepository implements ForecastModelRepository {
+
+    private final CqlSession session;
+
+    private PreparedStatement upsertStmt;
+    private PreparedStatement selectAllStmt;
+
+    public CassandraForecastModelRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        upsertStmt = session.prepare(
+            "INSERT INTO forecast_models (district_name, energy_source, level, trend, season, " +
+            "last_epoch_hour, observations, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        selectAllStmt = session.prepare(
+            "SELECT district_name, energy_source, level, trend, season, last_epoch_hour, " +
+            "observations, updated_at FROM forecast_models"
+        );
+    }
+
+    /**
+     * Save model state asynchronously
+     */
+    @Override
+    public void saveAsync(ForecastModel model) {
+        BoundStatement bound = upsertStmt.bind(
+            model.getDistrictName(),
+            model.getEnergySource(),
+            model.getLevel(),
+            model.getTrend(),
+            model.getSeason(),
+            model.getLastEpochHour(),
+            model.getObservations(),
+            model.getUpdatedAt()
+        );
+        session.executeAsync(bound);
+    }
+
+    /**
+     * Get all persisted models (a few rows per district)
+     */
+    @Override
+    public List<ForecastModel> findAll() {
+        ResultSet rs = session.execute(selectAllStmt.bind());
+        List<ForecastModel> models = new ArrayList<>();
+
+        for (Row row : rs) {
+            models.add(new ForecastModel(
+                row.getString("district_name"),
+                row.getString("energy_source"),
+                row.getDouble("level"),
+                row.getDouble("trend"),
+                row.getList("season", Double.class),
+                row.getLong("last_epoch_hour"),
+                row.getLong("observations"),
+                row.getInstant("updated_at")
+            ));
+        }
+
+        return models;
+    }
+}
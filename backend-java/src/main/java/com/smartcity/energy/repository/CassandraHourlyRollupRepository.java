@@ -0,0 +1,134 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.HourlyRollup;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * HourlyRollup Repository - Raw CQL implementation (NO ORM)
+ * Counter tables maintained incrementally on the ingest path:
+ * per sensor, per district and city-wide (split by energy source)
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraHourlyRollupRepository implements HourlyRollupRepository {
+
+    private final CqlSession session;
+
+    private PreparedStatement incrementSensorStmt;
+    private PreparedStatement incrementDistrictStmt;
+    private PreparedStatement incrementCityStmt;
+    private PreparedStatement selectSensorStmt;
+    private PreparedStatement selectDistrictStmt;
+    private PreparedStatement selectCityStmt;
+
+    public CassandraHourlyRollupRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        incrementSensorStmt = session.prepare(
+            "UPDATE energy_hourly_by_sensor SET total_mwh = total_mwh + ?, reading_count = reading_count + 1 " +
+            "WHERE sensor_id = ? AND event_date = ? AND hour = ?"
+        );
+
+        incrementDistrictStmt = session.prepare(
+            "UPDATE energy_hourly_by_district SET total_mwh = total_mwh + ?, reading_count = reading_count + 1 " +
+            "WHERE district_name = ? AND event_date = ? AND hour = ? AND energy_source = ?"
+        );
+
+        incrementCityStmt = session.prepare(
+            "UPDATE energy_hourly_city SET total_mwh = total_mwh + ?, reading_count = reading_count + 1 " +
+            "WHERE event_date = ? AND hour = ? AND energy_source = ?"
+        );
+
+        selectSensorStmt = session.prepare(
+            "SELECT hour, total_mwh, reading_count FROM energy_hourly_by_sensor " +
+            "WHERE sensor_id = ? AND event_date = ?"
+        );
+
+        selectDistrictStmt = session.prepare(
+            "SELECT hour, energy_source, total_mwh, reading_count FROM energy_hourly_by_district " +
+            "WHERE district_name = ? AND event_date = ?"
+        );
+
+        selectCityStmt = session.prepare(
+            "SELECT hour, energy_source, total_mwh, reading_count FROM energy_hourly_city " +
+            "WHERE event_date = ?"
+        );
+    }
+
+    /**
+     * Add one reading to the sensor, district and city rollups (fire-and-forget)
+     */
+    @Override
+    public void increment(UUID sensorId, String districtName, String energySource,
+                          LocalDate date, int hour, long mwh) {
+        session.executeAsync(incrementSensorStmt.bind(mwh, sensorId, date, hour));
+        session.executeAsync(incrementDistrictStmt.bind(mwh, districtName, date, hour, energySource));
+        session.executeAsync(incrementCityStmt.bind(mwh, date, hour, energySource));
+    }
+
+    /**
+     * Get hourly rollups of one sensor for a date
+     */
+    @Override
+    public List<HourlyRollup> findBySensor(UUID sensorId, LocalDate date) {
+        ResultSet rs = session.execute(selectSensorStmt.bind(sensorId, date));
+        List<HourlyRollup> rollups = new ArrayList<>();
+
+        for (Row row : rs) {
+            rollups.add(new HourlyRollup(
+                row.getInt("hour"),
+                null,
+                row.getLong("total_mwh"),
+                row.getLong("reading_count")
+            ));
+        }
+
+        return rollups;
+    }
+
+    /**
+     * Get hourly rollups of a district for a date (one row per hour and energy source)
+     */
+    @Override
+    public List<HourlyRollup> findByDistrict(String districtName, LocalDate date) {
+        return mapRows(session.execute(selectDistrictStmt.bind(districtName, date)));
+    }
+
+    /**
+     * Get city-wide hourly rollups for a date (one row per hour and energy source)
+     */
+    @Override
+    public List<HourlyRollup> findCity(LocalDate date) {
+        return mapRows(session.execute(selectCityStmt.bind(date)));
+    }
+
+    /**
+     * Map source-split rollup rows
+     */
+    private List<HourlyRollup> mapRows(ResultSet rs) {
+        List<HourlyRollup> rollups = new ArrayList<>();
+
+        for (Row row : rs) {
+            rollups.add(new HourlyRollup(
+                row.getInt("hour"),
+                row.getString("energy_source"),
+                row.getLong("total_mwh"),
+                row.getLong("reading_count")
+            ));
+        }
+
+        return rollups;
+    }
+}
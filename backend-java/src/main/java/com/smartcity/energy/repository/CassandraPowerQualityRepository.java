@@ -0,0 +1,113 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.PowerQualityHour;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PowerQuality Repository - Raw CQL implementation (NO ORM)
+ * Closed hourly buckets written once, queryable per sensor and per district
+ */
+@Repository
+@Profile("!inmemory")
+public class CassandraPowerQualityRepository implements PowerQualityRepository {
+
+    private static final String COLUMNS =
+        "sag_count, swell_count, interruption_count, sag_ms, swell_ms, interruption_ms";
+
+    private final CqlSession session;
+
+    private PreparedStatement insertSensorStmt;
+    private PreparedStatement insertDistrictStmt;
+    private PreparedStatement selectSensorStmt;
+    private PreparedStatement selectDistrictStmt;
+
+    public CassandraPowerQualityRepository(CqlSession session) {
+        this.session = session;
+    }
+
+    @PostConstruct
+    public void init() {
+        insertSensorStmt = session.prepare(
+            "INSERT INTO power_quality_by_sensor (sensor_id, event_date, hour, district_name, " + COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        insertDistrictStmt = session.prepare(
+            "INSERT INTO power_quality_by_district (district_name, event_date, hour, sensor_id, " + COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+        );
+
+        selectSensorStmt = session.prepare(
+            "SELECT sensor_id, district_name, event_date, hour, " + COLUMNS + " " +
+            "FROM power_quality_by_sensor WHERE sensor_id = ? AND event_date = ?"
+        );
+
+        selectDistrictStmt = session.prepare(
+            "SELECT sensor_id, district_name, event_date, hour, " + COLUMNS + " " +
+            "FROM power_quality_by_district WHERE district_name = ? AND event_date = ?"
+        );
+    }
+
+    /**
+     * Save a closed bucket to both tables asynchronously
+     */
+    @Override
+    public void saveAsync(PowerQualityHour bucket) {
+        session.executeAsync(insertSensorStmt.bind(
+            bucket.getSensorId(), bucket.getEventDate(), bucket.getHour(), bucket.getDistrictName(),
+            bucket.getSagCount(), bucket.getSwellCount(), bucket.getInterruptionCount(),
+            bucket.getSagMillis(), bucket.getSwellMillis(), bucket.getInterruptionMillis()
+        ));
+        session.executeAsync(insertDistrictStmt.bind(
+            bucket.getDistrictName(), bucket.getEventDate(), bucket.getHour(), bucket.getSensorId(),
+            bucket.getSagCount(), bucket.getSwellCount(), bucket.getInterruptionCount(),
+            bucket.getSagMillis(), bucket.getSwellMillis(), bucket.getInterruptionMillis()
+        ));
+    }
+
+    /**
+     * Get closed buckets of a sensor for a date
+     */
+    @Override
+    public List<PowerQualityHour> findBySensor(UUID sensorId, LocalDate date) {
+        return mapRows(session.execute(selectSensorStmt.bind(sensorId, date)));
+    }
+
+    /**
+     * Get closed buckets of every sensor in a district for a date
+     */
+    @Override
+    public List<PowerQualityHour> findByDistrict(String districtName, LocalDate date) {
+        return mapRows(session.execute(selectDistrictStmt.bind(districtName, date)));
+    }
+
+    private List<PowerQualityHour> mapRows(ResultSet rs) {
+        List<PowerQualityHour> buckets = new ArrayList<>();
+
+        for (Row row : rs) {
+            buckets.add(new PowerQualityHour(
+                row.getUuid("sensor_id"),
+                row.getString("district_name"),
+                row.getLocalDate("event_date"),
+                row.getInt("hour"),
+                row.getInt("sag_count"),
+                row.getInt("swell_count"),
+                row.getInt("interruption_count"),
+                row.getLong("sag_ms"),
+                row.getLong("swell_ms"),
+                row.getLong("interruption_ms")
+            ));
+        }
+
+        return buckets;
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartcity.energy.repository;
+
+import java.util.Map;
+
+/**
+ * EnergyDailySummary Repository - storage contract for daily Wh counters per energy source
+ * Implemented by {@link CassandraEnergyDailySummaryRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface EnergyDailySummaryRepository {
+
+    /**
+     * Increment the daily Wh counter for an energy source
+     */
+    void incrementWh(String date, String energySource, long wh);
+
+    /**
+     * Get total kWh for a date and energy source
+     */
+    double getTotalKwh(String date, String energySource);
+
+    /**
+     * Get total kWh of every energy source for a date in one partition read
+     */
+    Map<String, Double> getTotalsKwh(String date);
+
+    /**
+     * Exact Wh counters of every energy source for a date (rebuilds compute deltas from these)
+     */
+    Map<String, Long> getTotalsWh(String date);
+}
@@ -1,207 +1,142 @@
 package com.smartcity.energy.repository;
 
-import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.*;
+import com.smartcity.energy.model.EnergyBucket;
 import com.smartcity.energy.model.EnergyLog;
-import jakarta.annotation.PostConstruct;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.stereotype.Repository;
+import com.smartcity.energy.model.SensorDailyAggregate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionStage;
 
 /**
- * EnergyLog Repository - Raw CQL implementation (NO ORM)
- * Optimized for time-series data with async writes
+ * EnergyLog Repository - storage contract for raw readings and downsampled buckets
+ * Implemented by {@link CassandraEnergyLogRepository} and the in-memory engine (profile {@code inmemory})
  */
-@Repository
-public class EnergyLogRepository {
+public interface EnergyLogRepository {
 
-    private final CqlSession session;
-
-    // PreparedStatements
-    private PreparedStatement insertStmt;
-    private PreparedStatement selectLatestStmt;
-    private PreparedStatement selectByDateRangeStmt;
-    private PreparedStatement selectDailyTotalStmt;
-
-    public EnergyLogRepository(CqlSession session) {
-        this.session = session;
-    }
-
-    @PostConstruct
-    public void init() {
-        // Insert energy log
-        insertStmt = session.prepare(
-            "INSERT INTO energy_logs (sensor_id, event_date, recorded_at, kwh_usage, voltage) " +
-            "VALUES (?, ?, ?, ?, ?)"
-        );
-
-        // Get latest reading (uses clustering order DESC)
-        selectLatestStmt = session.prepare(
-            "SELECT sensor_id, event_date, recorded_at, kwh_usage, voltage " +
-            "FROM energy_logs WHERE sensor_id = ? AND event_date = ? LIMIT 1"
-        );
-
-        // Get readings by date range
-        selectByDateRangeStmt = session.prepare(
-            "SELECT sensor_id, event_date, recorded_at, kwh_usage, voltage " +
-            "FROM energy_logs WHERE sensor_id = ? AND event_date = ? " +
-            "AND recorded_at >= ? AND recorded_at <= ?"
-        );
-
-        // For aggregation queries
-        selectDailyTotalStmt = session.prepare(
-            "SELECT sensor_id, event_date, recorded_at, kwh_usage, voltage " +
-            "FROM energy_logs WHERE sensor_id = ? AND event_date = ?"
-        );
+    /**
+     * kWh of a value held as milli-Wh, without trailing zeros and never in exponent
+     * notation (10 stays 10 instead of 1E+1)
+     */
+    static BigDecimal kwhFromMwh(long mwh) {
+        BigDecimal kwh = BigDecimal.valueOf(mwh, 6).stripTrailingZeros();
+        return kwh.scale() < 0 ? kwh.setScale(0) : kwh;
     }
 
     /**
      * Save energy log synchronously
      */
-    public EnergyLog save(EnergyLog log) {
-        if (log.getRecordedAt() == null) {
-            log.setRecordedAt(Instant.now());
-        }
-        if (log.getEventDate() == null) {
-            log.setEventDate(LocalDate.now());
-        }
-
-        BoundStatement bound = insertStmt.bind(
-            log.getSensorId(),
-            log.getEventDate(),
-            log.getRecordedAt(),
-            log.getKwhUsage(),
-            log.getVoltage()
-        );
-
-        session.execute(bound);
-        return log;
-    }
+    EnergyLog save(EnergyLog log);
 
     /**
      * Save energy log asynchronously (for high-throughput ingestion)
      */
-    @Async
-    public CompletableFuture<EnergyLog> saveAsync(EnergyLog log) {
-        if (log.getRecordedAt() == null) {
-            log.setRecordedAt(Instant.now());
-        }
-        if (log.getEventDate() == null) {
-            log.setEventDate(LocalDate.now());
-        }
-
-        BoundStatement bound = insertStmt.bind(
-            log.getSensorId(),
-            log.getEventDate(),
-            log.getRecordedAt(),
-            log.getKwhUsage(),
-            log.getVoltage()
-        );
-
-        CompletionStage<AsyncResultSet> future = session.executeAsync(bound);
-        return future.thenApply(rs -> log).toCompletableFuture();
-    }
+    CompletableFuture<EnergyLog> saveAsync(EnergyLog log);
 
     /**
      * Get the latest reading for a sensor
      */
-    public Optional<EnergyLog> findLatest(UUID sensorId) {
-        LocalDate today = LocalDate.now();
-        BoundStatement bound = selectLatestStmt.bind(sensorId, today);
-        ResultSet rs = session.execute(bound);
-        Row row = rs.one();
-
-        if (row != null) {
-            return Optional.of(mapRowToEnergyLog(row));
-        }
-
-        // Try yesterday if no data today
-        LocalDate yesterday = today.minusDays(1);
-        bound = selectLatestStmt.bind(sensorId, yesterday);
-        rs = session.execute(bound);
-        row = rs.one();
-
-        if (row != null) {
-            return Optional.of(mapRowToEnergyLog(row));
-        }
-
-        return Optional.empty();
-    }
+    Optional<EnergyLog> findLatest(UUID sensorId);
 
     /**
      * Get readings for a sensor on a specific date
      */
-    public List<EnergyLog> findByDate(UUID sensorId, LocalDate date) {
-        BoundStatement bound = selectDailyTotalStmt.bind(sensorId, date);
-        ResultSet rs = session.execute(bound);
-        List<EnergyLog> logs = new ArrayList<>();
+    List<EnergyLog> findByDate(UUID sensorId, LocalDate date);
 
-        for (Row row : rs) {
-            logs.add(mapRowToEnergyLog(row));
-        }
+    /**
+     * Stream all readings of a sensor's daily partition page by page (async, no EnergyLog objects)
+     */
+    CompletableFuture<Void> forEachReadingAsync(UUID sensorId, LocalDate date,
+                                                EnergyReadingVisitor visitor);
 
-        return logs;
-    }
+    /**
+     * Stream all readings of a sensor's daily partition on the calling thread, {@code pageSize}
+     * rows per page; the next page is fetched while the current one is visited, so a slow
+     * visitor (e.g. a client download) never blocks driver threads
+     */
+    void streamReadings(UUID sensorId, LocalDate date, int pageSize, EnergyReadingVisitor visitor);
 
     /**
      * Get readings within a time range on a specific date
      */
-    public List<EnergyLog> findByDateRange(UUID sensorId, LocalDate date, 
-                                            Instant startTime, Instant endTime) {
-        BoundStatement bound = selectByDateRangeStmt.bind(sensorId, date, startTime, endTime);
-        ResultSet rs = session.execute(bound);
-        List<EnergyLog> logs = new ArrayList<>();
+    List<EnergyLog> findByDateRange(UUID sensorId, LocalDate date,
+                                     Instant startTime, Instant endTime);
 
-        for (Row row : rs) {
-            logs.add(mapRowToEnergyLog(row));
-        }
+    /**
+     * Aggregate a sensor's daily partition inside the store (no rows transferred)
+     */
+    SensorDailyAggregate aggregateDaily(UUID sensorId, LocalDate date);
 
-        return logs;
-    }
+    /**
+     * Aggregate a sensor's daily partition asynchronously (for fan-out across sensors)
+     */
+    CompletableFuture<SensorDailyAggregate> aggregateDailyAsync(UUID sensorId, LocalDate date);
 
     /**
      * Calculate total kWh for a sensor on a specific date
      */
-    public BigDecimal calculateDailyTotal(UUID sensorId, LocalDate date) {
-        List<EnergyLog> logs = findByDate(sensorId, date);
-        return logs.stream()
-            .map(EnergyLog::getKwhUsage)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
+    BigDecimal calculateDailyTotal(UUID sensorId, LocalDate date);
 
     /**
      * Calculate average voltage for a sensor on a specific date
      */
-    public double calculateAverageVoltage(UUID sensorId, LocalDate date) {
-        List<EnergyLog> logs = findByDate(sensorId, date);
-        if (logs.isEmpty()) return 0;
-        
-        return logs.stream()
-            .mapToInt(EnergyLog::getVoltage)
-            .average()
-            .orElse(0);
-    }
+    double calculateAverageVoltage(UUID sensorId, LocalDate date);
 
     /**
-     * Map Cassandra Row to EnergyLog object
+     * Aggregate a time slice of a sensor's daily partition asynchronously
      */
-    private EnergyLog mapRowToEnergyLog(Row row) {
-        EnergyLog log = new EnergyLog();
-        log.setSensorId(row.getUuid("sensor_id"));
-        log.setEventDate(row.getLocalDate("event_date"));
-        log.setRecordedAt(row.getInstant("recorded_at"));
-        log.setKwhUsage(row.getBigDecimal("kwh_usage"));
-        log.setVoltage(row.getInt("voltage"));
-        return log;
-    }
+    CompletableFuture<SensorDailyAggregate> aggregateRangeAsync(UUID sensorId, LocalDate date,
+                                                               Instant from, Instant to);
+
+    /**
+     * Physical layout of raw readings (engines without a legacy layout report COMPACT)
+     */
+    StorageMode getStorageMode();
+
+    /**
+     * First date of the sensor's partitions that is not yet in energy_logs_compact
+     * ({@code null} if migration has not started, {@link LocalDate#MAX} once complete)
+     */
+    LocalDate getMigratedUntil(UUID sensorId);
+
+    /**
+     * Copy one legacy partition into energy_logs_compact page by page (DUAL mode only).
+     * Rows keep their remaining TTL; rows written before the table had a TTL get the
+     * raw retention measured from their timestamp. Rows whose values do not fit the compact
+     * columns are skipped (see {@link #getMigrationRowsSkipped}). Returns the number of rows copied.
+     */
+    CompletableFuture<Long> migratePartitionAsync(UUID sensorId, LocalDate date);
+
+    /**
+     * Legacy rows left out of the compact copy because their kWh or voltage does not fit
+     */
+    long getMigrationRowsSkipped();
+
+    /**
+     * Record migration progress of a sensor; reads of dates before {@code until} switch to
+     * energy_logs_compact, and all of its reads do once {@code completed} is set
+     */
+    void markMigrated(UUID sensorId, LocalDate until, boolean completed);
+
+    /**
+     * Save a downsampled bucket asynchronously (overwrites the bucket if it exists)
+     */
+    CompletableFuture<Void> saveBucketAsync(StorageTier tier, EnergyBucket bucket);
+
+    /**
+     * Stream the buckets of a downsampled tier in [fromMillis, toMillis) partition by partition.
+     * Each bucket is visited as one sample: bucket start, mean kWh per reading and mean voltage,
+     * so values stay on the same scale as raw readings.
+     */
+    CompletableFuture<Void> forEachBucketAsync(StorageTier tier, UUID sensorId, long fromMillis,
+                                               long toMillis, EnergyReadingVisitor visitor);
+
+    /**
+     * Delete a sensor's raw partition of {@code date} (once it is archived to the cold tier)
+     */
+    CompletableFuture<Void> deletePartitionAsync(UUID sensorId, LocalDate date);
 }
@@ -0,0 +1,13 @@
+package com.smartcity.energy.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Row callback for streaming reads of energy_logs.
+ * Rows are handed over one at a time without building EnergyLog objects.
+ */
+@FunctionalInterface
+public interface EnergyReadingVisitor {
+
+    void visit(long recordedAtMillis, BigDecimal kwhUsage, int voltage);
+}
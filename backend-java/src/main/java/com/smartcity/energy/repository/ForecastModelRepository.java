@@ -0,0 +1,22 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.model.ForecastModel;
+
+import java.util.List;
+
+/**
+ * ForecastModel Repository - storage contract for persisted forecast model state
+ * Implemented by {@link CassandraForecastModelRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface ForecastModelRepository {
+
+    /**
+     * Save model state asynchronously
+     */
+    void saveAsync(ForecastModel model);
+
+    /**
+     * Get all persisted models (a few rows per district)
+     */
+    List<ForecastModel> findAll();
+}
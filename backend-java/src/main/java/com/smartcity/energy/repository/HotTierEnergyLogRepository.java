@@ -0,0 +1,436 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.model.EnergyBucket;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.SensorDailyAggregate;
+import com.smartcity.energy.timeseries.RecentReadings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot tier in front of {@link CassandraEnergyLogRepository}.
+ * Every saved reading is also kept in the sensor's {@link RecentReadings} ring
+ * (primitive arrays, no EnergyLog objects, kWh with its scale so a hit returns the
+ * same decimal as the table Cassandra would read); at startup the rings are warmed with
+ * the last {@code energy.hot.window-hours} from Cassandra. findLatest, findByDate
+ * and findByDateRange are answered from memory whenever the ring covers the
+ * requested window and fall through to Cassandra otherwise. Rings grow on demand
+ * until the shared {@code energy.hot.max-bytes} budget is reached, after which a
+ * full ring evicts its oldest readings; readings older than the window are
+ * evicted on every sweep. Everything else is delegated unchanged.
+ */
+@Repository
+@Primary
+@Profile("!inmemory")
+public class HotTierEnergyLogRepository implements EnergyLogRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotTierEnergyLogRepository.class);
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int WARM_BATCH = 16;
+
+    private final CassandraEnergyLogRepository delegate;
+    private final SensorRepository sensorRepository;
+    private final ZoneId zoneId;
+    private final long windowMillis;
+    private final long maxBytes;
+    private final int maxReadingsPerSensor;
+
+    private final Map<UUID, RecentReadings> rings = new ConcurrentHashMap<>();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Set<UUID> unwarmed = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmed;
+
+    public HotTierEnergyLogRepository(CassandraEnergyLogRepository delegate,
+                                      SensorRepository sensorRepository,
+                                      ZoneId energyZoneId,
+                                      @Value("${energy.hot.window-hours:48}") int windowHours,
+                                      @Value("${energy.hot.max-bytes:134217728}") long maxBytes,
+                                      @Value("${energy.hot.max-readings-per-sensor:65536}") int maxReadingsPerSensor) {
+        this.delegate = delegate;
+        this.sensorRepository = sensorRepository;
+        this.zoneId = energyZoneId;
+        this.windowMillis = windowHours * 3_600_000L;
+        this.maxBytes = maxBytes;
+        this.maxReadingsPerSensor = maxReadingsPerSensor;
+    }
+
+    @Override
+    public EnergyLog save(EnergyLog log) {
+        EnergyLog saved = delegate.save(log);
+        remember(saved);
+        return saved;
+    }
+
+    @Override
+    public CompletableFuture<EnergyLog> saveAsync(EnergyLog log) {
+        return delegate.saveAsync(log).thenApply(saved -> {
+            remember(saved);
+            return saved;
+        });
+    }
+
+    @Override
+    public Optional<EnergyLog> findLatest(UUID sensorId) {
+        RecentReadings ring = rings.get(sensorId);
+        if (ring != null) {
+            // Same semantics as the partition reads: newest of today, else of yesterday
+            LocalDate today = LocalDate.now(zoneId);
+            for (LocalDate date : new LocalDate[] { today, today.minusDays(1) }) {
+                List<EnergyLog> latest = new ArrayList<>(1);
+                if (!ring.scan(dayStart(date), dayStart(date.plusDays(1)), collect(sensorId, date, latest, 1))) {
+                    break;
+                }
+                if (!latest.isEmpty()) {
+                    hits.incrementAndGet();
+                    return Optional.of(latest.get(0));
+                }
+                if (date.isBefore(today)) {
+                    hits.incrementAndGet();
+                    return Optional.empty();
+                }
+            }
+        }
+        misses.incrementAndGet();
+        return delegate.findLatest(sensorId);
+    }
+
+    @Override
+    public List<EnergyLog> findByDate(UUID sensorId, LocalDate date) {
+        List<EnergyLog> logs = scan(sensorId, date, dayStart(date), dayStart(date.plusDays(1)));
+        return logs != null ? logs : delegate.findByDate(sensorId, date);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachReadingAsync(UUID sensorId, LocalDate date,
+                                                       EnergyReadingVisitor visitor) {
+        return delegate.forEachReadingAsync(sensorId, date, visitor);
+    }
+
+    @Override
+    public void streamReadings(UUID sensorId, LocalDate date, int pageSize, EnergyReadingVisitor visitor) {
+        delegate.streamReadings(sensorId, date, pageSize, visitor);
+    }
+
+    @Override
+    public List<EnergyLog> findByDateRange(UUID sensorId, LocalDate date,
+                                           Instant startTime, Instant endTime) {
+        long from = Math.max(dayStart(date), startTime.toEpochMilli());
+        long to = Math.min(dayStart(date.plusDays(1)), endTime.toEpochMilli() + 1); // end is inclusive
+        List<EnergyLog> logs = scan(sensorId, date, from, to);
+        return logs != null ? logs : delegate.findByDateRange(sensorId, date, startTime, endTime);
+    }
+
+    @Override
+    public SensorDailyAggregate aggregateDaily(UUID sensorId, LocalDate date) {
+        return delegate.aggregateDaily(sensorId, date);
+    }
+
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateDailyAsync(UUID sensorId, LocalDate date) {
+        return delegate.aggregateDailyAsync(sensorId, date);
+    }
+
+    @Override
+    public BigDecimal calculateDailyTotal(UUID sensorId, LocalDate date) {
+        return delegate.calculateDailyTotal(sensorId, date);
+    }
+
+    @Override
+    public double calculateAverageVoltage(UUID sensorId, LocalDate date) {
+        return delegate.calculateAverageVoltage(sensorId, date);
+    }
+
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateRangeAsync(UUID sensorId, LocalDate date,
+                                                                      Instant from, Instant to) {
+        return delegate.aggregateRangeAsync(sensorId, date, from, to);
+    }
+
+    @Override
+    public StorageMode getStorageMode() {
+        return delegate.getStorageMode();
+    }
+
+    @Override
+    public LocalDate getMigratedUntil(UUID sensorId) {
+        return delegate.getMigratedUntil(sensorId);
+    }
+
+    @Override
+    public CompletableFuture<Long> migratePartitionAsync(UUID sensorId, LocalDate date) {
+        return delegate.migratePartitionAsync(sensorId, date);
+    }
+
+    @Override
+    public long getMigrationRowsSkipped() {
+        return delegate.getMigrationRowsSkipped();
+    }
+
+    @Override
+    public void markMigrated(UUID sensorId, LocalDate until, boolean completed) {
+        delegate.markMigrated(sensorId, until, completed);
+    }
+
+    @Override
+    public CompletableFuture<Void> saveBucketAsync(StorageTier tier, EnergyBucket bucket) {
+        return delegate.saveBucketAsync(tier, bucket);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachBucketAsync(StorageTier tier, UUID sensorId, long fromMillis,
+                                                      long toMillis, EnergyReadingVisitor visitor) {
+        return delegate.forEachBucketAsync(tier, sensorId, fromMillis, toMillis, visitor);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePartitionAsync(UUID sensorId, LocalDate date) {
+        return delegate.deletePartitionAsync(sensorId, date);
+    }
+
+    /**
+     * Warm the rings (retrying sensors whose warm-up failed), then evict readings that
+     * left the window and release empty rings
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${energy.hot.sweep-interval-ms:60000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void sweep() {
+        try {
+            if (!warmed) {
+                sensorRepository.findAll().forEach(sensor -> unwarmed.add(sensor.getSensorId()));
+                warmed = true;
+            }
+            if (!unwarmed.isEmpty()) {
+                warm();
+            }
+            long windowStart = System.currentTimeMillis() - windowMillis;
+            for (UUID sensorId : rings.keySet()) {
+                rings.computeIfPresent(sensorId, (k, ring) -> {
+                    if (!ring.evictBefore(windowStart)) {
+                        return ring;
+                    }
+                    reservedBytes.addAndGet(-(long) ring.capacity() * RecentReadings.BYTES_PER_READING);
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Hot tier sweep failed: {}", e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * Load the window of every sensor not warmed yet from Cassandra, a few sensors at a time
+     */
+    private void warm() {
+        long windowStart = System.currentTimeMillis() - windowMillis;
+        List<UUID> sensorIds = new ArrayList<>(unwarmed);
+        for (int start = 0; start < sensorIds.size(); start += WARM_BATCH) {
+            List<CompletableFuture<Void>> batch = new ArrayList<>();
+            for (UUID sensorId : sensorIds.subList(start, Math.min(sensorIds.size(), start + WARM_BATCH))) {
+                batch.add(warmSensor(sensorId, windowStart));
+            }
+            CompletableFuture.allOf(batch.toArray(new CompletableFuture<?>[0])).join();
+        }
+        logger.info("Hot tier warmed: {} sensors, {} bytes, {} pending",
+            rings.size(), reservedBytes.get(), unwarmed.size());
+    }
+
+    private CompletableFuture<Void> warmSensor(UUID sensorId, long windowStart) {
+        LocalDate first = Instant.ofEpochMilli(windowStart).atZone(zoneId).toLocalDate();
+        LocalDate today = LocalDate.now(zoneId);
+        Loaded loaded = new Loaded();
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (LocalDate date = first; !date.isAfter(today); date = date.plusDays(1)) {
+            LocalDate day = date;
+            chain = chain.thenCompose(done -> delegate.forEachReadingAsync(sensorId, day,
+                (recordedAt, kwhUsage, voltage) -> {
+                    if (recordedAt >= windowStart) {
+                        loaded.add(recordedAt, ringValue(kwhUsage), voltage);
+                    }
+                }));
+        }
+        return chain.thenAccept(done -> {
+            loaded.sortAscending();
+            rings.compute(sensorId, (k, ring) -> {
+                RecentReadings target = ring != null ? ring : newRing();
+                int grown = target.merge(loaded.timestamps, loaded.values, loaded.scales, loaded.voltages,
+                    loaded.size, windowStart, allowedCapacity(target, loaded.size));
+                reservedBytes.addAndGet((long) grown * RecentReadings.BYTES_PER_READING);
+                return target;
+            });
+            unwarmed.remove(sensorId);
+        }).exceptionally(e -> {
+            // Ring stays uncovered: reads of this sensor keep going to Cassandra
+            logger.warn("Warming hot tier for sensor {} failed: {}", sensorId, e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Add the reading inside the map's per-key lock so the sweep cannot drop the ring meanwhile
+     */
+    private void remember(EnergyLog log) {
+        long timestamp = log.getRecordedAt().toEpochMilli();
+        BigDecimal kwh = ringValue(log.getKwhUsage());
+        rings.compute(log.getSensorId(), (sensorId, ring) -> {
+            if (ring == null) {
+                ring = newRing();
+                if (warmed && !unwarmed.contains(sensorId)) {
+                    // New sensor, or one without readings in the window: nothing older to load
+                    ring.markCovered(System.currentTimeMillis() - windowMillis);
+                }
+            }
+            int grown = ring.add(timestamp, kwh.unscaledValue().longValue(), (byte) kwh.scale(),
+                log.getVoltage(), allowedCapacity(ring, 1));
+            reservedBytes.addAndGet((long) grown * RecentReadings.BYTES_PER_READING);
+            return ring;
+        });
+    }
+
+    private RecentReadings newRing() {
+        reservedBytes.addAndGet((long) INITIAL_CAPACITY * RecentReadings.BYTES_PER_READING);
+        return new RecentReadings(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Capacity the ring may grow to for {@code extra} more readings without exceeding the budget
+     */
+    private int allowedCapacity(RecentReadings ring, int extra) {
+        int capacity = ring.capacity();
+        long needed = Math.max(capacity * 2L, Long.highestOneBit(Math.max(1, ring.size() + extra - 1)) << 1);
+        int wanted = (int) Math.min(maxReadingsPerSensor, needed);
+        long growthBytes = (long) (wanted - capacity) * RecentReadings.BYTES_PER_READING;
+        return reservedBytes.get() + growthBytes <= maxBytes ? wanted : capacity;
+    }
+
+    private List<EnergyLog> scan(UUID sensorId, LocalDate date, long from, long to) {
+        RecentReadings ring = rings.get(sensorId);
+        List<EnergyLog> logs = new ArrayList<>();
+        if (ring != null && ring.scan(from, to, collect(sensorId, date, logs, Integer.MAX_VALUE))) {
+            hits.incrementAndGet();
+            return logs;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Collect ring readings as the partition read would return them: the stored decimal,
+     * or the milli-Wh value when the partition is read from energy_logs_compact
+     */
+    private RecentReadings.Visitor collect(UUID sensorId, LocalDate date, List<EnergyLog> logs, int limit) {
+        boolean compact = delegate.readsCompact(sensorId, date);
+        return (timestamp, unscaled, scale, voltage) -> {
+            BigDecimal kwh = BigDecimal.valueOf(unscaled, scale);
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(sensorId);
+            log.setEventDate(date);
+            log.setRecordedAt(Instant.ofEpochMilli(timestamp));
+            log.setKwhUsage(compact ? EnergyLogRepository.kwhFromMwh(kwh.movePointRight(6).longValue()) : kwh);
+            log.setVoltage(voltage);
+            logs.add(log);
+            return logs.size() < limit;
+        };
+    }
+
+    private long dayStart(LocalDate date) {
+        return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+
+    /**
+     * kWh as the ring keeps it: the decimal itself when its unscaled value and scale fit
+     * (always for validated ingest), otherwise cut to 6 decimals like the compact column
+     */
+    private static BigDecimal ringValue(BigDecimal kwh) {
+        if (kwh.scale() >= Byte.MIN_VALUE && kwh.scale() <= Byte.MAX_VALUE
+                && kwh.unscaledValue().bitLength() < Long.SIZE) {
+            return kwh;
+        }
+        return kwh.setScale(6, RoundingMode.DOWN);
+    }
+
+    /**
+     * Growable primitive buffer for rows loaded during warm-up
+     */
+    private static final class Loaded {
+        long[] timestamps = new long[256];
+        long[] values = new long[256];
+        byte[] scales = new byte[256];
+        int[] voltages = new int[256];
+        int size;
+
+        void add(long timestamp, BigDecimal kwh, int voltage) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                scales = Arrays.copyOf(scales, size * 2);
+                voltages = Arrays.copyOf(voltages, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = kwh.unscaledValue().longValue();
+            scales[size] = (byte) kwh.scale();
+            voltages[size] = voltage;
+            size++;
+        }
+
+        /**
+         * Partitions are read newest first, day after day; order everything by timestamp
+         */
+        void sortAscending() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+            long[] sortedTimestamps = new long[size];
+            long[] sortedValues = new long[size];
+            byte[] sortedScales = new byte[size];
+            int[] sortedVoltages = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedTimestamps[i] = timestamps[order[i]];
+                sortedValues[i] = values[order[i]];
+                sortedScales[i] = scales[order[i]];
+                sortedVoltages[i] = voltages[order[i]];
+            }
+            timestamps = sortedTimestamps;
+            values = sortedValues;
+            scales = sortedScales;
+            voltages = sortedVoltages;
+        }
+    }
+}
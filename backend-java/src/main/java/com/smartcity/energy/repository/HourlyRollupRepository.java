@@ -0,0 +1,35 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.model.HourlyRollup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * HourlyRollup Repository - storage contract for hourly rollup counters (sensor, district, city)
+ * Implemented by {@link CassandraHourlyRollupRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface HourlyRollupRepository {
+
+    /**
+     * Add one reading to the sensor, district and city rollups (fire-and-forget)
+     */
+    void increment(UUID sensorId, String districtName, String energySource,
+                   LocalDate date, int hour, long mwh);
+
+    /**
+     * Get hourly rollups of one sensor for a date
+     */
+    List<HourlyRollup> findBySensor(UUID sensorId, LocalDate date);
+
+    /**
+     * Get hourly rollups of a district for a date (one row per hour and energy source)
+     */
+    List<HourlyRollup> findByDistrict(String districtName, LocalDate date);
+
+    /**
+     * Get city-wide hourly rollups for a date (one row per hour and energy source)
+     */
+    List<HourlyRollup> findCity(LocalDate date);
+}
@@ -0,0 +1,29 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.model.PowerQualityHour;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * PowerQuality Repository - storage contract for closed power-quality hours
+ * Implemented by {@link CassandraPowerQualityRepository} and the in-memory engine (profile {@code inmemory})
+ */
+public interface PowerQualityRepository {
+
+    /**
+     * Save a closed bucket to both tables asynchronously
+     */
+    void saveAsync(PowerQualityHour bucket);
+
+    /**
+     * Get closed buckets of a sensor for a date
+     */
+    List<PowerQualityHour> findBySensor(UUID sensorId, LocalDate date);
+
+    /**
+     * Get closed buckets of every sensor in a district for a date
+     */
+    List<PowerQualityHour> findByDistrict(String districtName, LocalDate date);
+}
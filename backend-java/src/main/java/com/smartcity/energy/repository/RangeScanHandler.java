@@ -0,0 +1,23 @@
+package com.smartcity.energy.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregation callback of a {@link TokenRangeScanner} scan.
+ * A fresh handler is created for every token range and fed that range's rows on
+ * one thread. Its partial result must be additive counters: partials of all
+ * ranges are summed per key, and a range's partial is stored with its checkpoint
+ * so a resumed scan does not read the range again.
+ */
+public interface RangeScanHandler {
+
+    void onRow(UUID sensorId, LocalDate eventDate, long recordedAtMillis, BigDecimal kwhUsage, int voltage);
+
+    /**
+     * Partial result of the range, called once after its last row
+     */
+    Map<String, Long> partial();
+}
@@ -0,0 +1,75 @@
+package com.smartcity.energy.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retention of each {@link StorageTier} and routing of range reads to a tier.
+ * Shared by every storage engine so they expire and route data the same way.
+ */
+@Component
+public class RetentionPolicy {
+
+    private final long rawRetentionMillis;
+    private final long fiveMinuteRetentionMillis;
+
+    public RetentionPolicy(@Value("${energy.retention.raw-days:30}") int rawRetentionDays,
+                           @Value("${energy.retention.five-minute-days:400}") int fiveMinuteRetentionDays) {
+        this.rawRetentionMillis = TimeUnit.DAYS.toMillis(rawRetentionDays);
+        this.fiveMinuteRetentionMillis = TimeUnit.DAYS.toMillis(fiveMinuteRetentionDays);
+    }
+
+    /**
+     * Pick the coarsest tier whose buckets are no wider than {@code resolutionMillis}
+     * and whose retention still covers {@code fromMillis}. When the range starts before
+     * the finer tiers' retention, the finest tier that still holds it is used.
+     */
+    public StorageTier routeTier(long fromMillis, long resolutionMillis) {
+        long age = System.currentTimeMillis() - fromMillis;
+        StorageTier chosen = null;
+        for (StorageTier tier : StorageTier.values()) {
+            if (age > retentionMillis(tier)) {
+                continue;
+            }
+            if (chosen == null || tier.getBucketMillis() <= resolutionMillis) {
+                chosen = tier;
+            }
+        }
+        return chosen != null ? chosen : StorageTier.ONE_HOUR;
+    }
+
+    /**
+     * Finest tier that still holds every reading of the day starting at {@code dayStartMillis}:
+     * RAW until the day's raw rows start to expire, then the bucketed tier that keeps it
+     */
+    public StorageTier dayTier(long dayStartMillis) {
+        return routeTier(dayStartMillis, 0);
+    }
+
+    /**
+     * How long a tier keeps data ({@link Long#MAX_VALUE} for no expiry)
+     */
+    public long retentionMillis(StorageTier tier) {
+        switch (tier) {
+            case RAW:
+                return rawRetentionMillis;
+            case FIVE_MINUTES:
+                return fiveMinuteRetentionMillis;
+            default:
+                return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Tier retention in whole seconds, for CQL TTLs; fails for tiers that never expire
+     */
+    public int ttlSeconds(StorageTier tier) {
+        long retention = retentionMillis(tier);
+        if (retention == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Tier " + tier + " never expires");
+        }
+        return Math.toIntExact(TimeUnit.MILLISECONDS.toSeconds(retention));
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartcity.energy.repository;
+
+import com.smartcity.energy.timeseries.Segment;
+import com.smartcity.energy.timeseries.SegmentWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Cold tier: closed days of energy_logs archived to local segment files, one file
+ * per event_date ({@code YYYY-MM-DD.seg}) holding every sensor's partition of that day.
+ * A day is written to a temporary file and renamed into place once complete, so a
+ * crash never leaves a half-written segment visible. All segments in the directory
+ * are mapped at startup; a day with a segment is answered from it, also for sensors
+ * that had no readings that day.
+ */
+@Component
+@Profile("!inmemory")
+public class SegmentArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentArchive.class);
+    private static final String SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".seg.tmp";
+
+    private final Path directory;
+    private final NavigableMap<LocalDate, Segment> segments = new ConcurrentSkipListMap<>();
+
+    public SegmentArchive(@Value("${energy.archive.dir:data/segments}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file); // unfinished run
+                } else if (name.endsWith(SUFFIX)) {
+                    open(file, name);
+                }
+            }
+        }
+        logger.info("Cold tier: {} archived days in {}", segments.size(), directory.toAbsolutePath());
+    }
+
+    /**
+     * Segment of the day, or {@code null} when the day is not archived
+     */
+    public Segment segmentFor(LocalDate date) {
+        return segments.get(date);
+    }
+
+    public boolean isArchived(LocalDate date) {
+        return segments.containsKey(date);
+    }
+
+    /**
+     * Start writing the segment of {@code date} (invisible until {@link #publish})
+     */
+    public SegmentWriter create(LocalDate date) throws IOException {
+        return new SegmentWriter(directory.resolve(date + TEMP_SUFFIX));
+    }
+
+    /**
+     * Finish the segment of {@code date}, move it into place and start serving reads from it
+     */
+    public Segment publish(LocalDate date, SegmentWriter writer) throws IOException {
+        try (writer) {
+            writer.finish();
+        }
+        Path target = directory.resolve(date + SUFFIX);
+        Files.move(directory.resolve(date + TEMP_SUFFIX), target, StandardCopyOption.ATOMIC_MOVE);
+        Segment segment = Segment.open(target);
+        segments.put(date, segment);
+        return segment;
+    }
+
+    /**
+     * Drop an unfinished segment of {@code date}
+     */
+    public void discard(LocalDate date, SegmentWriter writer) {
+        try (writer) {
+            Files.deleteIfExists(directory.resolve(date + TEMP_SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int archivedDays() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes of all mapped segment files
+     */
+    public long archivedBytes() {
+        return segments.values().stream().mapToLong(Segment::sizeInBytes).sum();
+    }
+
+    private void open(Path file, String name) throws IOException {
+        try {
+            LocalDate date = LocalDate.parse(name.substring(0, name.length() - SUFFIX.length()));
+            segments.put(date, Segment.open(file));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            logger.warn("Skipping unreadable segment {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartcity.energy.repository;
+
+/**
+ * Physical layout of raw readings (energy.storage.mode).
+ * LEGACY: energy_logs only. DUAL: write both tables, read migrated partitions
+ * from energy_logs_compact while the rest are copied in the background.
+ * COMPACT: energy_logs_compact only.
+ */
+public enum StorageMode {
+    LEGACY,
+    DUAL,
+    COMPACT
+}
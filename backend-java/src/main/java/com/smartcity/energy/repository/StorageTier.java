@@ -0,0 +1,28 @@
+package com.smartcity.energy.repository;
+
+/**
+ * Retention tiers of energy readings, finest first.
+ * Bucketed tiers hold one pre-aggregated row per sensor and bucket.
+ */
+public enum StorageTier {
+
+    RAW("energy_logs", 0),
+    FIVE_MINUTES("energy_logs_5m", 300_000L),
+    ONE_HOUR("energy_logs_1h", 3_600_000L);
+
+    private final String table;
+    private final long bucketMillis;
+
+    StorageTier(String table, long bucketMillis) {
+        this.table = table;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -0,0 +1,236 @@
+package com.smartcity.energy.repository;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.*;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Full scan of the raw readings table split over the token ring.
+ * The Murmur3 ring is cut into {@code energy.scan.splits} equal ranges (independent
+ * of the cluster topology, so a resumed scan gets the same ranges) and the ranges are
+ * read by {@code energy.scan.concurrency} worker threads, page by page with the next
+ * page prefetched. Each finished range is checkpointed in scan_checkpoints together
+ * with its handler's partial result; scanning the same scan id again skips those
+ * ranges and reuses their partials. Every partition lies in exactly one range.
+ */
+@Component
+@Profile("!inmemory")
+public class TokenRangeScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRangeScanner.class);
+    private static final String MURMUR3 = "org.apache.cassandra.dht.Murmur3Partitioner";
+
+    private final CqlSession session;
+    private final EnergyLogRepository energyLogRepository;
+    private final int splits;
+    private final int concurrency;
+    private final int pageSize;
+
+    private PreparedStatement selectLegacyRangeStmt;
+    private PreparedStatement selectCompactRangeStmt;
+    private PreparedStatement selectCheckpointsStmt;
+    private PreparedStatement insertCheckpointStmt;
+    private PreparedStatement deleteCheckpointsStmt;
+
+    public TokenRangeScanner(CqlSession session, EnergyLogRepository energyLogRepository,
+                             @Value("${energy.scan.splits:256}") int splits,
+                             @Value("${energy.scan.concurrency:0}") int concurrency,
+                             @Value("${energy.scan.page-size:5000}") int pageSize) {
+        this.session = session;
+        this.energyLogRepository = energyLogRepository;
+        this.splits = splits;
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void init() {
+        selectLegacyRangeStmt = session.prepare(
+            "SELECT sensor_id, event_date, recorded_at, kwh_usage, voltage FROM energy_logs " +
+            "WHERE token(sensor_id, event_date) > ? AND token(sensor_id, event_date) <= ?"
+        );
+
+        selectCompactRangeStmt = session.prepare(
+            "SELECT sensor_id, event_date, recorded_at, kwh_mwh, voltage FROM energy_logs_compact " +
+            "WHERE token(sensor_id, event_date) > ? AND token(sensor_id, event_date) <= ?"
+        );
+
+        selectCheckpointsStmt = session.prepare(
+            "SELECT range_start, range_end, rows_scanned, partial FROM scan_checkpoints WHERE scan_id = ?"
+        );
+
+        insertCheckpointStmt = session.prepare(
+            "INSERT INTO scan_checkpoints (scan_id, range_start, range_end, rows_scanned, partial, completed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)"
+        );
+
+        deleteCheckpointsStmt = session.prepare(
+            "DELETE FROM scan_checkpoints WHERE scan_id = ?"
+        );
+    }
+
+    /**
+     * Live counters of a running scan
+     */
+    public static class Progress {
+        private final AtomicInteger rangesTotal = new AtomicInteger();
+        private final AtomicInteger rangesCompleted = new AtomicInteger();
+        private final AtomicInteger rangesResumed = new AtomicInteger();
+        private final AtomicLong rowsScanned = new AtomicLong();
+
+        public int getRangesTotal() { return rangesTotal.get(); }
+        public int getRangesCompleted() { return rangesCompleted.get(); }
+        public int getRangesResumed() { return rangesResumed.get(); }
+        public long getRowsScanned() { return rowsScanned.get(); }
+    }
+
+    /**
+     * Scan every range not yet checkpointed under {@code scanId} and return the sum of all
+     * ranges' partial results. Blocks until done; if a range fails, the remaining ranges are
+     * abandoned and the exception is rethrown (finished ranges stay checkpointed).
+     */
+    public Map<String, Long> scan(String scanId, Supplier<RangeScanHandler> handlers, Progress progress) {
+        Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+        if (tokenMap.isPresent() && !MURMUR3.equals(tokenMap.get().getPartitionerName())) {
+            throw new IllegalStateException("Token range scans require the Murmur3 partitioner");
+        }
+        boolean compact = energyLogRepository.getStorageMode() == StorageMode.COMPACT;
+        PreparedStatement selectRange = compact ? selectCompactRangeStmt : selectLegacyRangeStmt;
+
+        long[] bounds = splitRing(splits);
+        Map<Long, Row> checkpoints = new HashMap<>();
+        for (Row row : session.execute(selectCheckpointsStmt.bind(scanId))) {
+            checkpoints.put(row.getLong("range_start"), row);
+        }
+
+        Map<String, Long> result = new ConcurrentHashMap<>();
+        progress.rangesTotal.set(splits);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<CompletableFuture<Void>> lanes = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                lanes.add(CompletableFuture.runAsync(() -> {
+                    int range;
+                    while (!failed.get() && (range = next.getAndIncrement()) < splits) {
+                        long start = bounds[range];
+                        long end = bounds[range + 1];
+                        Row checkpoint = checkpoints.get(start);
+                        try {
+                            if (checkpoint != null && checkpoint.getLong("range_end") == end) {
+                                merge(result, checkpoint.getMap("partial", String.class, Long.class));
+                                progress.rowsScanned.addAndGet(checkpoint.getLong("rows_scanned"));
+                                progress.rangesResumed.incrementAndGet();
+                            } else {
+                                scanRange(scanId, selectRange, compact, start, end, handlers.get(), result, progress);
+                            }
+                            progress.rangesCompleted.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                }, workers));
+            }
+            CompletableFuture.allOf(lanes.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            workers.shutdownNow();
+        }
+        logger.info("Scan {} finished: {} ranges ({} resumed), {} rows",
+            scanId, splits, progress.getRangesResumed(), progress.getRowsScanned());
+        return result;
+    }
+
+    /**
+     * Forget the checkpoints of a scan (the next scan with this id starts over)
+     */
+    public void clear(String scanId) {
+        session.execute(deleteCheckpointsStmt.bind(scanId));
+    }
+
+    public int getSplits() {
+        return splits;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    private void scanRange(String scanId, PreparedStatement selectRange, boolean compact, long start, long end,
+                           RangeScanHandler handler, Map<String, Long> result, Progress progress) {
+        BoundStatement bound = selectRange.bind(start, end).setPageSize(pageSize);
+        Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+        if (tokenMap.isPresent()) {
+            // Send the range to a replica that owns its end
+            bound = bound.setRoutingToken(tokenMap.get().parse(Long.toString(end)));
+        }
+
+        long rows = 0;
+        CompletionStage<AsyncResultSet> nextPage = session.executeAsync(bound);
+        while (nextPage != null) {
+            AsyncResultSet rs = nextPage.toCompletableFuture().join();
+            // Request the following page before handling this one
+            nextPage = rs.hasMorePages() ? rs.fetchNextPage() : null;
+            long pageRows = 0;
+            for (Row row : rs.currentPage()) {
+                handler.onRow(
+                    row.getUuid("sensor_id"),
+                    row.getLocalDate("event_date"),
+                    row.getInstant("recorded_at").toEpochMilli(),
+                    compact ? BigDecimal.valueOf(row.getInt("kwh_mwh"), 6) : row.getBigDecimal("kwh_usage"),
+                    compact ? row.getShort("voltage") : row.getInt("voltage")
+                );
+                pageRows++;
+            }
+            rows += pageRows;
+            progress.rowsScanned.addAndGet(pageRows);
+        }
+
+        Map<String, Long> partial = handler.partial();
+        session.execute(insertCheckpointStmt.bind(scanId, start, end, rows, partial, Instant.now()));
+        merge(result, partial);
+    }
+
+    /**
+     * {@code splits + 1} bounds: range i is (bounds[i], bounds[i + 1]]. Murmur3 never
+     * produces Long.MIN_VALUE, so the ranges cover every partition exactly once.
+     */
+    static long[] splitRing(int splits) {
+        long[] bounds = new long[splits + 1];
+        BigDecimal min = BigDecimal.valueOf(Long.MIN_VALUE);
+        BigDecimal width = BigDecimal.valueOf(Long.MAX_VALUE).subtract(min);
+        for (int i = 0; i <= splits; i++) {
+            bounds[i] = min.add(width.multiply(BigDecimal.valueOf(i))
+                .divideToIntegralValue(BigDecimal.valueOf(splits))).longValueExact();
+        }
+        return bounds;
+    }
+
+    private static void merge(Map<String, Long> result, Map<String, Long> partial) {
+        partial.forEach((key, value) -> result.merge(key, value, Long::sum));
+    }
+}
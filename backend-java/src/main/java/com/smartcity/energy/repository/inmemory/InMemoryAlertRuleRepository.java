@@ -0,0 +1,44 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.AlertRule;
+import com.smartcity.energy.repository.AlertRuleRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AlertRule Repository - in-process implementation (profile {@code inmemory})
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryAlertRuleRepository implements AlertRuleRepository {
+
+    private final Map<UUID, AlertRule> rules = new ConcurrentHashMap<>();
+
+    @Override
+    public AlertRule save(AlertRule rule) {
+        rules.put(rule.getRuleId(), rule);
+        return rule;
+    }
+
+    @Override
+    public List<AlertRule> findAll() {
+        return new ArrayList<>(rules.values());
+    }
+
+    @Override
+    public Optional<AlertRule> findById(UUID ruleId) {
+        return Optional.ofNullable(rules.get(ruleId));
+    }
+
+    @Override
+    public void delete(UUID ruleId) {
+        rules.remove(ruleId);
+    }
+}
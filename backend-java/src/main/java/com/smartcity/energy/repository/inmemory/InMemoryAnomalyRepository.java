@@ -0,0 +1,50 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.Anomaly;
+import com.smartcity.energy.repository.AnomalyRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Anomaly Repository - in-process implementation (profile {@code inmemory})
+ * Sorted like the table's clustering key: newest first, then metric and type
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryAnomalyRepository implements AnomalyRepository {
+
+    private static final Comparator<Anomaly> CLUSTERING_ORDER = Comparator
+        .comparing(Anomaly::getDetectedAt).reversed()
+        .thenComparing(Anomaly::getMetric)
+        .thenComparing(Anomaly::getAnomalyType);
+
+    private final Map<SensorDay, NavigableSet<Anomaly>> anomalies = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveAsync(Anomaly anomaly) {
+        NavigableSet<Anomaly> day = anomalies.computeIfAbsent(
+            new SensorDay(anomaly.getSensorId(), anomaly.getEventDate()),
+            k -> new ConcurrentSkipListSet<>(CLUSTERING_ORDER));
+        // Same key overwrites, as an INSERT would
+        day.remove(anomaly);
+        day.add(anomaly);
+    }
+
+    @Override
+    public List<Anomaly> findByDate(UUID sensorId, LocalDate date) {
+        NavigableSet<Anomaly> day = anomalies.get(new SensorDay(sensorId, date));
+        return day != null ? new ArrayList<>(day) : new ArrayList<>();
+    }
+
+    private record SensorDay(UUID sensorId, LocalDate date) {}
+}
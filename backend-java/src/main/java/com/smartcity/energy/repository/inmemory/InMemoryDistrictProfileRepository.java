@@ -0,0 +1,54 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.DistrictProfile;
+import com.smartcity.energy.repository.DistrictProfileRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DistrictProfile Repository - in-process implementation (profile {@code inmemory})
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryDistrictProfileRepository implements DistrictProfileRepository {
+
+    private final Map<String, DistrictProfile> profiles = new ConcurrentHashMap<>();
+
+    @Override
+    public DistrictProfile save(DistrictProfile profile) {
+        profiles.put(profile.getDistrictName(), copy(profile));
+        return profile;
+    }
+
+    @Override
+    public List<DistrictProfile> findAll() {
+        List<DistrictProfile> result = new ArrayList<>(profiles.size());
+        profiles.values().forEach(profile -> result.add(copy(profile)));
+        return result;
+    }
+
+    @Override
+    public Optional<DistrictProfile> findByName(String districtName) {
+        return Optional.ofNullable(profiles.get(districtName)).map(InMemoryDistrictProfileRepository::copy);
+    }
+
+    @Override
+    public void update(DistrictProfile profile) {
+        save(profile);
+    }
+
+    @Override
+    public void deleteByName(String districtName) {
+        profiles.remove(districtName);
+    }
+
+    private static DistrictProfile copy(DistrictProfile profile) {
+        return new DistrictProfile(profile.getDistrictName(), profile.getPopulation(), profile.getCategory());
+    }
+}
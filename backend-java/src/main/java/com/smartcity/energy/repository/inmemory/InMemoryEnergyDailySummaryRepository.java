@@ -0,0 +1,49 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.repository.EnergyDailySummaryRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EnergyDailySummary Repository - in-process implementation (profile {@code inmemory})
+ * Striped counters per day and energy source
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryEnergyDailySummaryRepository implements EnergyDailySummaryRepository {
+
+    private final Map<String, Map<String, LongAdder>> days = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementWh(String date, String energySource, long wh) {
+        days.computeIfAbsent(date, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(energySource, k -> new LongAdder())
+            .add(wh);
+    }
+
+    @Override
+    public double getTotalKwh(String date, String energySource) {
+        LongAdder counter = days.getOrDefault(date, Map.of()).get(energySource);
+        return counter != null ? counter.sum() / 1000.0 : 0;
+    }
+
+    @Override
+    public Map<String, Double> getTotalsKwh(String date) {
+        Map<String, Double> totals = new HashMap<>();
+        days.getOrDefault(date, Map.of())
+            .forEach((source, counter) -> totals.put(source, counter.sum() / 1000.0));
+        return totals;
+    }
+
+    @Override
+    public Map<String, Long> getTotalsWh(String date) {
+        Map<String, Long> totals = new HashMap<>();
+        days.getOrDefault(date, Map.of()).forEach((source, counter) -> totals.put(source, counter.sum()));
+        return totals;
+    }
+}
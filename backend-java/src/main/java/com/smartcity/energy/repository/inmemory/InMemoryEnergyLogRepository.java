@@ -0,0 +1,365 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.EnergyBucket;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.SensorDailyAggregate;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.EnergyReadingVisitor;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.StorageMode;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.timeseries.OffHeapSeries;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * EnergyLog Repository - in-process implementation (profile {@code inmemory})
+ * Raw readings are appended to one {@link OffHeapSeries} per sensor; a "partition"
+ * (sensor, date) is the timestamp range of that day in the energy zone. Chunks that
+ * fall out of the raw retention are released on append. Downsampled buckets are
+ * small and kept on heap per tier. Like the compact table, kWh is held as milli-Wh.
+ * Daily reads of days whose raw readings have started to expire are answered from
+ * the bucketed tier that {@link RetentionPolicy#dayTier} picks, one reading per bucket.
+ * Writes are append-only: re-sending a reading with the same timestamp stores it twice.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryEnergyLogRepository implements EnergyLogRepository {
+
+    private final ZoneId zoneId;
+    private final RetentionPolicy retentionPolicy;
+
+    private final Map<UUID, OffHeapSeries> series = new ConcurrentHashMap<>();
+    private final Map<StorageTier, Map<UUID, ConcurrentSkipListMap<Long, EnergyBucket>>> buckets =
+        new EnumMap<>(StorageTier.class);
+
+    public InMemoryEnergyLogRepository(ZoneId energyZoneId, RetentionPolicy retentionPolicy) {
+        this.zoneId = energyZoneId;
+        this.retentionPolicy = retentionPolicy;
+        buckets.put(StorageTier.FIVE_MINUTES, new ConcurrentHashMap<>());
+        buckets.put(StorageTier.ONE_HOUR, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public EnergyLog save(EnergyLog log) {
+        if (log.getRecordedAt() == null) {
+            log.setRecordedAt(Instant.now());
+        }
+        if (log.getEventDate() == null) {
+            log.setEventDate(LocalDate.now(zoneId));
+        }
+
+        long now = System.currentTimeMillis();
+        OffHeapSeries sensorSeries = series.computeIfAbsent(log.getSensorId(), k -> new OffHeapSeries());
+        sensorSeries.append(
+            log.getRecordedAt().toEpochMilli(),
+            log.getKwhUsage().movePointRight(6).longValue(),
+            log.getVoltage()
+        );
+        sensorSeries.dropBefore(now - retentionPolicy.retentionMillis(StorageTier.RAW));
+        return log;
+    }
+
+    @Override
+    public CompletableFuture<EnergyLog> saveAsync(EnergyLog log) {
+        return CompletableFuture.completedFuture(save(log));
+    }
+
+    @Override
+    public Optional<EnergyLog> findLatest(UUID sensorId) {
+        OffHeapSeries sensorSeries = series.get(sensorId);
+        if (sensorSeries == null) {
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now(zoneId);
+        for (LocalDate date : new LocalDate[] { today, today.minusDays(1) }) {
+            List<EnergyLog> latest = new ArrayList<>(1);
+            if (sensorSeries.latest(dayStart(date), dayStart(date.plusDays(1)), collect(sensorId, date, latest))) {
+                return Optional.of(latest.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<EnergyLog> findByDate(UUID sensorId, LocalDate date) {
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return collectBuckets(tier, sensorId, date, dayStart(date), dayStart(date.plusDays(1)));
+        }
+        return collectRange(sensorId, date, dayStart(date), dayStart(date.plusDays(1)));
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachReadingAsync(UUID sensorId, LocalDate date,
+                                                       EnergyReadingVisitor visitor) {
+        OffHeapSeries sensorSeries = series.get(sensorId);
+        if (sensorSeries != null) {
+            sensorSeries.scan(dayStart(date), dayStart(date.plusDays(1)), (timestamp, mwh, voltage) -> {
+                visitor.visit(timestamp, BigDecimal.valueOf(mwh, 6), voltage);
+                return true;
+            });
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Readings are already in memory: visited directly, without paging
+     */
+    @Override
+    public void streamReadings(UUID sensorId, LocalDate date, int pageSize, EnergyReadingVisitor visitor) {
+        forEachReadingAsync(sensorId, date, visitor);
+    }
+
+    @Override
+    public List<EnergyLog> findByDateRange(UUID sensorId, LocalDate date,
+                                           Instant startTime, Instant endTime) {
+        long from = Math.max(dayStart(date), startTime.toEpochMilli());
+        long to = Math.min(dayStart(date.plusDays(1)), endTime.toEpochMilli() + 1); // end is inclusive
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return collectBuckets(tier, sensorId, date, from, to);
+        }
+        return collectRange(sensorId, date, from, to);
+    }
+
+    @Override
+    public SensorDailyAggregate aggregateDaily(UUID sensorId, LocalDate date) {
+        StorageTier tier = expiredTier(date);
+        if (tier != null) {
+            return aggregateBuckets(tier, sensorId, date);
+        }
+        return aggregate(sensorId, date, dayStart(date), dayStart(date.plusDays(1)));
+    }
+
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateDailyAsync(UUID sensorId, LocalDate date) {
+        return CompletableFuture.completedFuture(aggregateDaily(sensorId, date));
+    }
+
+    @Override
+    public BigDecimal calculateDailyTotal(UUID sensorId, LocalDate date) {
+        return aggregateDaily(sensorId, date).getTotalKwh();
+    }
+
+    @Override
+    public double calculateAverageVoltage(UUID sensorId, LocalDate date) {
+        return aggregateDaily(sensorId, date).getAverageVoltage();
+    }
+
+    @Override
+    public CompletableFuture<SensorDailyAggregate> aggregateRangeAsync(UUID sensorId, LocalDate date,
+                                                                      Instant from, Instant to) {
+        long start = Math.max(dayStart(date), from.toEpochMilli());
+        long end = Math.min(dayStart(date.plusDays(1)), to.toEpochMilli());
+        return CompletableFuture.completedFuture(aggregate(sensorId, date, start, end));
+    }
+
+    /**
+     * Readings are already held as fixed-width milli-Wh
+     */
+    @Override
+    public StorageMode getStorageMode() {
+        return StorageMode.COMPACT;
+    }
+
+    @Override
+    public LocalDate getMigratedUntil(UUID sensorId) {
+        return LocalDate.MAX;
+    }
+
+    @Override
+    public CompletableFuture<Long> migratePartitionAsync(UUID sensorId, LocalDate date) {
+        throw new IllegalStateException("Partition migration requires storage mode DUAL");
+    }
+
+    @Override
+    public long getMigrationRowsSkipped() {
+        return 0;
+    }
+
+    @Override
+    public void markMigrated(UUID sensorId, LocalDate until, boolean completed) {
+        throw new IllegalStateException("Partition migration requires storage mode DUAL");
+    }
+
+    @Override
+    public CompletableFuture<Void> saveBucketAsync(StorageTier tier, EnergyBucket bucket) {
+        ConcurrentSkipListMap<Long, EnergyBucket> sensorBuckets = tierBuckets(tier)
+            .computeIfAbsent(bucket.getSensorId(), k -> new ConcurrentSkipListMap<>());
+        sensorBuckets.put(bucket.getBucketStart().toEpochMilli(), bucket);
+        long retention = retentionPolicy.retentionMillis(tier);
+        if (retention != Long.MAX_VALUE) {
+            sensorBuckets.headMap(System.currentTimeMillis() - retention).clear();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachBucketAsync(StorageTier tier, UUID sensorId, long fromMillis,
+                                                      long toMillis, EnergyReadingVisitor visitor) {
+        ConcurrentSkipListMap<Long, EnergyBucket> sensorBuckets = tierBuckets(tier).get(sensorId);
+        if (sensorBuckets != null) {
+            for (EnergyBucket bucket : sensorBuckets.subMap(fromMillis, toMillis).values()) {
+                long count = bucket.getReadingCount();
+                if (count == 0) {
+                    continue;
+                }
+                visitor.visit(
+                    bucket.getBucketStart().toEpochMilli(),
+                    BigDecimal.valueOf(bucket.getTotalMwh() / count, 6),
+                    (int) (bucket.getVoltageSum() / count)
+                );
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deletePartitionAsync(UUID sensorId, LocalDate date) {
+        throw new IllegalStateException("Partition deletion requires the Cassandra storage engine");
+    }
+
+    /**
+     * Off-heap bytes reserved across all sensors
+     */
+    public long reservedBytes() {
+        return series.values().stream().mapToLong(OffHeapSeries::reservedBytes).sum();
+    }
+
+    private List<EnergyLog> collectRange(UUID sensorId, LocalDate date, long from, long to) {
+        List<EnergyLog> logs = new ArrayList<>();
+        OffHeapSeries sensorSeries = series.get(sensorId);
+        if (sensorSeries == null) {
+            return logs;
+        }
+        sensorSeries.scan(from, to, collect(sensorId, date, logs));
+        if (!sensorSeries.isOrdered()) {
+            // Partitions cluster by recorded_at DESC
+            logs.sort(Comparator.comparing(EnergyLog::getRecordedAt).reversed());
+        }
+        return logs;
+    }
+
+    private static OffHeapSeries.Visitor collect(UUID sensorId, LocalDate date, List<EnergyLog> logs) {
+        return (timestamp, mwh, voltage) -> {
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(sensorId);
+            log.setEventDate(date);
+            log.setRecordedAt(Instant.ofEpochMilli(timestamp));
+            log.setKwhUsage(EnergyLogRepository.kwhFromMwh(mwh));
+            log.setVoltage(voltage);
+            logs.add(log);
+            return true;
+        };
+    }
+
+    private SensorDailyAggregate aggregate(UUID sensorId, LocalDate date, long from, long to) {
+        OffHeapSeries sensorSeries = series.get(sensorId);
+        if (sensorSeries == null) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        long[] sums = new long[3]; // milli-Wh, count, voltage sum
+        int[] range = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+        sensorSeries.scan(from, to, (timestamp, mwh, voltage) -> {
+            sums[0] += mwh;
+            sums[1]++;
+            sums[2] += voltage;
+            range[0] = Math.min(range[0], voltage);
+            range[1] = Math.max(range[1], voltage);
+            return true;
+        });
+        if (sums[1] == 0) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        return new SensorDailyAggregate(
+            sensorId, date, BigDecimal.valueOf(sums[0], 6), sums[1], range[0], range[1], sums[2]
+        );
+    }
+
+    /**
+     * Bucketed tier to read {@code date} from, or null while the raw series still holds the whole day
+     */
+    private StorageTier expiredTier(LocalDate date) {
+        StorageTier tier = retentionPolicy.dayTier(dayStart(date));
+        return tier != StorageTier.RAW ? tier : null;
+    }
+
+    /**
+     * Buckets starting in [from, to) as one reading each (mean kWh and voltage per reading,
+     * as in forEachBucketAsync), newest first like a raw partition
+     */
+    private List<EnergyLog> collectBuckets(StorageTier tier, UUID sensorId, LocalDate date, long from, long to) {
+        List<EnergyLog> logs = new ArrayList<>();
+        forEachBucketAsync(tier, sensorId, from, to, (recordedAt, kwhUsage, voltage) -> {
+            EnergyLog log = new EnergyLog();
+            log.setSensorId(sensorId);
+            log.setEventDate(date);
+            log.setRecordedAt(Instant.ofEpochMilli(recordedAt));
+            log.setKwhUsage(kwhUsage);
+            log.setVoltage(voltage);
+            logs.add(log);
+        });
+        Collections.reverse(logs);
+        return logs;
+    }
+
+    /**
+     * Daily aggregate summed from the day's buckets (they keep totals, counts and voltage range)
+     */
+    private SensorDailyAggregate aggregateBuckets(StorageTier tier, UUID sensorId, LocalDate date) {
+        ConcurrentSkipListMap<Long, EnergyBucket> sensorBuckets = tierBuckets(tier).get(sensorId);
+        if (sensorBuckets == null) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        long mwh = 0;
+        long count = 0;
+        long voltageSum = 0;
+        int minVoltage = Integer.MAX_VALUE;
+        int maxVoltage = Integer.MIN_VALUE;
+        for (EnergyBucket bucket : sensorBuckets.subMap(dayStart(date), dayStart(date.plusDays(1))).values()) {
+            if (bucket.getReadingCount() == 0) {
+                continue;
+            }
+            mwh += bucket.getTotalMwh();
+            count += bucket.getReadingCount();
+            voltageSum += bucket.getVoltageSum();
+            minVoltage = Math.min(minVoltage, bucket.getMinVoltage());
+            maxVoltage = Math.max(maxVoltage, bucket.getMaxVoltage());
+        }
+        if (count == 0) {
+            return SensorDailyAggregate.empty(sensorId, date);
+        }
+        return new SensorDailyAggregate(
+            sensorId, date, BigDecimal.valueOf(mwh, 6), count, minVoltage, maxVoltage, voltageSum
+        );
+    }
+
+    private Map<UUID, ConcurrentSkipListMap<Long, EnergyBucket>> tierBuckets(StorageTier tier) {
+        Map<UUID, ConcurrentSkipListMap<Long, EnergyBucket>> tierMap = buckets.get(tier);
+        if (tierMap == null) {
+            throw new IllegalArgumentException("Not a bucketed tier: " + tier);
+        }
+        return tierMap;
+    }
+
+    private long dayStart(LocalDate date) {
+        return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.ForecastModel;
+import com.smartcity.energy.repository.ForecastModelRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ForecastModel Repository - in-process implementation (profile {@code inmemory})
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryForecastModelRepository implements ForecastModelRepository {
+
+    private final Map<ModelKey, ForecastModel> models = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveAsync(ForecastModel model) {
+        models.put(new ModelKey(model.getDistrictName(), model.getEnergySource()), model);
+    }
+
+    @Override
+    public List<ForecastModel> findAll() {
+        return new ArrayList<>(models.values());
+    }
+
+    private record ModelKey(String districtName, String energySource) {}
+}
@@ -0,0 +1,101 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.HourlyRollup;
+import com.smartcity.energy.repository.HourlyRollupRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HourlyRollup Repository - in-process implementation (profile {@code inmemory})
+ * One array of (milli-Wh, count) pairs per hour for each sensor-day, and per
+ * energy source for each district-day and city-day. Like counter rows, only
+ * hours that were incremented are returned, ordered by hour then source.
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryHourlyRollupRepository implements HourlyRollupRepository {
+
+    private final Map<SensorDay, AtomicLongArray> sensors = new ConcurrentHashMap<>();
+    private final Map<DistrictDay, Map<String, AtomicLongArray>> districts = new ConcurrentHashMap<>();
+    private final Map<LocalDate, Map<String, AtomicLongArray>> city = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(UUID sensorId, String districtName, String energySource,
+                          LocalDate date, int hour, long mwh) {
+        add(sensors.computeIfAbsent(new SensorDay(sensorId, date), k -> newHours()), hour, mwh);
+        add(bySource(districts.computeIfAbsent(new DistrictDay(districtName, date), k -> newSources()),
+            energySource), hour, mwh);
+        add(bySource(city.computeIfAbsent(date, k -> newSources()), energySource), hour, mwh);
+    }
+
+    @Override
+    public List<HourlyRollup> findBySensor(UUID sensorId, LocalDate date) {
+        List<HourlyRollup> rollups = new ArrayList<>();
+        AtomicLongArray hours = sensors.get(new SensorDay(sensorId, date));
+        if (hours != null) {
+            for (int hour = 0; hour < 24; hour++) {
+                addIfPresent(rollups, hours, hour, null);
+            }
+        }
+        return rollups;
+    }
+
+    @Override
+    public List<HourlyRollup> findByDistrict(String districtName, LocalDate date) {
+        return mapSources(districts.get(new DistrictDay(districtName, date)));
+    }
+
+    @Override
+    public List<HourlyRollup> findCity(LocalDate date) {
+        return mapSources(city.get(date));
+    }
+
+    private List<HourlyRollup> mapSources(Map<String, AtomicLongArray> sources) {
+        List<HourlyRollup> rollups = new ArrayList<>();
+        if (sources != null) {
+            for (int hour = 0; hour < 24; hour++) {
+                for (Map.Entry<String, AtomicLongArray> entry : sources.entrySet()) {
+                    addIfPresent(rollups, entry.getValue(), hour, entry.getKey());
+                }
+            }
+        }
+        return rollups;
+    }
+
+    private static void addIfPresent(List<HourlyRollup> rollups, AtomicLongArray hours, int hour, String source) {
+        long count = hours.get(2 * hour + 1);
+        if (count > 0) {
+            rollups.add(new HourlyRollup(hour, source, hours.get(2 * hour), count));
+        }
+    }
+
+    private static void add(AtomicLongArray hours, int hour, long mwh) {
+        hours.addAndGet(2 * hour, mwh);
+        hours.incrementAndGet(2 * hour + 1);
+    }
+
+    private static AtomicLongArray bySource(Map<String, AtomicLongArray> sources, String energySource) {
+        return sources.computeIfAbsent(energySource, k -> newHours());
+    }
+
+    private static AtomicLongArray newHours() {
+        return new AtomicLongArray(48);
+    }
+
+    private static Map<String, AtomicLongArray> newSources() {
+        return new ConcurrentSkipListMap<>();
+    }
+
+    private record SensorDay(UUID sensorId, LocalDate date) {}
+
+    private record DistrictDay(String districtName, LocalDate date) {}
+}
@@ -0,0 +1,58 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.PowerQualityHour;
+import com.smartcity.energy.repository.PowerQualityRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * PowerQuality Repository - in-process implementation (profile {@code inmemory})
+ * Both access paths of the two tables, ordered by hour (then sensor for districts)
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryPowerQualityRepository implements PowerQualityRepository {
+
+    private final Map<SensorDay, Map<Integer, PowerQualityHour>> bySensor = new ConcurrentHashMap<>();
+    private final Map<DistrictDay, Map<HourSensor, PowerQualityHour>> byDistrict = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveAsync(PowerQualityHour bucket) {
+        bySensor.computeIfAbsent(new SensorDay(bucket.getSensorId(), bucket.getEventDate()),
+                k -> new ConcurrentSkipListMap<>())
+            .put(bucket.getHour(), bucket);
+        byDistrict.computeIfAbsent(new DistrictDay(bucket.getDistrictName(), bucket.getEventDate()),
+                k -> new ConcurrentSkipListMap<>())
+            .put(new HourSensor(bucket.getHour(), bucket.getSensorId()), bucket);
+    }
+
+    @Override
+    public List<PowerQualityHour> findBySensor(UUID sensorId, LocalDate date) {
+        return new ArrayList<>(bySensor.getOrDefault(new SensorDay(sensorId, date), Map.of()).values());
+    }
+
+    @Override
+    public List<PowerQualityHour> findByDistrict(String districtName, LocalDate date) {
+        return new ArrayList<>(byDistrict.getOrDefault(new DistrictDay(districtName, date), Map.of()).values());
+    }
+
+    private record SensorDay(UUID sensorId, LocalDate date) {}
+
+    private record DistrictDay(String districtName, LocalDate date) {}
+
+    private record HourSensor(int hour, UUID sensorId) implements Comparable<HourSensor> {
+        @Override
+        public int compareTo(HourSensor other) {
+            int byHour = Integer.compare(hour, other.hour);
+            return byHour != 0 ? byHour : sensorId.compareTo(other.sensorId);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartcity.energy.repository.inmemory;
+
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.SensorRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sensor Repository - in-process implementation (profile {@code inmemory})
+ * Rows are copied in and out so callers never share instances with the store
+ */
+@Repository
+@Profile("inmemory")
+public class InMemorySensorRepository implements SensorRepository {
+
+    private final Map<UUID, Sensor> sensors = new ConcurrentHashMap<>();
+
+    @Override
+    public Sensor save(Sensor sensor) {
+        if (sensor.getSensorId() == null) {
+            sensor.setSensorId(UUID.randomUUID());
+        }
+        if (sensor.getCreatedAt() == null) {
+            sensor.setCreatedAt(Instant.now());
+        }
+        if (sensor.getStatus() == null) {
+            sensor.setStatus("Active");
+        }
+        sensors.put(sensor.getSensorId(), copy(sensor));
+        return sensor;
+    }
+
+    @Override
+    public List<Sensor> findAll() {
+        List<Sensor> result = new ArrayList<>(sensors.size());
+        sensors.values().forEach(sensor -> result.add(copy(sensor)));
+        return result;
+    }
+
+    @Override
+    public Optional<Sensor> findById(UUID sensorId) {
+        return Optional.ofNullable(sensors.get(sensorId)).map(InMemorySensorRepository::copy);
+    }
+
+    @Override
+    public List<Sensor> findByDistrict(String districtName) {
+        List<Sensor> result = new ArrayList<>();
+        for (Sensor sensor : sensors.values()) {
+            if (districtName.equals(sensor.getDistrictName())) {
+                result.add(copy(sensor));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void updateStatus(UUID sensorId, String status) {
+        sensors.computeIfPresent(sensorId, (id, sensor) -> {
+            Sensor updated = copy(sensor);
+            updated.setStatus(status);
+            return updated;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> updateStatusAsync(UUID sensorId, String status) {
+        updateStatus(sensorId, status);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void update(UUID sensorId, String districtName, BigDecimal latitude,
+                       BigDecimal longitude, String energySource, String status) {
+        // Cassandra UPDATE is an upsert: a missing row is created without created_at
+        sensors.compute(sensorId, (id, sensor) -> new Sensor(
+            id, districtName, latitude, longitude, energySource, status,
+            sensor != null ? sensor.getCreatedAt() : null
+        ));
+    }
+
+    @Override
+    public void deleteById(UUID sensorId) {
+        sensors.remove(sensorId);
+    }
+
+    @Override
+    public long countByEnergySource(String energySource) {
+        return sensors.values().stream()
+            .filter(sensor -> energySource.equals(sensor.getEnergySource()))
+            .count();
+    }
+
+    @Override
+    public long countActiveInDistrict(String districtName) {
+        return sensors.values().stream()
+            .filter(sensor -> districtName.equals(sensor.getDistrictName()))
+            .filter(sensor -> "Active".equals(sensor.getStatus()))
+            .count();
+    }
+
+    private static Sensor copy(Sensor sensor) {
+        return new Sensor(
+            sensor.getSensorId(),
+            sensor.getDistrictName(),
+            sensor.getLatitude(),
+            sensor.getLongitude(),
+            sensor.getEnergySource(),
+            sensor.getStatus(),
+            sensor.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,392 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.AlertMessage;
+import com.smartcity.energy.dto.AlertRuleRequest;
+import com.smartcity.energy.model.AlertRule;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.AlertRuleRepository;
+import com.smartcity.energy.timeseries.SlottedWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoublePredicate;
+
+/**
+ * Threshold alert rules evaluated on every reading.
+ * Rules live in Cassandra and are compiled once into a predicate plus scope
+ * filter. Each rule is indexed under its most selective scope (sensor,
+ * district, energy source, or global), so a reading only visits the rules
+ * in four buckets instead of all of them. Firing state is kept per rule and
+ * key (sensor or district); alerts go out on the rising edge to /topic/alerts.
+ * The index is immutable and swapped on every change or periodic reload.
+ */
+@Service
+public class AlertRuleService implements EnergyReadingListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertRuleService.class);
+    private static final String TOPIC = "/topic/alerts";
+    private static final int WINDOW_SLOTS = 60;
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<UUID, CompiledRule> compiled = new ConcurrentHashMap<>();
+    private volatile RuleIndex index = RuleIndex.EMPTY;
+
+    // Local creates/updates/deletes by change sequence, so a reload that read the table
+    // before them does not revert them (guarded by this)
+    private final Map<UUID, Long> localChanges = new HashMap<>();
+    private long changeSequence;
+
+    public AlertRuleService(AlertRuleRepository alertRuleRepository,
+                            SimpMessagingTemplate messagingTemplate) {
+        this.alertRuleRepository = alertRuleRepository;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Evaluate only the rules indexed under this reading's sensor, district and source
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        RuleIndex current = index;
+        if (current.isEmpty()) {
+            return;
+        }
+        evaluate(current.bySensor.get(log.getSensorId()), log, sensor);
+        evaluate(current.byDistrict.get(sensor.getDistrictName()), log, sensor);
+        if (sensor.getEnergySource() != null) {
+            evaluate(current.bySource.get(sensor.getEnergySource().toUpperCase()), log, sensor);
+        }
+        evaluate(current.global, log, sensor);
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        for (CompiledRule rule : compiled.values()) {
+            rule.states.remove(sensorId);
+        }
+    }
+
+    public List<AlertRule> getRules() {
+        return alertRuleRepository.findAll();
+    }
+
+    public Optional<AlertRule> getRule(UUID ruleId) {
+        return alertRuleRepository.findById(ruleId);
+    }
+
+    /**
+     * Create a rule and apply it immediately
+     */
+    public AlertRule createRule(AlertRuleRequest request) {
+        AlertRule rule = toRule(UUID.randomUUID(), request);
+        alertRuleRepository.save(rule);
+        apply(rule);
+        return rule;
+    }
+
+    /**
+     * Replace a rule; its firing state starts over
+     */
+    public AlertRule updateRule(UUID ruleId, AlertRuleRequest request) {
+        AlertRule rule = toRule(ruleId, request);
+        alertRuleRepository.save(rule);
+        apply(rule);
+        return rule;
+    }
+
+    public void deleteRule(UUID ruleId) {
+        alertRuleRepository.delete(ruleId);
+        synchronized (this) {
+            localChanges.put(ruleId, ++changeSequence);
+            if (compiled.remove(ruleId) != null) {
+                rebuildIndex();
+            }
+        }
+    }
+
+    /**
+     * Pick up rule changes made by other instances (or directly in Cassandra).
+     * Unchanged rules keep their compiled form and firing state; rules changed
+     * locally while the table was being read keep their local version.
+     */
+    @Scheduled(initialDelayString = "${energy.rules.reload-initial-delay-ms:0}",
+               fixedDelayString = "${energy.rules.reload-interval-ms:60000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void reload() {
+        try {
+            long readAfter;
+            synchronized (this) {
+                readAfter = changeSequence;
+            }
+            List<AlertRule> rules = alertRuleRepository.findAll();
+            synchronized (this) {
+                Map<UUID, CompiledRule> fresh = new HashMap<>();
+                for (AlertRule rule : rules) {
+                    if (localChanges.getOrDefault(rule.getRuleId(), 0L) > readAfter) {
+                        continue;
+                    }
+                    CompiledRule existing = compiled.get(rule.getRuleId());
+                    fresh.put(rule.getRuleId(), existing != null && sameVersion(existing.rule, rule)
+                        ? existing
+                        : new CompiledRule(rule));
+                }
+                localChanges.forEach((ruleId, sequence) -> {
+                    CompiledRule local = compiled.get(ruleId);
+                    if (sequence > readAfter && local != null) {
+                        fresh.put(ruleId, local);
+                    }
+                });
+                localChanges.values().removeIf(sequence -> sequence <= readAfter);
+                compiled.clear();
+                compiled.putAll(fresh);
+                rebuildIndex();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Alert rule reload failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void apply(AlertRule rule) {
+        compiled.put(rule.getRuleId(), new CompiledRule(rule));
+        localChanges.put(rule.getRuleId(), ++changeSequence);
+        rebuildIndex();
+    }
+
+    /**
+     * Index every enabled rule under its most selective scope (caller holds the lock)
+     */
+    private void rebuildIndex() {
+        Map<UUID, List<CompiledRule>> bySensor = new HashMap<>();
+        Map<String, List<CompiledRule>> byDistrict = new HashMap<>();
+        Map<String, List<CompiledRule>> bySource = new HashMap<>();
+        List<CompiledRule> global = new ArrayList<>();
+
+        for (CompiledRule rule : compiled.values()) {
+            if (!rule.rule.isEnabled()) {
+                continue;
+            }
+            if (rule.sensorId != null) {
+                bySensor.computeIfAbsent(rule.sensorId, k -> new ArrayList<>()).add(rule);
+            } else if (rule.districtName != null) {
+                byDistrict.computeIfAbsent(rule.districtName, k -> new ArrayList<>()).add(rule);
+            } else if (rule.energySource != null) {
+                bySource.computeIfAbsent(rule.energySource, k -> new ArrayList<>()).add(rule);
+            } else {
+                global.add(rule);
+            }
+        }
+
+        index = new RuleIndex(freeze(bySensor), freeze(byDistrict), freeze(bySource),
+            global.toArray(new CompiledRule[0]));
+    }
+
+    private void evaluate(CompiledRule[] rules, EnergyLog log, Sensor sensor) {
+        if (rules == null) {
+            return;
+        }
+        for (CompiledRule rule : rules) {
+            if (rule.matches(log.getSensorId(), sensor)) {
+                rule.evaluate(log, sensor);
+            }
+        }
+    }
+
+    private void publish(CompiledRule rule, EnergyLog log, Sensor sensor, double value) {
+        AlertRule definition = rule.rule;
+        messagingTemplate.convertAndSend(TOPIC, new AlertMessage(
+            "RULE",
+            rule.windowMillis > 0 ? "WINDOW_THRESHOLD" : "THRESHOLD",
+            log.getSensorId(),
+            sensor.getDistrictName(),
+            definition.getMetric(),
+            value,
+            definition.getThreshold(),
+            String.format("Rule '%s': %s %.2f %s %.2f", definition.getName(), definition.getMetric(),
+                value, definition.getComparator(), definition.getThreshold()),
+            log.getRecordedAt()
+        ));
+    }
+
+    private AlertRule toRule(UUID ruleId, AlertRuleRequest request) {
+        AlertRule rule = new AlertRule();
+        rule.setRuleId(ruleId);
+        rule.setName(request.getName());
+        rule.setEnabled(request.getEnabled() == null || request.getEnabled());
+        rule.setSensorId(request.getSensorId());
+        rule.setDistrictName(request.getDistrictName());
+        rule.setEnergySource(request.getEnergySource() != null ? request.getEnergySource().toUpperCase() : null);
+        rule.setMetric(request.getMetric().toLowerCase());
+        rule.setComparator(request.getComparator().toUpperCase());
+        rule.setThreshold(request.getThreshold());
+        rule.setConsecutive(request.getConsecutive() != null ? request.getConsecutive() : 1);
+        rule.setWindowSeconds(request.getWindowSeconds() != null ? request.getWindowSeconds() : 0);
+        rule.setAggregate(request.getAggregate() != null ? request.getAggregate().toUpperCase() : "SUM");
+        rule.setGroupBy(request.getGroupBy() != null ? request.getGroupBy().toUpperCase() : "SENSOR");
+        rule.setUpdatedAt(Instant.now());
+        return rule;
+    }
+
+    private static boolean sameVersion(AlertRule a, AlertRule b) {
+        return a.getUpdatedAt() != null && a.getUpdatedAt().equals(b.getUpdatedAt());
+    }
+
+    private static <K> Map<K, CompiledRule[]> freeze(Map<K, List<CompiledRule>> rules) {
+        Map<K, CompiledRule[]> frozen = new HashMap<>();
+        rules.forEach((key, list) -> frozen.put(key, list.toArray(new CompiledRule[0])));
+        return frozen;
+    }
+
+    private static DoublePredicate compile(String comparator, double threshold) {
+        switch (comparator) {
+            case "LT":
+                return v -> v < threshold;
+            case "LE":
+                return v -> v <= threshold;
+            case "GT":
+                return v -> v > threshold;
+            case "GE":
+                return v -> v >= threshold;
+            default:
+                throw new IllegalArgumentException("Unknown comparator: " + comparator);
+        }
+    }
+
+    /**
+     * Rule compiled into a predicate, scope filter and per-key firing state
+     */
+    private class CompiledRule {
+        final AlertRule rule;
+        final UUID sensorId;
+        final String districtName;
+        final String energySource;
+        final DoublePredicate predicate;
+        final boolean voltage;
+        final boolean average;
+        final boolean byDistrict;
+        final int consecutive;
+        final long windowMillis;
+        final long slotMillis;
+        final Map<Object, KeyState> states = new ConcurrentHashMap<>();
+
+        CompiledRule(AlertRule rule) {
+            this.rule = rule;
+            this.sensorId = rule.getSensorId();
+            this.districtName = rule.getDistrictName();
+            this.energySource = rule.getEnergySource() != null ? rule.getEnergySource().toUpperCase() : null;
+            this.predicate = compile(rule.getComparator(), rule.getThreshold());
+            this.voltage = "voltage".equals(rule.getMetric());
+            this.average = "AVG".equals(rule.getAggregate());
+            this.byDistrict = "DISTRICT".equals(rule.getGroupBy());
+            this.consecutive = Math.max(1, rule.getConsecutive());
+            this.windowMillis = rule.getWindowSeconds() * 1000L;
+            this.slotMillis = Math.max(1000L, windowMillis / WINDOW_SLOTS);
+        }
+
+        boolean matches(UUID readingSensorId, Sensor sensor) {
+            return (sensorId == null || sensorId.equals(readingSensorId))
+                && (districtName == null || districtName.equals(sensor.getDistrictName()))
+                && (energySource == null || energySource.equalsIgnoreCase(sensor.getEnergySource()));
+        }
+
+        void evaluate(EnergyLog log, Sensor sensor) {
+            Object key = windowMillis > 0 && byDistrict ? String.valueOf(sensor.getDistrictName()) : log.getSensorId();
+            KeyState state = states.computeIfAbsent(key, k -> new KeyState(windowMillis, slotMillis));
+
+            boolean fire;
+            double value;
+            synchronized (state) {
+                value = observe(state, log);
+                if (predicate.test(value)) {
+                    state.streak++;
+                    fire = !state.firing && state.streak >= consecutive;
+                    state.firing |= fire;
+                } else {
+                    state.streak = 0;
+                    state.firing = false;
+                    fire = false;
+                }
+            }
+            if (fire) {
+                publish(this, log, sensor, value);
+            }
+        }
+
+        /**
+         * Reading value, or the trailing-window aggregate for windowed rules
+         */
+        private double observe(KeyState state, EnergyLog log) {
+            double reading = voltage ? log.getVoltage() : log.getKwhUsage().doubleValue();
+            if (windowMillis == 0) {
+                return reading;
+            }
+            long timestamp = log.getRecordedAt().toEpochMilli();
+            // kWh kept as milli-Wh so slot sums stay exact
+            state.sum.add(timestamp, voltage ? log.getVoltage() : log.getKwhUsage().movePointRight(6).longValue());
+            state.count.add(timestamp, 1);
+            // One division per value, so a sum or average equal to the threshold compares equal to it
+            double scale = voltage ? 1.0 : 1_000_000.0;
+            long sum = state.sum.windowSum(windowMillis, timestamp);
+            if (!average) {
+                return sum / scale;
+            }
+            long count = state.count.windowSum(windowMillis, timestamp);
+            return count > 0 ? sum / (scale * count) : 0;
+        }
+    }
+
+    /**
+     * Firing state of one rule for one sensor or district
+     */
+    private static class KeyState {
+        final SlottedWindow sum;
+        final SlottedWindow count;
+        int streak;
+        boolean firing;
+
+        KeyState(long windowMillis, long slotMillis) {
+            // Whole slots spanning the window plus the current one
+            int slots = (int) ((windowMillis + slotMillis - 1) / slotMillis) + 1;
+            this.sum = windowMillis > 0 ? new SlottedWindow(slotMillis, slots) : null;
+            this.count = windowMillis > 0 ? new SlottedWindow(slotMillis, slots) : null;
+        }
+    }
+
+    /**
+     * Immutable rule index, swapped atomically
+     */
+    private static class RuleIndex {
+        static final RuleIndex EMPTY = new RuleIndex(Map.of(), Map.of(), Map.of(), new CompiledRule[0]);
+
+        final Map<UUID, CompiledRule[]> bySensor;
+        final Map<String, CompiledRule[]> byDistrict;
+        final Map<String, CompiledRule[]> bySource;
+        final CompiledRule[] global;
+
+        RuleIndex(Map<UUID, CompiledRule[]> bySensor, Map<String, CompiledRule[]> byDistrict,
+                  Map<String, CompiledRule[]> bySource, CompiledRule[] global) {
+            this.bySensor = bySensor;
+            this.byDistrict = byDistrict;
+            this.bySource = bySource;
+            this.global = global;
+        }
+
+        boolean isEmpty() {
+            return bySensor.isEmpty() && byDistrict.isEmpty() && bySource.isEmpty() && global.length == 0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.AlertMessage;
+import com.smartcity.energy.model.Anomaly;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.AnomalyRepository;
+import com.smartcity.energy.timeseries.EwmaStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online per-sensor anomaly detector for kWh and voltage.
+ * Keeps EWMA mean/variance and mean absolute change per metric (O(1) state,
+ * no history reads) and flags z-score and rate-of-change outliers. Anomalies
+ * are published to /topic/alerts and stored asynchronously in `anomalies`.
+ */
+@Service
+public class AnomalyDetectionService implements EnergyReadingListener {
+
+    private static final String TOPIC = "/topic/alerts";
+
+    private final AnomalyRepository anomalyRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final double alpha;
+    private final double zThreshold;
+    private final double changeThreshold;
+    private final int warmup;
+    private final int cooldown;
+
+    private final Map<UUID, SensorState> states = new ConcurrentHashMap<>();
+
+    public AnomalyDetectionService(AnomalyRepository anomalyRepository,
+                                   SimpMessagingTemplate messagingTemplate,
+                                   @Value("${energy.anomaly.alpha:0.05}") double alpha,
+                                   @Value("${energy.anomaly.z-threshold:4.0}") double zThreshold,
+                                   @Value("${energy.anomaly.change-threshold:8.0}") double changeThreshold,
+                                   @Value("${energy.anomaly.warmup:30}") int warmup,
+                                   @Value("${energy.anomaly.cooldown:12}") int cooldown) {
+        this.anomalyRepository = anomalyRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.changeThreshold = changeThreshold;
+        this.warmup = warmup;
+        this.cooldown = cooldown;
+    }
+
+    /**
+     * Score the reading against the sensor's running statistics, then update them
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        SensorState state = states.computeIfAbsent(log.getSensorId(), k -> new SensorState(alpha));
+        synchronized (state) {
+            check(log, sensor, "kwh", log.getKwhUsage().doubleValue(), state.kwh, state);
+            check(log, sensor, "voltage", log.getVoltage(), state.voltage, state);
+            state.readingsSinceAlert++;
+        }
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        states.remove(sensorId);
+    }
+
+    /**
+     * Stored anomalies of a sensor for a date
+     */
+    public List<Anomaly> getAnomalies(UUID sensorId, LocalDate date) {
+        return anomalyRepository.findByDate(sensorId, date);
+    }
+
+    private void check(EnergyLog log, Sensor sensor, String metric, double value,
+                       EwmaStats stats, SensorState state) {
+        if (stats.getCount() >= warmup && state.readingsSinceAlert >= cooldown) {
+            double z = stats.zScore(value);
+            double change = stats.changeScore(value);
+            if (z > zThreshold) {
+                raise(log, sensor, metric, "ZSCORE", value, stats.getMean(), z, zThreshold);
+                state.readingsSinceAlert = 0;
+            } else if (change > changeThreshold) {
+                raise(log, sensor, metric, "RATE_OF_CHANGE", value, stats.getMean(), change, changeThreshold);
+                state.readingsSinceAlert = 0;
+            }
+        }
+        stats.update(value);
+    }
+
+    private void raise(EnergyLog log, Sensor sensor, String metric, String type,
+                       double value, double expected, double score, double threshold) {
+        Anomaly anomaly = new Anomaly(
+            log.getSensorId(),
+            log.getEventDate(),
+            log.getRecordedAt(),
+            metric,
+            type,
+            value,
+            expected,
+            score
+        );
+        anomalyRepository.saveAsync(anomaly);
+
+        messagingTemplate.convertAndSend(TOPIC, new AlertMessage(
+            "ANOMALY",
+            type,
+            log.getSensorId(),
+            sensor.getDistrictName(),
+            metric,
+            value,
+            threshold,
+            String.format("%s %s outlier: %.2f (expected ~%.2f, score %.1f)", metric, type, value, expected, score),
+            log.getRecordedAt()
+        ));
+    }
+
+    /**
+     * Detector state of one sensor
+     */
+    private static class SensorState {
+        final EwmaStats kwh;
+        final EwmaStats voltage;
+        int readingsSinceAlert = Integer.MAX_VALUE / 2;
+
+        SensorState(double alpha) {
+            this.kwh = new EwmaStats(alpha);
+            this.voltage = new EwmaStats(alpha);
+        }
+    }
+}
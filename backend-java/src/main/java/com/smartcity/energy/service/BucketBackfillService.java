@@ -0,0 +1,289 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.RebuildStatusResponse;
+import com.smartcity.energy.model.EnergyBucket;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.RangeScanHandler;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.SegmentArchive;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.repository.TokenRangeScanner;
+import com.smartcity.energy.timeseries.BucketAccumulator;
+import com.smartcity.energy.timeseries.Segment;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backfill of the downsampled tiers (energy_logs_5m, energy_logs_1h) from raw readings.
+ * {@link DownsampleService} only writes buckets for readings ingested while it runs; this
+ * recomputes every bucket of the given days with one {@link TokenRangeScanner} pass over
+ * energy_logs (archived days from their segments) and overwrites it. Only days whose raw
+ * partitions are complete are backfilled: older days are partly expired by the raw TTL,
+ * and today still has open buckets. Restarting with the same dates resumes.
+ */
+@Service
+@Profile("!inmemory")
+public class BucketBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BucketBackfillService.class);
+    private static final StorageTier[] TIERS = { StorageTier.FIVE_MINUTES, StorageTier.ONE_HOUR };
+    private static final int MAX_PENDING_WRITES = 256;
+
+    private final TokenRangeScanner tokenRangeScanner;
+    private final EnergyLogRepository energyLogRepository;
+    private final SegmentArchive segmentArchive;
+    private final ZoneId zoneId;
+    private final int rawRetentionDays;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor();
+    private volatile Backfill current;
+
+    public BucketBackfillService(TokenRangeScanner tokenRangeScanner,
+                                 EnergyLogRepository energyLogRepository,
+                                 SegmentArchive segmentArchive,
+                                 ZoneId energyZoneId,
+                                 RetentionPolicy retentionPolicy) {
+        this.tokenRangeScanner = tokenRangeScanner;
+        this.energyLogRepository = energyLogRepository;
+        this.segmentArchive = segmentArchive;
+        this.zoneId = energyZoneId;
+        this.rawRetentionDays = (int) TimeUnit.MILLISECONDS.toDays(retentionPolicy.retentionMillis(StorageTier.RAW));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Start backfilling the days from {@code from} to {@code to} (inclusive, clipped to the
+     * complete raw days) in the background; fails with IllegalStateException while another runs
+     */
+    public synchronized RebuildStatusResponse start(LocalDate from, LocalDate to) {
+        if (current != null && "RUNNING".equals(current.state)) {
+            throw new IllegalStateException("Backfill " + current.scanId + " is still running");
+        }
+        LocalDate yesterday = LocalDate.now(zoneId).minusDays(1);
+        LocalDate last = to.isAfter(yesterday) ? yesterday : to;
+        if (last.isBefore(from)) {
+            throw new IllegalArgumentException("Nothing to backfill before today");
+        }
+        Backfill backfill = new Backfill("buckets:" + from + ":" + last, from, last);
+        current = backfill;
+        runner.execute(() -> run(backfill));
+        return toResponse(backfill);
+    }
+
+    /**
+     * Progress of the running or last backfill
+     */
+    public RebuildStatusResponse getStatus() {
+        Backfill backfill = current;
+        if (backfill == null) {
+            return new RebuildStatusResponse(null, "IDLE", 0, 0, 0, 0, 0, List.of(), null);
+        }
+        return toResponse(backfill);
+    }
+
+    private void run(Backfill backfill) {
+        try {
+            // The day before is already partly expired by the raw TTL
+            LocalDate oldestComplete = LocalDate.now(zoneId).minusDays(rawRetentionDays - 1L);
+            Set<LocalDate> scanned = new HashSet<>();
+            Set<LocalDate> archived = new HashSet<>();
+            for (LocalDate date = backfill.from; !date.isAfter(backfill.to); date = date.plusDays(1)) {
+                if (segmentArchive.isArchived(date)) {
+                    archived.add(date);
+                } else if (!date.isBefore(oldestComplete)) {
+                    scanned.add(date);
+                }
+            }
+
+            if (!scanned.isEmpty()) {
+                tokenRangeScanner.scan(backfill.scanId, () -> new BucketHandler(scanned), backfill.progress);
+            }
+            for (LocalDate date : archived) {
+                backfillArchived(segmentArchive.segmentFor(date));
+            }
+            backfill.datesRebuilt = scanned.size() + archived.size();
+
+            tokenRangeScanner.clear(backfill.scanId);
+            backfill.state = "COMPLETED";
+            logger.info("Backfilled downsampled tiers of {} days ({})", backfill.datesRebuilt, backfill.scanId);
+        } catch (RuntimeException e) {
+            backfill.state = "FAILED";
+            backfill.message = e.getMessage();
+            logger.warn("Bucket backfill {} failed: {}", backfill.scanId, e.getMessage());
+        }
+    }
+
+    private void backfillArchived(Segment segment) {
+        PartitionBuckets buckets = new PartitionBuckets();
+        for (int partition = 0; partition < segment.partitionCount(); partition++) {
+            buckets.begin(segment.sensorId(partition));
+            segment.scan(partition, Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, mwh, voltage) -> {
+                buckets.add(timestamp, mwh, voltage);
+                return true;
+            });
+            buckets.end();
+        }
+        buckets.await();
+    }
+
+    private RebuildStatusResponse toResponse(Backfill backfill) {
+        TokenRangeScanner.Progress progress = backfill.progress;
+        return new RebuildStatusResponse(
+            backfill.scanId,
+            backfill.state,
+            progress.getRangesTotal(),
+            progress.getRangesCompleted(),
+            progress.getRangesResumed(),
+            progress.getRowsScanned(),
+            backfill.datesRebuilt,
+            List.of(),
+            backfill.message
+        );
+    }
+
+    private static final class Backfill {
+        private final String scanId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final TokenRangeScanner.Progress progress = new TokenRangeScanner.Progress();
+        private volatile String state = "RUNNING";
+        private volatile int datesRebuilt;
+        private volatile String message;
+
+        Backfill(String scanId, LocalDate from, LocalDate to) {
+            this.scanId = scanId;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Builds the buckets of one partition at a time. Rows of a partition arrive in
+     * recorded_at order, so each tier only needs the bucket currently being filled.
+     */
+    private final class PartitionBuckets {
+        private final BucketAccumulator[] accumulators = new BucketAccumulator[TIERS.length];
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+        private UUID sensorId;
+        private long written;
+
+        PartitionBuckets() {
+            for (int i = 0; i < TIERS.length; i++) {
+                accumulators[i] = new BucketAccumulator(TIERS[i].getBucketMillis());
+            }
+        }
+
+        void begin(UUID sensorId) {
+            this.sensorId = sensorId;
+        }
+
+        void add(long timestamp, long mwh, int voltage) {
+            for (int i = 0; i < TIERS.length; i++) {
+                BucketAccumulator accumulator = accumulators[i];
+                long bucketStart = accumulator.bucketOf(timestamp);
+                if (accumulator.getBucketStart() != bucketStart) {
+                    flush(TIERS[i], accumulator);
+                    accumulator.reset(bucketStart, false);
+                }
+                accumulator.add(mwh, voltage);
+            }
+        }
+
+        void end() {
+            for (int i = 0; i < TIERS.length; i++) {
+                flush(TIERS[i], accumulators[i]);
+            }
+            if (pending.size() >= MAX_PENDING_WRITES) {
+                await();
+            }
+        }
+
+        /**
+         * Wait for the bucket writes issued so far; returns the number of buckets written
+         */
+        long await() {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+            pending.clear();
+            return written;
+        }
+
+        private void flush(StorageTier tier, BucketAccumulator accumulator) {
+            if (accumulator.isOpen()) {
+                pending.add(energyLogRepository.saveBucketAsync(tier, new EnergyBucket(
+                    sensorId,
+                    Instant.ofEpochMilli(accumulator.getBucketStart()),
+                    accumulator.getTotalMwh(),
+                    accumulator.getReadingCount(),
+                    accumulator.getVoltageSum(),
+                    accumulator.getMinVoltage(),
+                    accumulator.getMaxVoltage()
+                )));
+                written++;
+            }
+            accumulator.close();
+        }
+    }
+
+    /**
+     * Writes the buckets of every partition in a token range whose day is being backfilled
+     */
+    private final class BucketHandler implements RangeScanHandler {
+        private final Set<LocalDate> dates;
+        private final PartitionBuckets buckets = new PartitionBuckets();
+        private UUID partitionSensor;
+        private LocalDate partitionDate;
+        private boolean inPartition;
+
+        BucketHandler(Set<LocalDate> dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public void onRow(UUID sensorId, LocalDate eventDate, long recordedAtMillis, BigDecimal kwhUsage, int voltage) {
+            if (!sensorId.equals(partitionSensor) || !eventDate.equals(partitionDate)) {
+                if (inPartition) {
+                    buckets.end();
+                }
+                partitionSensor = sensorId;
+                partitionDate = eventDate;
+                inPartition = dates.contains(eventDate);
+                if (inPartition) {
+                    buckets.begin(sensorId);
+                }
+            }
+            if (inPartition) {
+                buckets.add(recordedAtMillis, kwhUsage.movePointRight(6).longValue(), voltage);
+            }
+        }
+
+        @Override
+        public Map<String, Long> partial() {
+            if (inPartition) {
+                buckets.end();
+            }
+            return Map.of("buckets", buckets.await());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.SegmentArchive;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.timeseries.Segment;
+import com.smartcity.energy.timeseries.SegmentWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background archiver of closed days into the cold tier ({@link SegmentArchive}).
+ * Each run archives one day, the oldest retained day that is at least
+ * {@code energy.archive.after-days} old and has no segment yet: every sensor's
+ * partition is streamed from energy_logs into the day's segment file. Once the
+ * segment is published, reads of that day come from it; with
+ * {@code energy.archive.delete-archived} the day's partitions are then deleted
+ * from Cassandra instead of waiting for the raw TTL.
+ */
+@Service
+@Profile("!inmemory")
+public class ColdArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdArchiveService.class);
+    private static final int DELETE_BATCH = 32;
+
+    private final EnergyLogRepository energyLogRepository;
+    private final SensorRegistry sensorRegistry;
+    private final SegmentArchive segmentArchive;
+    private final ZoneId zoneId;
+    private final int rawRetentionDays;
+    private final boolean enabled;
+    private final int afterDays;
+    private final boolean deleteArchived;
+
+    public ColdArchiveService(EnergyLogRepository energyLogRepository,
+                              SensorRegistry sensorRegistry,
+                              SegmentArchive segmentArchive,
+                              ZoneId energyZoneId,
+                              RetentionPolicy retentionPolicy,
+                              @Value("${energy.archive.enabled:false}") boolean enabled,
+                              @Value("${energy.archive.after-days:3}") int afterDays,
+                              @Value("${energy.archive.delete-archived:false}") boolean deleteArchived) {
+        this.energyLogRepository = energyLogRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.segmentArchive = segmentArchive;
+        this.zoneId = energyZoneId;
+        this.rawRetentionDays = (int) TimeUnit.MILLISECONDS.toDays(retentionPolicy.retentionMillis(StorageTier.RAW));
+        this.enabled = enabled;
+        this.afterDays = Math.max(1, afterDays);
+        this.deleteArchived = deleteArchived;
+    }
+
+    /**
+     * Archive the next closed day (no-op unless {@code energy.archive.enabled})
+     */
+    @Scheduled(initialDelayString = "${energy.archive.initial-delay-ms:60000}",
+               fixedDelayString = "${energy.archive.interval-ms:300000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void archiveNext() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(zoneId);
+        // The oldest retained day is already partly expired by the raw TTL
+        LocalDate date = today.minusDays(rawRetentionDays - 1L);
+        LocalDate last = today.minusDays(afterDays);
+        while (!date.isAfter(last) && segmentArchive.isArchived(date)) {
+            date = date.plusDays(1);
+        }
+        if (date.isAfter(last)) {
+            return;
+        }
+        try {
+            archiveDay(date);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Archiving {} to the cold tier failed: {}", date, e.getMessage());
+        }
+    }
+
+    private void archiveDay(LocalDate date) throws IOException {
+        SegmentWriter writer = segmentArchive.create(date);
+        Segment segment;
+        try {
+            for (Sensor sensor : sensorRegistry.getAll()) {
+                writer.beginPartition(sensor.getSensorId());
+                energyLogRepository.forEachReadingAsync(sensor.getSensorId(), date,
+                    (recordedAt, kwhUsage, voltage) ->
+                        writer.append(recordedAt, kwhUsage.movePointRight(6).longValue(), voltage))
+                    .join();
+                writer.endPartition();
+            }
+            segment = segmentArchive.publish(date, writer);
+        } catch (IOException | RuntimeException e) {
+            segmentArchive.discard(date, writer);
+            throw e;
+        }
+        logger.info("Archived {}: {} partitions, {} bytes", date, segment.partitionCount(), segment.sizeInBytes());
+
+        if (deleteArchived) {
+            deletePartitions(segment, date);
+        }
+    }
+
+    /**
+     * Delete the archived partitions from Cassandra, a batch at a time
+     */
+    private void deletePartitions(Segment segment, LocalDate date) {
+        List<CompletableFuture<Void>> batch = new ArrayList<>(DELETE_BATCH);
+        for (int partition = 0; partition < segment.partitionCount(); partition++) {
+            UUID sensorId = segment.sensorId(partition);
+            batch.add(energyLogRepository.deletePartitionAsync(sensorId, date));
+            if (batch.size() == DELETE_BATCH) {
+                CompletableFuture.allOf(batch.toArray(new CompletableFuture<?>[0])).join();
+                batch.clear();
+            }
+        }
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
@@ -0,0 +1,265 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.ContinuousQueryRequest;
+import com.smartcity.energy.dto.ContinuousQueryResponse;
+import com.smartcity.energy.dto.ContinuousQueryResult;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.timeseries.PaneAggregator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Continuous windowed aggregations registered at runtime.
+ * Queries with the same filter, metric and pane width share one pane operator
+ * (reference counted), so the ingest path does one add per distinct operator
+ * regardless of how many windows or aggregate functions read from it. A
+ * scheduled tick closes due windows and pushes results to /topic/queries/{id}.
+ */
+@Service
+public class ContinuousQueryService implements EnergyReadingListener {
+
+    private static final String TOPIC_PREFIX = "/topic/queries/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxQueries;
+    private final int maxPanes;
+    private final long latenessMillis;
+
+    private final Map<UUID, Query> queries = new ConcurrentHashMap<>();
+    private final Map<String, Operator> operators = new ConcurrentHashMap<>();
+    private volatile Operator[] activeOperators = new Operator[0];
+
+    public ContinuousQueryService(SimpMessagingTemplate messagingTemplate,
+                                  @Value("${energy.cq.max-queries:100}") int maxQueries,
+                                  @Value("${energy.cq.max-panes:20000}") int maxPanes,
+                                  @Value("${energy.cq.lateness-ms:2000}") long latenessMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.maxQueries = maxQueries;
+        this.maxPanes = maxPanes;
+        this.latenessMillis = latenessMillis;
+    }
+
+    /**
+     * Feed the reading to every operator whose filter matches
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        Operator[] snapshot = activeOperators;
+        if (snapshot.length == 0) {
+            return;
+        }
+        long timestamp = log.getRecordedAt().toEpochMilli();
+        for (Operator operator : snapshot) {
+            if (operator.matches(log.getSensorId(), sensor)) {
+                operator.panes.add(timestamp, operator.voltage
+                    ? log.getVoltage()
+                    : log.getKwhUsage().doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Register a query; throws IllegalArgumentException when it cannot be served
+     */
+    public synchronized ContinuousQueryResponse register(ContinuousQueryRequest request) {
+        if (queries.size() >= maxQueries) {
+            throw new IllegalArgumentException("Too many continuous queries (max " + maxQueries + ")");
+        }
+
+        long windowMillis = request.getWindowSeconds() * 1000L;
+        long slideMillis = request.getSlideSeconds() != null ? request.getSlideSeconds() * 1000L : windowMillis;
+        if (slideMillis > windowMillis) {
+            throw new IllegalArgumentException("slideSeconds must not exceed windowSeconds");
+        }
+        long paneMillis = gcd(windowMillis, slideMillis);
+        long panes = windowMillis / paneMillis + (latenessMillis + paneMillis - 1) / paneMillis + 2;
+        if (panes > maxPanes) {
+            throw new IllegalArgumentException("Window/slide combination needs too many panes (max " + maxPanes + ")");
+        }
+
+        String metric = request.getMetric().toLowerCase();
+        String aggregate = request.getAggregate().toUpperCase();
+        String source = request.getEnergySource() != null ? request.getEnergySource().toUpperCase() : null;
+        Set<UUID> sensorIds = request.getSensorIds() != null && !request.getSensorIds().isEmpty()
+            ? new TreeSet<>(request.getSensorIds())
+            : null;
+
+        String key = request.getDistrictName() + "|" + source + "|" + sensorIds + "|" + metric + "|" + paneMillis;
+        Operator operator = operators.computeIfAbsent(key, k -> new Operator(
+            k, request.getDistrictName(), source, sensorIds, metric.equals("voltage"),
+            new PaneAggregator(paneMillis, (int) panes)));
+        operator.panes.ensureCapacity((int) panes);
+        operator.refCount++;
+        refreshActiveOperators();
+
+        UUID queryId = UUID.randomUUID();
+        ContinuousQueryResponse response = new ContinuousQueryResponse(
+            queryId,
+            request.getName(),
+            request.getDistrictName(),
+            source,
+            sensorIds != null ? List.copyOf(sensorIds) : null,
+            metric,
+            aggregate,
+            (int) (windowMillis / 1000),
+            (int) (slideMillis / 1000),
+            TOPIC_PREFIX + queryId,
+            Instant.now()
+        );
+        long now = System.currentTimeMillis();
+        queries.put(queryId, new Query(response, operator, windowMillis, slideMillis,
+            (Math.floorDiv(now, slideMillis) + 1) * slideMillis));
+        return response;
+    }
+
+    /**
+     * Unregister a query and free its operator once nothing else reads from it
+     */
+    public synchronized boolean unregister(UUID queryId) {
+        Query query = queries.remove(queryId);
+        if (query == null) {
+            return false;
+        }
+        if (--query.operator.refCount == 0) {
+            operators.remove(query.operator.key);
+            refreshActiveOperators();
+        }
+        return true;
+    }
+
+    public Optional<ContinuousQueryResponse> getQuery(UUID queryId) {
+        Query query = queries.get(queryId);
+        return query != null ? Optional.of(query.response) : Optional.empty();
+    }
+
+    public List<ContinuousQueryResponse> getQueries() {
+        List<ContinuousQueryResponse> result = new ArrayList<>(queries.size());
+        for (Query query : queries.values()) {
+            result.add(query.response);
+        }
+        return result;
+    }
+
+    /**
+     * Close every window whose end (plus allowed lateness) has passed and publish it
+     */
+    @Scheduled(fixedDelayString = "${energy.cq.tick-ms:1000}")
+    public void emitDueWindows() {
+        long now = System.currentTimeMillis();
+        double[] partial = new double[4];
+        for (Map.Entry<UUID, Query> entry : queries.entrySet()) {
+            Query query = entry.getValue();
+            // after a stall, skip windows whose panes have already been recycled
+            long latestEnd = Math.floorDiv(now - latenessMillis, query.slideMillis) * query.slideMillis;
+            if (latestEnd - query.nextWindowEnd > query.windowMillis) {
+                query.nextWindowEnd = latestEnd;
+            }
+            while (query.nextWindowEnd + latenessMillis <= now) {
+                long end = query.nextWindowEnd;
+                long start = end - query.windowMillis;
+                query.operator.panes.aggregate(start, end, partial);
+                messagingTemplate.convertAndSend(TOPIC_PREFIX + entry.getKey(), new ContinuousQueryResult(
+                    entry.getKey(),
+                    Instant.ofEpochMilli(start),
+                    Instant.ofEpochMilli(end),
+                    evaluate(query.response.getAggregate(), partial),
+                    (long) partial[0]
+                ));
+                query.nextWindowEnd += query.slideMillis;
+            }
+        }
+    }
+
+    private void refreshActiveOperators() {
+        activeOperators = operators.values().toArray(new Operator[0]);
+    }
+
+    private static Double evaluate(String aggregate, double[] partial) {
+        double count = partial[0];
+        switch (aggregate) {
+            case "COUNT":
+                return count;
+            case "SUM":
+                return partial[1];
+            case "AVG":
+                return count > 0 ? partial[1] / count : null;
+            case "MIN":
+                return count > 0 ? partial[2] : null;
+            case "MAX":
+                return count > 0 ? partial[3] : null;
+            default:
+                return null;
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Shared pane operator for one filter and metric
+     */
+    private static class Operator {
+        final String key;
+        final String districtName;
+        final String energySource;
+        final Set<UUID> sensorIds;
+        final boolean voltage;
+        final PaneAggregator panes;
+        int refCount;
+
+        Operator(String key, String districtName, String energySource, Set<UUID> sensorIds,
+                 boolean voltage, PaneAggregator panes) {
+            this.key = key;
+            this.districtName = districtName;
+            this.energySource = energySource;
+            this.sensorIds = sensorIds;
+            this.voltage = voltage;
+            this.panes = panes;
+        }
+
+        boolean matches(UUID sensorId, Sensor sensor) {
+            return (districtName == null || districtName.equals(sensor.getDistrictName()))
+                && (energySource == null || energySource.equalsIgnoreCase(sensor.getEnergySource()))
+                && (sensorIds == null || sensorIds.contains(sensorId));
+        }
+    }
+
+    /**
+     * Registered query: window definition over a shared operator
+     */
+    private static class Query {
+        final ContinuousQueryResponse response;
+        final Operator operator;
+        final long windowMillis;
+        final long slideMillis;
+        long nextWindowEnd;
+
+        Query(ContinuousQueryResponse response, Operator operator,
+              long windowMillis, long slideMillis, long nextWindowEnd) {
+            this.response = response;
+            this.operator = operator;
+            this.windowMillis = windowMillis;
+            this.slideMillis = slideMillis;
+            this.nextWindowEnd = nextWindowEnd;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.RebuildStatusResponse;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.EnergyDailySummaryRepository;
+import com.smartcity.energy.repository.RangeScanHandler;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.SegmentArchive;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.repository.TokenRangeScanner;
+import com.smartcity.energy.timeseries.Segment;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuild of the energy_daily_summary counters from the raw readings.
+ * Retained days are recomputed with one {@link TokenRangeScanner} pass over energy_logs
+ * (all cores, checkpointed per token range), archived days from their segments. Each
+ * rebuilt day's counters are then moved to the recomputed totals by incrementing the
+ * difference, so applying a rebuild twice leaves the counters unchanged. A rebuild
+ * that stopped half-way is resumed by starting it again with the same dates. Today
+ * is never rebuilt because ingest is still adding to it. A day with readings of sensors
+ * whose energy source is unknown (deleted sensors) cannot be recomputed per source, so
+ * its counters are left as they are and the day is reported as skipped. So is a day whose
+ * raw readings have expired without being archived: there is nothing left to rebuild it from.
+ */
+@Service
+@Profile("!inmemory")
+public class DailySummaryRebuildService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailySummaryRebuildService.class);
+    private static final BigDecimal WH_PER_KWH = BigDecimal.valueOf(1000);
+    /** Pseudo source collecting readings of sensors that are no longer registered */
+    private static final String UNATTRIBUTED = "#unattributed";
+
+    private final TokenRangeScanner tokenRangeScanner;
+    private final EnergyDailySummaryRepository energyDailySummaryRepository;
+    private final SensorRegistry sensorRegistry;
+    private final SegmentArchive segmentArchive;
+    private final ZoneId zoneId;
+    private final int rawRetentionDays;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor();
+    private volatile Rebuild current;
+
+    public DailySummaryRebuildService(TokenRangeScanner tokenRangeScanner,
+                                      EnergyDailySummaryRepository energyDailySummaryRepository,
+                                      SensorRegistry sensorRegistry,
+                                      SegmentArchive segmentArchive,
+                                      ZoneId energyZoneId,
+                                      RetentionPolicy retentionPolicy) {
+        this.tokenRangeScanner = tokenRangeScanner;
+        this.energyDailySummaryRepository = energyDailySummaryRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.segmentArchive = segmentArchive;
+        this.zoneId = energyZoneId;
+        this.rawRetentionDays = (int) TimeUnit.MILLISECONDS.toDays(retentionPolicy.retentionMillis(StorageTier.RAW));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Start rebuilding the days from {@code from} to {@code to} (inclusive, clipped to yesterday)
+     * in the background; fails with IllegalStateException while another rebuild runs
+     */
+    public synchronized RebuildStatusResponse start(LocalDate from, LocalDate to) {
+        if (current != null && "RUNNING".equals(current.state)) {
+            throw new IllegalStateException("Rebuild " + current.scanId + " is still running");
+        }
+        LocalDate yesterday = LocalDate.now(zoneId).minusDays(1);
+        LocalDate last = to.isAfter(yesterday) ? yesterday : to;
+        if (last.isBefore(from)) {
+            throw new IllegalArgumentException("Nothing to rebuild before today");
+        }
+        Rebuild rebuild = new Rebuild("daily-summaries:" + from + ":" + last, from, last);
+        current = rebuild;
+        runner.execute(() -> run(rebuild));
+        return toResponse(rebuild);
+    }
+
+    /**
+     * Progress of the running or last rebuild
+     */
+    public RebuildStatusResponse getStatus() {
+        Rebuild rebuild = current;
+        if (rebuild == null) {
+            return new RebuildStatusResponse(null, "IDLE", 0, 0, 0, 0, 0, List.of(), null);
+        }
+        return toResponse(rebuild);
+    }
+
+    private void run(Rebuild rebuild) {
+        try {
+            LocalDate oldestRetained = LocalDate.now(zoneId).minusDays(rawRetentionDays - 1L);
+            Set<LocalDate> scanned = new HashSet<>();
+            Set<LocalDate> archived = new HashSet<>();
+            List<String> expired = new ArrayList<>();
+            for (LocalDate date = rebuild.from; !date.isAfter(rebuild.to); date = date.plusDays(1)) {
+                if (segmentArchive.isArchived(date)) {
+                    archived.add(date);
+                } else if (!date.isBefore(oldestRetained)) {
+                    scanned.add(date);
+                } else {
+                    expired.add(date.toString());
+                }
+            }
+            rebuild.skippedDates.addAll(expired);
+
+            Map<String, Long> totals = new HashMap<>();
+            if (!scanned.isEmpty()) {
+                tokenRangeScanner.scan(rebuild.scanId, () -> new SummaryHandler(scanned), rebuild.progress)
+                    .forEach((key, wh) -> {
+                        // Checkpoints of an earlier attempt may cover days archived since
+                        if (scanned.contains(LocalDate.parse(key.substring(0, key.indexOf('|'))))) {
+                            totals.put(key, wh);
+                        }
+                    });
+            }
+            for (LocalDate date : archived) {
+                sumArchived(date, segmentArchive.segmentFor(date), totals);
+            }
+
+            Map<String, Map<String, Long>> byDate = new TreeMap<>();
+            for (LocalDate date : scanned) {
+                byDate.put(date.toString(), new HashMap<>());
+            }
+            for (LocalDate date : archived) {
+                byDate.put(date.toString(), new HashMap<>());
+            }
+            totals.forEach((key, wh) -> {
+                int separator = key.indexOf('|');
+                byDate.get(key.substring(0, separator)).put(key.substring(separator + 1), wh);
+            });
+            List<String> unattributed = new ArrayList<>();
+            byDate.forEach((date, rebuilt) -> {
+                if (rebuilt.containsKey(UNATTRIBUTED)) {
+                    unattributed.add(date);
+                    return;
+                }
+                apply(date, rebuilt);
+                rebuild.datesRebuilt++;
+            });
+
+            rebuild.skippedDates.addAll(unattributed);
+
+            tokenRangeScanner.clear(rebuild.scanId);
+            rebuild.state = "COMPLETED";
+            rebuild.message = skipMessage(expired.size(), unattributed.size());
+            logger.info("Rebuilt daily summaries of {} days, skipped {} ({})",
+                rebuild.datesRebuilt, rebuild.skippedDates.size(), rebuild.scanId);
+        } catch (RuntimeException e) {
+            rebuild.state = "FAILED";
+            rebuild.message = e.getMessage();
+            logger.warn("Daily summary rebuild {} failed: {}", rebuild.scanId, e.getMessage());
+        }
+    }
+
+    /**
+     * Why days were left unchanged, or null if none were
+     */
+    private static String skipMessage(int expired, int unattributed) {
+        List<String> reasons = new ArrayList<>(2);
+        if (expired > 0) {
+            reasons.add(expired + " days expired from raw retention and not archived");
+        }
+        if (unattributed > 0) {
+            reasons.add(unattributed + " days with readings of unknown sensors");
+        }
+        return reasons.isEmpty() ? null : "Left unchanged: " + String.join("; ", reasons);
+    }
+
+    /**
+     * Move the date's counters to the rebuilt totals (sources without readings go to zero)
+     */
+    private void apply(String date, Map<String, Long> rebuilt) {
+        Map<String, Long> counters = energyDailySummaryRepository.getTotalsWh(date);
+        Set<String> sources = new HashSet<>(counters.keySet());
+        sources.addAll(rebuilt.keySet());
+        for (String source : sources) {
+            long delta = rebuilt.getOrDefault(source, 0L) - counters.getOrDefault(source, 0L);
+            if (delta != 0) {
+                energyDailySummaryRepository.incrementWh(date, source, delta);
+            }
+        }
+    }
+
+    private void sumArchived(LocalDate date, Segment segment, Map<String, Long> totals) {
+        for (int partition = 0; partition < segment.partitionCount(); partition++) {
+            String source = energySource(segment.sensorId(partition));
+            long[] wh = new long[1];
+            segment.scan(partition, Long.MIN_VALUE, Long.MAX_VALUE, (timestamp, mwh, voltage) -> {
+                wh[0] += mwh / 1000;
+                return true;
+            });
+            totals.merge(date + "|" + source, wh[0], Long::sum);
+        }
+    }
+
+    /**
+     * Summary source of a sensor (as written at ingest), or {@link #UNATTRIBUTED} for unknown sensors
+     */
+    private String energySource(UUID sensorId) {
+        Optional<Sensor> sensor = sensorRegistry.get(sensorId);
+        if (sensor.isEmpty() || sensor.get().getEnergySource() == null) {
+            return UNATTRIBUTED;
+        }
+        return sensor.get().getEnergySource().toUpperCase();
+    }
+
+    private RebuildStatusResponse toResponse(Rebuild rebuild) {
+        TokenRangeScanner.Progress progress = rebuild.progress;
+        return new RebuildStatusResponse(
+            rebuild.scanId,
+            rebuild.state,
+            progress.getRangesTotal(),
+            progress.getRangesCompleted(),
+            progress.getRangesResumed(),
+            progress.getRowsScanned(),
+            rebuild.datesRebuilt,
+            List.copyOf(rebuild.skippedDates),
+            rebuild.message
+        );
+    }
+
+    private static final class Rebuild {
+        private final String scanId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final TokenRangeScanner.Progress progress = new TokenRangeScanner.Progress();
+        private volatile String state = "RUNNING";
+        private final List<String> skippedDates = new CopyOnWriteArrayList<>();
+        private volatile int datesRebuilt;
+        private volatile String message;
+
+        Rebuild(String scanId, LocalDate from, LocalDate to) {
+            this.scanId = scanId;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Per-range Wh totals keyed {@code date|SOURCE}, computed per reading exactly as ingest does.
+     * Rows of one partition arrive together, so the counter is looked up once per partition.
+     */
+    private final class SummaryHandler implements RangeScanHandler {
+        private final Set<LocalDate> dates;
+        private final Map<String, long[]> totals = new HashMap<>();
+        private UUID partitionSensor;
+        private LocalDate partitionDate;
+        private long[] counter;
+
+        SummaryHandler(Set<LocalDate> dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public void onRow(UUID sensorId, LocalDate eventDate, long recordedAtMillis, BigDecimal kwhUsage, int voltage) {
+            if (!sensorId.equals(partitionSensor) || !eventDate.equals(partitionDate)) {
+                partitionSensor = sensorId;
+                partitionDate = eventDate;
+                counter = dates.contains(eventDate)
+                    ? totals.computeIfAbsent(eventDate + "|" + energySource(sensorId), k -> new long[1])
+                    : null;
+            }
+            if (counter != null) {
+                counter[0] += kwhUsage.multiply(WH_PER_KWH).longValue();
+            }
+        }
+
+        @Override
+        public Map<String, Long> partial() {
+            Map<String, Long> partial = new HashMap<>();
+            totals.forEach((key, wh) -> partial.put(key, wh[0]));
+            return partial;
+        }
+    }
+}
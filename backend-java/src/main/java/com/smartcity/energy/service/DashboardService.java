@@ -0,0 +1,71 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.DashboardResponse;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Dashboard bundle: every widget computed from one shared read of the
+ * underlying data (stats overview, hourly rollups, daily counters), limited
+ * to the requested fields.
+ */
+@Service
+public class DashboardService {
+
+    public static final Set<String> FIELDS =
+        Set.of("city", "districts", "hourly", "savings", "cost", "emissions", "breakdown");
+
+    private final StatsService statsService;
+    private final EnergyAnalyticsService analyticsService;
+
+    public DashboardService(StatsService statsService, EnergyAnalyticsService analyticsService) {
+        this.statsService = statsService;
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Build the bundle for the given subset of {@link #FIELDS}
+     */
+    public DashboardResponse getDashboard(Set<String> fields) {
+        DashboardResponse response = new DashboardResponse();
+        String date = analyticsService.todayKey();
+        response.setDate(date);
+
+        if (fields.contains("city") || fields.contains("districts")) {
+            StatsService.Overview overview = statsService.getOverview();
+            if (fields.contains("city")) {
+                response.setCity(overview.city());
+            }
+            if (fields.contains("districts")) {
+                response.setDistricts(overview.districts());
+            }
+        }
+
+        if (fields.contains("hourly")) {
+            response.setHourly(statsService.getHourlyStats(LocalDate.parse(date), null));
+        }
+
+        if (fields.contains("savings") || fields.contains("cost")
+                || fields.contains("emissions") || fields.contains("breakdown")) {
+            double[] totals = analyticsService.getDailyTotals(date);
+            double gridKwh = totals[0];
+            double solarKwh = totals[1];
+            if (fields.contains("savings")) {
+                response.setSolarSavings(analyticsService.savingsInRp(gridKwh, solarKwh));
+            }
+            if (fields.contains("cost")) {
+                response.setRealtimeCost(analyticsService.gridCostInRp(gridKwh));
+            }
+            if (fields.contains("emissions")) {
+                response.setEmissions(analyticsService.emissionsKg(gridKwh));
+            }
+            if (fields.contains("breakdown")) {
+                response.setBreakdown(new DashboardResponse.EnergyBreakdown(gridKwh, solarKwh));
+            }
+        }
+
+        return response;
+    }
+}
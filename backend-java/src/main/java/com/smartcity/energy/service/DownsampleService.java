@@ -0,0 +1,164 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.model.EnergyBucket;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.timeseries.BucketAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the downsampled retention tiers (energy_logs_5m, energy_logs_1h).
+ * Each sensor keeps one open bucket per tier on the ingest path; a bucket is
+ * written once when a reading lands in a later bucket or when the sweep finds
+ * it ended. The first bucket seen after a restart may have missed readings, so
+ * it is rebuilt from a server-side aggregate of energy_logs before it is written.
+ */
+@Service
+public class DownsampleService implements EnergyReadingListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownsampleService.class);
+    private static final StorageTier[] TIERS = { StorageTier.FIVE_MINUTES, StorageTier.ONE_HOUR };
+
+    private final EnergyLogRepository energyLogRepository;
+    private final ZoneId zoneId;
+
+    private final Map<UUID, BucketAccumulator[]> states = new ConcurrentHashMap<>();
+
+    public DownsampleService(EnergyLogRepository energyLogRepository, ZoneId energyZoneId) {
+        this.energyLogRepository = energyLogRepository;
+        this.zoneId = energyZoneId;
+    }
+
+    /**
+     * Add the reading to the sensor's open 5-minute and 1-hour buckets
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        long timestamp = log.getRecordedAt().toEpochMilli();
+        long mwh = log.getKwhUsage().movePointRight(6).longValue();
+        BucketAccumulator[] accumulators = states.computeIfAbsent(log.getSensorId(), k -> newAccumulators());
+
+        synchronized (accumulators) {
+            for (BucketAccumulator accumulator : accumulators) {
+                long bucketStart = accumulator.bucketOf(timestamp);
+                if (accumulator.getBucketStart() == Long.MIN_VALUE) {
+                    // First bucket since startup: earlier readings of it may be missing
+                    accumulator.reset(bucketStart, true);
+                } else if (accumulator.getBucketStart() < bucketStart) {
+                    flush(log.getSensorId(), accumulator);
+                    accumulator.reset(bucketStart, false);
+                } else if (accumulator.getBucketStart() > bucketStart) {
+                    continue; // late reading for a bucket that is already written
+                }
+                accumulator.add(mwh, log.getVoltage());
+            }
+        }
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        BucketAccumulator[] accumulators = states.remove(sensorId);
+        if (accumulators != null) {
+            synchronized (accumulators) {
+                for (BucketAccumulator accumulator : accumulators) {
+                    flush(sensorId, accumulator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write buckets of sensors that went quiet after their bucket ended
+     */
+    @Scheduled(fixedDelayString = "${energy.retention.flush-interval-ms:60000}")
+    public void flushEndedBuckets() {
+        long now = System.currentTimeMillis();
+        states.forEach((sensorId, accumulators) -> {
+            synchronized (accumulators) {
+                for (BucketAccumulator accumulator : accumulators) {
+                    if (accumulator.isOpen()
+                            && accumulator.getBucketStart() + accumulator.getBucketMillis() <= now) {
+                        flush(sensorId, accumulator);
+                    }
+                }
+            }
+        });
+    }
+
+    private BucketAccumulator[] newAccumulators() {
+        BucketAccumulator[] accumulators = new BucketAccumulator[TIERS.length];
+        for (int i = 0; i < TIERS.length; i++) {
+            accumulators[i] = new BucketAccumulator(TIERS[i].getBucketMillis());
+        }
+        return accumulators;
+    }
+
+    /**
+     * Write the accumulator's bucket and close it (caller holds the sensor lock)
+     */
+    private void flush(UUID sensorId, BucketAccumulator accumulator) {
+        if (!accumulator.isOpen()) {
+            accumulator.close();
+            return;
+        }
+        StorageTier tier = tierOf(accumulator);
+        Instant start = Instant.ofEpochMilli(accumulator.getBucketStart());
+        EnergyBucket bucket = new EnergyBucket(
+            sensorId,
+            start,
+            accumulator.getTotalMwh(),
+            accumulator.getReadingCount(),
+            accumulator.getVoltageSum(),
+            accumulator.getMinVoltage(),
+            accumulator.getMaxVoltage()
+        );
+        boolean partial = accumulator.isPartial();
+        accumulator.close();
+
+        if (!partial) {
+            energyLogRepository.saveBucketAsync(tier, bucket);
+            return;
+        }
+
+        // Buckets never straddle a day boundary (zone offset is a whole hour), so one partition suffices
+        LocalDate date = start.atZone(zoneId).toLocalDate();
+        energyLogRepository.aggregateRangeAsync(sensorId, date, start, start.plusMillis(tier.getBucketMillis()))
+            .thenCompose(aggregate -> {
+                if (aggregate.getReadingCount() >= bucket.getReadingCount()) {
+                    bucket.setTotalMwh(aggregate.getTotalKwh().movePointRight(6).longValue());
+                    bucket.setReadingCount(aggregate.getReadingCount());
+                    bucket.setVoltageSum(aggregate.getVoltageSum());
+                    bucket.setMinVoltage(aggregate.getMinVoltage());
+                    bucket.setMaxVoltage(aggregate.getMaxVoltage());
+                }
+                return energyLogRepository.saveBucketAsync(tier, bucket);
+            })
+            .exceptionally(e -> {
+                logger.warn("Rebuilding {} bucket {} of sensor {} failed: {}",
+                    tier, start, sensorId, e.getMessage());
+                energyLogRepository.saveBucketAsync(tier, bucket);
+                return null;
+            });
+    }
+
+    private StorageTier tierOf(BucketAccumulator accumulator) {
+        for (StorageTier tier : TIERS) {
+            if (tier.getBucketMillis() == accumulator.getBucketMillis()) {
+                return tier;
+            }
+        }
+        throw new IllegalStateException("No tier for bucket width " + accumulator.getBucketMillis());
+    }
+}
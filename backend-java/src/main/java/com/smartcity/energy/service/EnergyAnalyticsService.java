@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Map;
 
 @Service
 public class EnergyAnalyticsService {
@@ -13,9 +14,11 @@ public class EnergyAnalyticsService {
     private final double priceGridPerKwh;
     private final double priceSolarPerKwh;
     private final double emissionFactorKgPerKwh;
+    private final ZoneId zoneId;
 
     public EnergyAnalyticsService(
         EnergyDailySummaryRepository repo,
+        ZoneId energyZoneId,
         @Value("${energy.priceGridPerKwh:1500}") double priceGridPerKwh,
         @Value("${energy.priceSolarPerKwh:0}") double priceSolarPerKwh,
         @Value("${energy.emissionFactorKgPerKwh:0.8}") double emissionFactorKgPerKwh
@@ -24,38 +27,45 @@ public class EnergyAnalyticsService {
         this.priceGridPerKwh = priceGridPerKwh;
         this.priceSolarPerKwh = priceSolarPerKwh;
         this.emissionFactorKgPerKwh = emissionFactorKgPerKwh;
+        this.zoneId = energyZoneId;
     }
 
-    private String todayKey() {
-        return LocalDate.now(ZoneId.of("Asia/Jakarta")).toString(); // yyyy-MM-dd
+    public String todayKey() {
+        return LocalDate.now(zoneId).toString(); // yyyy-MM-dd
     }
 
     public long calculateTodaySavingsInRp() {
-        String date = todayKey();
-        double solarKwh = repo.getTotalKwh(date, "SOLAR");
-        double gridKwh = repo.getTotalKwh(date, "GRID");
+        double[] totals = getDailyTotals(todayKey());
+        return savingsInRp(totals[0], totals[1]);
+    }
+
+    public long getRealtimeGridCostInRp() {
+        return gridCostInRp(getDailyTotals(todayKey())[0]);
+    }
+
+    public double getRealtimeEmissionsKg() {
+        return emissionsKg(getDailyTotals(todayKey())[0]);
+    }
+
+    // For charts: return pair of grid/solar kWh for given date (both counters in one read)
+    public double[] getDailyTotals(String date) {
+        Map<String, Double> totals = repo.getTotalsKwh(date);
+        return new double[]{totals.getOrDefault("GRID", 0.0), totals.getOrDefault("SOLAR", 0.0)};
+    }
+
+    // Derived figures from already-read totals, so callers can share one read
+    public long savingsInRp(double gridKwh, double solarKwh) {
         double biayaTanpaSolar = (gridKwh + solarKwh) * priceGridPerKwh;
         double biayaAktual = (gridKwh * priceGridPerKwh) + (solarKwh * priceSolarPerKwh);
         double penghematan = biayaTanpaSolar - biayaAktual;
         return Math.round(Math.max(0, penghematan));
     }
 
-    public long getRealtimeGridCostInRp() {
-        String date = todayKey();
-        double gridKwh = repo.getTotalKwh(date, "GRID");
+    public long gridCostInRp(double gridKwh) {
         return Math.round(gridKwh * priceGridPerKwh);
     }
 
-    public double getRealtimeEmissionsKg() {
-        String date = todayKey();
-        double gridKwh = repo.getTotalKwh(date, "GRID");
+    public double emissionsKg(double gridKwh) {
         return gridKwh * emissionFactorKgPerKwh;
     }
-
-    // For charts: return pair of grid/solar kWh for given date or range. Example method:
-    public double[] getDailyTotals(String date) {
-        double solar = repo.getTotalKwh(date, "SOLAR");
-        double grid = repo.getTotalKwh(date, "GRID");
-        return new double[]{grid, solar};
-    }
 }
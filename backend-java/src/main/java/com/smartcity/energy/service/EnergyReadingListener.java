@@ -0,0 +1,27 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+
+import java.util.UUID;
+
+/**
+ * Callback for in-process consumers of the ingest stream.
+ * Invoked once per persisted reading; implementations must be O(1) and non-blocking.
+ */
+public interface EnergyReadingListener {
+
+    void onReading(EnergyLog log, Sensor sensor);
+
+    /**
+     * Set up per-sensor state when a sensor is created (it may never report)
+     */
+    default void onSensorAdded(Sensor sensor) {
+    }
+
+    /**
+     * Release per-sensor state when a sensor is deleted
+     */
+    default void onSensorRemoved(UUID sensorId) {
+    }
+}
@@ -3,39 +3,66 @@ package com.smartcity.energy.service;
 import com.smartcity.energy.dto.EnergyIngestRequest;
 import com.smartcity.energy.dto.EnergyLatestResponse;
 import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
 import com.smartcity.energy.repository.EnergyDailySummaryRepository;
 import com.smartcity.energy.repository.EnergyLogRepository;
-import com.smartcity.energy.repository.SensorRepository;
+import com.smartcity.energy.repository.HourlyRollupRepository;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.StorageTier;
+import com.smartcity.energy.timeseries.GorillaEncoder;
+import com.smartcity.energy.timeseries.TimeSeriesDownsampler;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 public class EnergyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EnergyService.class);
+    private static final int RANGE_READ_CONCURRENCY = 4;
+
     private final EnergyLogRepository energyLogRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final EnergyDailySummaryRepository EnergyDailySummaryRepository;
-    private final SensorRepository SensorRepository;
+    private final SensorRegistry sensorRegistry;
+    private final HourlyRollupRepository hourlyRollupRepository;
+    private final RetentionPolicy retentionPolicy;
+    private final List<EnergyReadingListener> readingListeners;
+    private final ZoneId zoneId;
 
 
     public EnergyService(EnergyLogRepository energyLogRepository, 
                          SimpMessagingTemplate messagingTemplate, 
                          EnergyDailySummaryRepository EnergyDailySummaryRepository,
-                         SensorRepository SensorRepository) {
+                         SensorRegistry sensorRegistry,
+                         HourlyRollupRepository hourlyRollupRepository,
+                         RetentionPolicy retentionPolicy,
+                         List<EnergyReadingListener> readingListeners,
+                         ZoneId energyZoneId) {
         this.energyLogRepository = energyLogRepository;
         this.messagingTemplate = messagingTemplate;
         this.EnergyDailySummaryRepository = EnergyDailySummaryRepository;
-        this.SensorRepository = SensorRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.hourlyRollupRepository = hourlyRollupRepository;
+        this.retentionPolicy = retentionPolicy;
+        this.readingListeners = readingListeners;
+        this.zoneId = energyZoneId;
     }
 
     /**
@@ -44,7 +71,7 @@ public class EnergyService {
     public CompletableFuture<EnergyLog> ingestEnergyData(EnergyIngestRequest request) {
         EnergyLog log = new EnergyLog();
         log.setSensorId(request.getSensorId());
-        log.setEventDate(LocalDate.now());
+        log.setEventDate(LocalDate.now(zoneId));
         log.setKwhUsage(request.getKwhUsage());
         log.setVoltage(request.getVoltage());
 
@@ -54,18 +81,11 @@ public class EnergyService {
         // Broadcast to WebSocket subscribers
         future.thenAccept(savedLog -> {
             
-            String energySource = SensorRepository
-                .findById(savedLog.getSensorId())
-                .map(s -> s.getEnergySource().toUpperCase())
+            Sensor sensor = sensorRegistry
+                .get(savedLog.getSensorId())
                 .orElseThrow();
 
-            // convert kWh (BigDecimal) -> Wh (long) to preserve fractional part
-            long wh = savedLog.getKwhUsage().multiply(BigDecimal.valueOf(1000)).longValue();
-            EnergyDailySummaryRepository.incrementWh(
-                savedLog.getEventDate().toString(),
-                energySource,
-                wh
-            );
+            updateSummaries(savedLog, sensor);
 
             EnergyLatestResponse response = new EnergyLatestResponse(
                 savedLog.getSensorId(),
@@ -89,25 +109,19 @@ public class EnergyService {
 
     EnergyLog log = new EnergyLog();
     log.setSensorId(request.getSensorId());
-    log.setEventDate(LocalDate.now());
+    log.setEventDate(LocalDate.now(zoneId));
     log.setKwhUsage(request.getKwhUsage());
     log.setVoltage(request.getVoltage());
 
     EnergyLog saved = energyLogRepository.save(log);
 
-    // 🔥 AMBIL ENERGY SOURCE DARI SENSOR
-    String energySource = SensorRepository
-        .findById(saved.getSensorId())
-        .map(s -> s.getEnergySource().toUpperCase())
+    // 🔥 AMBIL SENSOR (ENERGY SOURCE + DISTRICT)
+    Sensor sensor = sensorRegistry
+        .get(saved.getSensorId())
         .orElseThrow(() -> new IllegalStateException("Sensor not found"));
 
-    // 🔥 UPDATE COUNTER HARIAN
-    long wh = saved.getKwhUsage().multiply(BigDecimal.valueOf(1000)).longValue();
-    EnergyDailySummaryRepository.incrementWh(
-        saved.getEventDate().toString(),
-        energySource,
-        wh
-    );
+    // 🔥 UPDATE COUNTER HARIAN + ROLLUP PER JAM
+    updateSummaries(saved, sensor);
 
     // Broadcast WebSocket
     EnergyLatestResponse response = new EnergyLatestResponse(
@@ -123,6 +137,42 @@ public class EnergyService {
     return saved;
 }
 
+    /**
+     * Update daily summary counter, hourly rollups and in-process listeners for a saved reading
+     */
+    private void updateSummaries(EnergyLog saved, Sensor sensor) {
+        String energySource = sensor.getEnergySource().toUpperCase();
+
+        // convert kWh (BigDecimal) -> Wh (long) to preserve fractional part
+        long wh = saved.getKwhUsage().multiply(BigDecimal.valueOf(1000)).longValue();
+        EnergyDailySummaryRepository.incrementWh(
+            saved.getEventDate().toString(),
+            energySource,
+            wh
+        );
+
+        // hourly rollups keep milli-Wh so 2-decimal kWh sums stay exact
+        long mwh = saved.getKwhUsage().movePointRight(6).longValue();
+        ZonedDateTime recordedAt = saved.getRecordedAt().atZone(zoneId);
+        hourlyRollupRepository.increment(
+            saved.getSensorId(),
+            sensor.getDistrictName(),
+            energySource,
+            saved.getEventDate(),
+            recordedAt.getHour(),
+            mwh
+        );
+
+        // in-process consumers (live aggregates, ...)
+        for (EnergyReadingListener listener : readingListeners) {
+            try {
+                listener.onReading(saved, sensor);
+            } catch (RuntimeException e) {
+                logger.warn("Reading listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
 
     /**
      * Get latest reading for a sensor
@@ -151,6 +201,112 @@ public class EnergyService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Get readings for a sensor on a specific date as one Gorilla-compressed block
+     * (same order as {@link #getReadingsByDate}, newest first), streamed from the
+     * partition without building EnergyLog objects
+     */
+    public byte[] getEncodedReadingsByDate(UUID sensorId, LocalDate date) {
+        GorillaEncoder encoder = new GorillaEncoder();
+        energyLogRepository.forEachReadingAsync(sensorId, date,
+            (recordedAt, kwhUsage, voltage) ->
+                encoder.append(recordedAt, kwhUsage.movePointRight(6).longValue(), voltage))
+            .join();
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Get readings for a sensor over a multi-day range, downsampled to at most {@code points}.
+     * Daily partitions are streamed concurrently (bounded) into a fixed-size downsampler,
+     * so memory does not grow with the number of raw readings. Ranges whose resolution
+     * (or age) allows it are read from the 5-minute or 1-hour tier instead of energy_logs;
+     * the parts of the range the tier does not hold yet (before its first bucket, and the
+     * open bucket after its last one) are filled from energy_logs while still retained.
+     */
+    public List<EnergyLatestResponse> getReadingsInRange(UUID sensorId, LocalDate from, LocalDate to, int points) {
+        long start = from.atStartOfDay(zoneId).toInstant().toEpochMilli();
+        long end = to.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+        TimeSeriesDownsampler downsampler = new TimeSeriesDownsampler(start, end, points);
+
+        StorageTier tier = retentionPolicy.routeTier(start, (end - start) / points);
+        if (tier == StorageTier.RAW) {
+            readRaw(sensorId, start, end, downsampler);
+            return toResponses(sensorId, downsampler);
+        }
+
+        // Start of the first bucket and end of the last bucket the tier holds in the range
+        long[] covered = { Long.MAX_VALUE, Long.MIN_VALUE };
+        energyLogRepository.forEachBucketAsync(tier, sensorId, start, end,
+            (recordedAt, kwhUsage, voltage) -> {
+                covered[0] = Math.min(covered[0], recordedAt);
+                covered[1] = Math.max(covered[1], recordedAt + tier.getBucketMillis());
+                downsampler.add(recordedAt, kwhUsage.doubleValue(), voltage);
+            })
+            .join();
+
+        long rawFrom = Math.max(start, System.currentTimeMillis() - retentionPolicy.retentionMillis(StorageTier.RAW));
+        if (covered[0] == Long.MAX_VALUE) {
+            readRaw(sensorId, rawFrom, end, downsampler);
+        } else {
+            readRaw(sensorId, rawFrom, covered[0], downsampler);
+            readRaw(sensorId, covered[1], end, downsampler);
+        }
+        return toResponses(sensorId, downsampler);
+    }
+
+    private List<EnergyLatestResponse> toResponses(UUID sensorId, TimeSeriesDownsampler downsampler) {
+        return downsampler.result().stream()
+            .map(sample -> new EnergyLatestResponse(
+                sensorId,
+                BigDecimal.valueOf(sample.value()),
+                sample.voltage(),
+                Instant.ofEpochMilli(sample.timestamp())
+            ))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Merge the raw readings in [fromMillis, toMillis) into the downsampler, a few days concurrently
+     */
+    private void readRaw(UUID sensorId, long fromMillis, long toMillis, TimeSeriesDownsampler downsampler) {
+        if (fromMillis >= toMillis) {
+            return;
+        }
+        LocalDate first = Instant.ofEpochMilli(fromMillis).atZone(zoneId).toLocalDate();
+        LocalDate last = Instant.ofEpochMilli(toMillis - 1).atZone(zoneId).toLocalDate();
+        List<LocalDate> days = first.datesUntil(last.plusDays(1)).collect(Collectors.toList());
+        AtomicInteger nextDay = new AtomicInteger();
+        int lanes = Math.min(RANGE_READ_CONCURRENCY, days.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            futures.add(readNextDay(sensorId, days, nextDay, fromMillis, toMillis, downsampler));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Read day partitions one after another on a single lane, merging each into the downsampler
+     */
+    private CompletableFuture<Void> readNextDay(UUID sensorId, List<LocalDate> days, AtomicInteger nextDay,
+                                                long fromMillis, long toMillis,
+                                                TimeSeriesDownsampler downsampler) {
+        int index = nextDay.getAndIncrement();
+        if (index >= days.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        TimeSeriesDownsampler partial = downsampler.newPartial();
+        return energyLogRepository.forEachReadingAsync(sensorId, days.get(index),
+                (recordedAt, kwhUsage, voltage) -> {
+                    if (recordedAt >= fromMillis && recordedAt < toMillis) {
+                        partial.add(recordedAt, kwhUsage.doubleValue(), voltage);
+                    }
+                })
+            .thenCompose(done -> {
+                downsampler.merge(partial);
+                return readNextDay(sensorId, days, nextDay, fromMillis, toMillis, downsampler);
+            });
+    }
+
     /**
      * Calculate daily total for a sensor
      */
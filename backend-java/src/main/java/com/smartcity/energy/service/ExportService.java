@@ -0,0 +1,235 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.repository.EnergyLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk export of energy_logs straight to an output stream.
+ * Partitions are read one (sensor, day) at a time through
+ * {@link EnergyLogRepository#streamReadings}, and every row is written as soon as
+ * it is visited, so heap use does not depend on the size of the export.
+ * Order: sensor by sensor, day by day, and within a day newest first (clustering order).
+ */
+@Service
+public class ExportService {
+
+    /**
+     * Export encodings
+     */
+    public enum Format {
+        /** {@code sensor_id,recorded_at,kwh_usage,voltage} with a header line */
+        CSV("text/csv", "csv"),
+        /** One JSON object per line */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /**
+         * Columnar frames: magic {@code ELOG}, version, then per frame sensor id (2 longs),
+         * row count (int), recorded_at column (epoch ms longs), milli-Wh column (longs),
+         * voltage column (ints); big-endian, ends at end of stream
+         */
+        BINARY("application/octet-stream", "bin");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    static final int BINARY_MAGIC = 0x454C4F47; // "ELOG"
+    static final int BINARY_VERSION = 1;
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+
+    private final EnergyLogRepository energyLogRepository;
+    private final int pageSize;
+
+    public ExportService(EnergyLogRepository energyLogRepository,
+                         @Value("${energy.export.page-size:5000}") int pageSize) {
+        this.energyLogRepository = energyLogRepository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Write the readings of {@code sensorIds} from {@code from} to {@code to} (inclusive)
+     */
+    public void export(List<UUID> sensorIds, LocalDate from, LocalDate to, Format format,
+                       OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_BYTES);
+        RowWriter writer = format == Format.BINARY
+            ? new BinaryWriter(buffered, pageSize)
+            : new TextWriter(buffered, format);
+        try {
+            writer.begin();
+            for (UUID sensorId : sensorIds) {
+                writer.sensor(sensorId);
+                for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                    energyLogRepository.streamReadings(sensorId, date, pageSize, writer::row);
+                }
+                writer.endSensor();
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away
+        }
+    }
+
+    /**
+     * Serializer of one export; I/O errors while visiting rows surface as UncheckedIOException
+     */
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void sensor(UUID sensorId) throws IOException;
+
+        void row(long recordedAtMillis, BigDecimal kwhUsage, int voltage);
+
+        void endSensor() throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class TextWriter implements RowWriter {
+        private final Writer writer;
+        private final boolean csv;
+        private String sensorPrefix;
+
+        TextWriter(OutputStream out, Format format) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.csv = format == Format.CSV;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            if (csv) {
+                writer.write("sensor_id,recorded_at,kwh_usage,voltage\n");
+            }
+        }
+
+        @Override
+        public void sensor(UUID sensorId) {
+            sensorPrefix = csv ? sensorId + "," : "{\"sensorId\":\"" + sensorId + "\",\"recordedAt\":\"";
+        }
+
+        @Override
+        public void row(long recordedAtMillis, BigDecimal kwhUsage, int voltage) {
+            try {
+                writer.write(sensorPrefix);
+                writer.write(Instant.ofEpochMilli(recordedAtMillis).toString());
+                writer.write(csv ? "," : "\",\"kwhUsage\":");
+                writer.write(kwhUsage.stripTrailingZeros().toPlainString());
+                writer.write(csv ? "," : ",\"voltage\":");
+                writer.write(Integer.toString(voltage));
+                writer.write(csv ? "\n" : "}\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void endSensor() {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Buffers up to one page of rows per column and writes them as a frame
+     */
+    private static final class BinaryWriter implements RowWriter {
+        private final DataOutputStream out;
+        private final long[] timestamps;
+        private final long[] mwh;
+        private final int[] voltages;
+        private UUID sensorId;
+        private int size;
+
+        BinaryWriter(OutputStream out, int frameRows) {
+            this.out = new DataOutputStream(out);
+            this.timestamps = new long[frameRows];
+            this.mwh = new long[frameRows];
+            this.voltages = new int[frameRows];
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.writeInt(BINARY_MAGIC);
+            out.writeInt(BINARY_VERSION);
+        }
+
+        @Override
+        public void sensor(UUID sensorId) {
+            this.sensorId = sensorId;
+            this.size = 0;
+        }
+
+        @Override
+        public void row(long recordedAtMillis, BigDecimal kwhUsage, int voltage) {
+            timestamps[size] = recordedAtMillis;
+            mwh[size] = kwhUsage.movePointRight(6).longValue();
+            voltages[size] = voltage;
+            size++;
+            if (size == timestamps.length) {
+                try {
+                    writeFrame();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @Override
+        public void endSensor() throws IOException {
+            if (size > 0) {
+                writeFrame();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeFrame() throws IOException {
+            out.writeLong(sensorId.getMostSignificantBits());
+            out.writeLong(sensorId.getLeastSignificantBits());
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(timestamps[i]);
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeLong(mwh[i]);
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeInt(voltages[i]);
+            }
+            size = 0;
+        }
+    }
+}
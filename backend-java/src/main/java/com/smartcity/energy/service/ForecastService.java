@@ -0,0 +1,278 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.ForecastResponse;
+import com.smartcity.energy.model.ForecastModel;
+import com.smartcity.energy.model.HourlyRollup;
+import com.smartcity.energy.repository.ForecastModelRepository;
+import com.smartcity.energy.repository.HourlyRollupRepository;
+import com.smartcity.energy.timeseries.HoltWinters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online short-term load forecasting per district and energy source.
+ * Each (district, source) pair owns a Holt-Winters model with daily (24 h)
+ * seasonality. Closed hours are read from the district hourly rollups and
+ * folded in once; model state is persisted after every update so a restart
+ * resumes from the last closed hour instead of rescanning energy_logs.
+ */
+@Service
+public class ForecastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastService.class);
+    private static final String[] SOURCES = {"SOLAR", "GRID"};
+    private static final int PERIOD = 24;
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final HourlyRollupRepository hourlyRollupRepository;
+    private final ForecastModelRepository forecastModelRepository;
+    private final SensorRegistry sensorRegistry;
+    private final ZoneId zoneId;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int catchUpHours;
+    private final long closeGraceMillis;
+
+    private final Map<String, Series> models = new ConcurrentHashMap<>();
+    private volatile boolean restored;
+    private volatile long lastClosedHour = Long.MIN_VALUE;
+
+    public ForecastService(HourlyRollupRepository hourlyRollupRepository,
+                           ForecastModelRepository forecastModelRepository,
+                           SensorRegistry sensorRegistry,
+                           ZoneId energyZoneId,
+                           @Value("${energy.forecast.alpha:0.3}") double alpha,
+                           @Value("${energy.forecast.beta:0.02}") double beta,
+                           @Value("${energy.forecast.gamma:0.2}") double gamma,
+                           @Value("${energy.forecast.catch-up-hours:168}") int catchUpHours,
+                           @Value("${energy.forecast.close-grace-ms:60000}") long closeGraceMillis) {
+        this.hourlyRollupRepository = hourlyRollupRepository;
+        this.forecastModelRepository = forecastModelRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.zoneId = energyZoneId;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.catchUpHours = catchUpHours;
+        this.closeGraceMillis = closeGraceMillis;
+    }
+
+    /**
+     * Forecast the next {@code horizon} hours for a district and energy source
+     */
+    public ForecastResponse getForecast(String districtName, String energySource, int horizon) {
+        String source = energySource.toUpperCase();
+        Series series = models.get(key(districtName, source));
+        if (series == null) {
+            return new ForecastResponse(districtName, source, false, null,
+                BigDecimal.ZERO, BigDecimal.ZERO, List.of());
+        }
+
+        long lastHour;
+        boolean ready;
+        double[] values = new double[Math.max(horizon, PERIOD)];
+        synchronized (series) {
+            lastHour = series.lastEpochHour;
+            ready = series.model.isReady();
+            for (int step = 1; step <= values.length; step++) {
+                values[step - 1] = series.model.forecast(hourOfDay(lastHour + step), step);
+            }
+        }
+
+        // the hour in progress is step 1, so "next hour" and "next day" start after it
+        long currentHour = Math.floorDiv(System.currentTimeMillis(), HOUR_MILLIS);
+        int offset = (int) Math.max(0, Math.min(currentHour - lastHour, values.length - 1));
+        double nextDay = 0;
+        for (int i = offset; i < Math.min(offset + PERIOD, values.length); i++) {
+            nextDay += values[i];
+        }
+
+        List<ForecastResponse.Point> points = new ArrayList<>(horizon);
+        for (int step = 1; step <= horizon; step++) {
+            points.add(new ForecastResponse.Point(
+                Instant.ofEpochMilli((lastHour + step) * HOUR_MILLIS),
+                toKwh(values[step - 1])
+            ));
+        }
+
+        return new ForecastResponse(
+            districtName,
+            source,
+            ready,
+            Instant.ofEpochMilli(lastHour * HOUR_MILLIS),
+            toKwh(values[offset]),
+            toKwh(nextDay),
+            points
+        );
+    }
+
+    /**
+     * Forecasts of every energy source for a district
+     */
+    public List<ForecastResponse> getForecasts(String districtName, int horizon) {
+        List<ForecastResponse> forecasts = new ArrayList<>(SOURCES.length);
+        for (String source : SOURCES) {
+            forecasts.add(getForecast(districtName, source, horizon));
+        }
+        return forecasts;
+    }
+
+    /**
+     * Fold every hour closed since the last run into the models.
+     * Cheap no-op until the clock crosses an hour boundary (plus grace for late readings).
+     */
+    @Scheduled(initialDelayString = "${energy.forecast.initial-delay-ms:10000}",
+               fixedDelayString = "${energy.forecast.interval-ms:60000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void closeHours() {
+        try {
+            if (!restored) {
+                restore();
+            }
+
+            long closedHour = Math.floorDiv(System.currentTimeMillis() - closeGraceMillis, HOUR_MILLIS) - 1;
+            if (closedHour <= lastClosedHour) {
+                return;
+            }
+
+            Set<String> districts = new LinkedHashSet<>(sensorRegistry.getDistrictNames());
+            for (Series series : models.values()) {
+                districts.add(series.districtName);
+            }
+
+            for (String district : districts) {
+                advanceDistrict(district, closedHour);
+            }
+            lastClosedHour = closedHour;
+        } catch (RuntimeException e) {
+            logger.warn("Forecast update failed: {}", e.getMessage());
+        }
+    }
+
+    private void restore() {
+        for (ForecastModel stored : forecastModelRepository.findAll()) {
+            List<Double> season = stored.getSeason();
+            if (season == null || season.size() != PERIOD) {
+                continue;
+            }
+            double[] offsets = new double[PERIOD];
+            for (int i = 0; i < PERIOD; i++) {
+                offsets[i] = season.get(i);
+            }
+            HoltWinters model = new HoltWinters(alpha, beta, gamma, offsets,
+                stored.getLevel(), stored.getTrend(), stored.getObservations());
+            models.put(key(stored.getDistrictName(), stored.getEnergySource()),
+                new Series(stored.getDistrictName(), stored.getEnergySource(), model, stored.getLastEpochHour()));
+        }
+        restored = true;
+        logger.info("Restored {} forecast models", models.size());
+    }
+
+    /**
+     * Replay closed hours of one district from its hourly rollups (one read per day touched)
+     */
+    private void advanceDistrict(String district, long closedHour) {
+        long floor = closedHour - catchUpHours;
+        Series[] series = new Series[SOURCES.length];
+        long fromHour = closedHour + 1;
+        for (int s = 0; s < SOURCES.length; s++) {
+            String source = SOURCES[s];
+            series[s] = models.computeIfAbsent(key(district, source),
+                k -> new Series(district, source, new HoltWinters(alpha, beta, gamma, PERIOD), floor));
+            fromHour = Math.min(fromHour, Math.max(series[s].lastEpochHour, floor) + 1);
+        }
+        if (fromHour > closedHour) {
+            return;
+        }
+
+        Map<LocalDate, Map<String, long[]>> days = new HashMap<>();
+        for (long hour = fromHour; hour <= closedHour; hour++) {
+            ZonedDateTime start = Instant.ofEpochMilli(hour * HOUR_MILLIS).atZone(zoneId);
+            Map<String, long[]> bySource = days.computeIfAbsent(start.toLocalDate(),
+                date -> readDay(district, date));
+
+            for (int s = 0; s < SOURCES.length; s++) {
+                Series target = series[s];
+                synchronized (target) {
+                    if (hour <= target.lastEpochHour) {
+                        continue;
+                    }
+                    long[] mwh = bySource.get(SOURCES[s]);
+                    double kwh = mwh != null ? mwh[start.getHour()] / 1_000_000.0 : 0;
+                    target.model.update(start.getHour(), kwh);
+                    target.lastEpochHour = hour;
+                }
+            }
+        }
+
+        for (Series target : series) {
+            forecastModelRepository.saveAsync(target.snapshot());
+        }
+    }
+
+    private Map<String, long[]> readDay(String district, LocalDate date) {
+        Map<String, long[]> bySource = new HashMap<>();
+        for (HourlyRollup rollup : hourlyRollupRepository.findByDistrict(district, date)) {
+            bySource.computeIfAbsent(rollup.getEnergySource(), k -> new long[PERIOD])[rollup.getHour()]
+                += rollup.getTotalMwh();
+        }
+        return bySource;
+    }
+
+    private int hourOfDay(long epochHour) {
+        return Instant.ofEpochMilli(epochHour * HOUR_MILLIS).atZone(zoneId).getHour();
+    }
+
+    private static String key(String districtName, String energySource) {
+        return districtName + "|" + energySource;
+    }
+
+    private static BigDecimal toKwh(double kwh) {
+        return BigDecimal.valueOf(kwh).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Model plus the last epoch hour folded into it
+     */
+    private static class Series {
+        final String districtName;
+        final String energySource;
+        final HoltWinters model;
+        long lastEpochHour;
+
+        Series(String districtName, String energySource, HoltWinters model, long lastEpochHour) {
+            this.districtName = districtName;
+            this.energySource = energySource;
+            this.model = model;
+            this.lastEpochHour = lastEpochHour;
+        }
+
+        synchronized ForecastModel snapshot() {
+            List<Double> season = new ArrayList<>(model.getPeriod());
+            for (double offset : model.getSeason()) {
+                season.add(offset);
+            }
+            return new ForecastModel(districtName, energySource, model.getLevel(), model.getTrend(),
+                season, lastEpochHour, model.getObservations(), Instant.now());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.DistrictRankingResponse;
+import com.smartcity.energy.dto.TopSensorResponse;
+import com.smartcity.energy.model.DistrictProfile;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.DistrictProfileRepository;
+import com.smartcity.energy.timeseries.SpaceSavingTopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Live leaderboards for today: heaviest consuming sensors (Space-Saving
+ * heavy hitters updated per reading) and districts ranked by kWh per capita
+ * (live district totals joined with cached district profiles).
+ */
+@Service
+public class LeaderboardService implements EnergyReadingListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final LiveStatsService liveStatsService;
+    private final SensorRegistry sensorRegistry;
+    private final DistrictProfileRepository districtProfileRepository;
+    private final ZoneId zoneId;
+    private final int capacity;
+
+    private final SpaceSavingTopK<UUID> topSensors;
+    private volatile LocalDate day;
+    private volatile Map<String, DistrictProfile> profiles = Map.of();
+
+    public LeaderboardService(LiveStatsService liveStatsService,
+                              SensorRegistry sensorRegistry,
+                              DistrictProfileRepository districtProfileRepository,
+                              ZoneId energyZoneId,
+                              @Value("${energy.topk.capacity:100}") int capacity) {
+        this.liveStatsService = liveStatsService;
+        this.sensorRegistry = sensorRegistry;
+        this.districtProfileRepository = districtProfileRepository;
+        this.zoneId = energyZoneId;
+        this.capacity = capacity;
+        this.topSensors = new SpaceSavingTopK<>(capacity);
+        this.day = LocalDate.now(energyZoneId);
+    }
+
+    /**
+     * Add the reading's kWh to the sensor's heavy-hitter count
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        LocalDate date = log.getEventDate();
+        if (!date.equals(day)) {
+            if (date.isBefore(day)) {
+                return;
+            }
+            rollover(date);
+        }
+        topSensors.add(log.getSensorId(), log.getKwhUsage().movePointRight(6).longValue());
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        topSensors.remove(sensorId);
+    }
+
+    /**
+     * Top k sensors by today's kWh (k is capped at the summary capacity)
+     */
+    public List<TopSensorResponse> getTopSensors(int k) {
+        if (!LocalDate.now(zoneId).equals(day)) {
+            return List.of();
+        }
+        List<TopSensorResponse> result = new ArrayList<>();
+        int rank = 1;
+        for (SpaceSavingTopK.Estimate<UUID> estimate : topSensors.top(Math.min(k, capacity))) {
+            Optional<Sensor> sensor = sensorRegistry.get(estimate.key());
+            result.add(new TopSensorResponse(
+                rank++,
+                estimate.key(),
+                sensor.map(Sensor::getDistrictName).orElse(null),
+                sensor.map(Sensor::getEnergySource).orElse(null),
+                toKwh(estimate.count()),
+                toKwh(estimate.error())
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * Districts ranked by today's kWh per capita (districts without a profile are skipped)
+     */
+    public List<DistrictRankingResponse> getDistrictRanking() {
+        Map<String, Long> totals = liveStatsService.getDistrictTotalsMwh();
+        List<DistrictRankingResponse> ranking = new ArrayList<>();
+
+        for (DistrictProfile profile : profiles.values()) {
+            if (profile.getPopulation() <= 0) {
+                continue;
+            }
+            long mwh = totals.getOrDefault(profile.getDistrictName(), 0L);
+            BigDecimal perCapita = BigDecimal.valueOf(mwh, 6)
+                .divide(BigDecimal.valueOf(profile.getPopulation()), 8, RoundingMode.HALF_UP);
+            ranking.add(new DistrictRankingResponse(0, profile.getDistrictName(), toKwh(mwh),
+                profile.getPopulation(), perCapita));
+        }
+
+        ranking.sort(Comparator.comparing(DistrictRankingResponse::getKwhPerCapita).reversed());
+        for (int i = 0; i < ranking.size(); i++) {
+            ranking.get(i).setRank(i + 1);
+        }
+        return ranking;
+    }
+
+    /**
+     * Refresh the district profile cache
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${energy.profiles.refresh-interval-ms:600000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void refreshProfiles() {
+        try {
+            Map<String, DistrictProfile> fresh = new HashMap<>();
+            for (DistrictProfile profile : districtProfileRepository.findAll()) {
+                fresh.put(profile.getDistrictName(), profile);
+            }
+            profiles = fresh;
+        } catch (RuntimeException e) {
+            logger.warn("District profile refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void rollover(LocalDate date) {
+        if (date.isAfter(day)) {
+            topSensors.clear();
+            day = date;
+        }
+    }
+
+    private BigDecimal toKwh(long mwh) {
+        return BigDecimal.valueOf(mwh, 6).setScale(2, RoundingMode.HALF_UP);
+    }
+}
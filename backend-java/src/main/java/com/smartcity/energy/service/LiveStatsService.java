@@ -0,0 +1,271 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.DistrictStatsResponse;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.model.SensorDailyAggregate;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live per-district and city-wide aggregates for today.
+ * Updated in O(1) per ingested reading with striped LongAdders; sensor counts
+ * come from {@link SensorRegistry}. Periodically reconciled against Cassandra.
+ */
+@Service
+public class LiveStatsService implements EnergyReadingListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveStatsService.class);
+    private static final String CITY_LABEL = "All Districts";
+
+    private final SensorRegistry sensorRegistry;
+    private final EnergyLogRepository energyLogRepository;
+    private final ZoneId zoneId;
+    private final long settleMillis;
+
+    private volatile DayAggregates current;
+    private volatile Reconciliation reconciliation;
+    private volatile boolean ready;
+
+    public LiveStatsService(SensorRegistry sensorRegistry, EnergyLogRepository energyLogRepository,
+                            ZoneId energyZoneId,
+                            @Value("${energy.stats.reconcile-settle-ms:2000}") long settleMillis) {
+        this.sensorRegistry = sensorRegistry;
+        this.energyLogRepository = energyLogRepository;
+        this.zoneId = energyZoneId;
+        this.settleMillis = settleMillis;
+        this.current = new DayAggregates(LocalDate.now(energyZoneId));
+    }
+
+    /**
+     * Apply one reading to today's district and city aggregates
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        // Read before current: reconcile publishes its aggregates before clearing this
+        Reconciliation pending = reconciliation;
+        long mwh = log.getKwhUsage().movePointRight(6).longValue();
+        DayAggregates day = aggregatesFor(log.getEventDate());
+        if (day != null) {
+            day.add(sensor.getDistrictName(), mwh, log.getVoltage());
+        }
+        if (pending != null && pending.fresh != day && pending.fresh.date.equals(log.getEventDate())
+                && log.getRecordedAt().toEpochMilli() >= pending.cutoffMillis) {
+            pending.fresh.add(sensor.getDistrictName(), mwh, log.getVoltage());
+        }
+    }
+
+    /**
+     * True once the first reconciliation has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Today's statistics for a district in constant time
+     */
+    public DistrictStatsResponse getDistrictStats(String districtName) {
+        DayAggregates day = todayAggregates();
+        Accumulator accumulator = day != null ? day.districts.get(districtName) : null;
+        return toResponse(districtName, accumulator, sensorRegistry.getDistrictCounts(districtName));
+    }
+
+    /**
+     * Today's city-wide statistics in constant time
+     */
+    public DistrictStatsResponse getCityStats() {
+        DayAggregates day = todayAggregates();
+        return toResponse(CITY_LABEL, day != null ? day.city : null, sensorRegistry.getCityCounts());
+    }
+
+    /**
+     * Today's kWh per district in milli-Wh
+     */
+    public Map<String, Long> getDistrictTotalsMwh() {
+        DayAggregates day = todayAggregates();
+        Map<String, Long> totals = new HashMap<>();
+        if (day != null) {
+            day.districts.forEach((district, accumulator) -> totals.put(district, accumulator.mwh.sum()));
+        }
+        return totals;
+    }
+
+    /**
+     * Rebuild today's aggregates from Cassandra (sensor metadata + per-sensor daily aggregates).
+     * The snapshot covers readings recorded before a cutoff; readings recorded from the cutoff
+     * on are added to the new aggregates as they arrive, so none are lost or counted twice.
+     * The snapshot is taken {@code energy.stats.reconcile-settle-ms} after the cutoff so that
+     * writes still in flight at the cutoff are visible to it.
+     */
+    @Scheduled(initialDelayString = "${energy.stats.reconcile-initial-delay-ms:0}",
+               fixedDelayString = "${energy.stats.reconcile-interval-ms:300000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void reconcile() {
+        try {
+            sensorRegistry.reload();
+            LocalDate today = LocalDate.now(zoneId);
+            List<Sensor> sensors = new ArrayList<>(sensorRegistry.getAll());
+
+            Reconciliation pending = new Reconciliation(new DayAggregates(today), System.currentTimeMillis());
+            reconciliation = pending;
+            try {
+                Thread.sleep(settleMillis);
+
+                Instant dayStart = today.atStartOfDay(zoneId).toInstant();
+                Instant cutoff = Instant.ofEpochMilli(pending.cutoffMillis);
+                List<CompletableFuture<SensorDailyAggregate>> futures = new ArrayList<>(sensors.size());
+                for (Sensor sensor : sensors) {
+                    futures.add(energyLogRepository.aggregateRangeAsync(sensor.getSensorId(), today, dayStart, cutoff));
+                }
+
+                for (int i = 0; i < sensors.size(); i++) {
+                    SensorDailyAggregate aggregate = futures.get(i).join();
+                    long mwh = aggregate.getTotalKwh().movePointRight(6).longValue();
+                    pending.fresh.district(sensors.get(i).getDistrictName())
+                        .add(mwh, aggregate.getVoltageSum(), aggregate.getReadingCount());
+                    pending.fresh.city.add(mwh, aggregate.getVoltageSum(), aggregate.getReadingCount());
+                }
+
+                synchronized (this) {
+                    // Midnight may have passed meanwhile; never swap back to an older day
+                    if (!current.date.isAfter(today)) {
+                        current = pending.fresh;
+                    }
+                }
+                ready = true;
+            } finally {
+                reconciliation = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Live stats reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private DayAggregates aggregatesFor(LocalDate date) {
+        DayAggregates day = current;
+        if (day.date.equals(date)) {
+            return day;
+        }
+        if (date.isBefore(day.date)) {
+            return null;
+        }
+        synchronized (this) {
+            if (current.date.isBefore(date)) {
+                current = new DayAggregates(date);
+            }
+            return current.date.equals(date) ? current : null;
+        }
+    }
+
+    private DayAggregates todayAggregates() {
+        DayAggregates day = current;
+        return day.date.equals(LocalDate.now(zoneId)) ? day : null;
+    }
+
+    private DistrictStatsResponse toResponse(String label, Accumulator accumulator,
+                                             SensorRegistry.SensorCounts counts) {
+        int totalSensors = counts.getTotal();
+        if (totalSensors == 0) {
+            return new DistrictStatsResponse(
+                label,
+                BigDecimal.ZERO,
+                BigDecimal.ZERO,
+                0, 0,
+                BigDecimal.ZERO
+            );
+        }
+
+        long mwh = accumulator != null ? accumulator.mwh.sum() : 0;
+        long voltageSum = accumulator != null ? accumulator.voltageSum.sum() : 0;
+        long voltageCount = accumulator != null ? accumulator.readingCount.sum() : 0;
+
+        BigDecimal solarRatio = BigDecimal.valueOf(counts.getSolar())
+            .divide(BigDecimal.valueOf(totalSensors), 4, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100));
+
+        BigDecimal avgVoltage = voltageCount > 0
+            ? BigDecimal.valueOf((double) voltageSum / voltageCount)
+                .setScale(2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+
+        return new DistrictStatsResponse(
+            label,
+            BigDecimal.valueOf(mwh, 6).setScale(2, RoundingMode.HALF_UP),
+            solarRatio.setScale(2, RoundingMode.HALF_UP),
+            totalSensors,
+            counts.getActive(),
+            avgVoltage
+        );
+    }
+
+    /**
+     * Aggregates for a single day
+     */
+    private static class DayAggregates {
+        final LocalDate date;
+        final Map<String, Accumulator> districts = new ConcurrentHashMap<>();
+        final Accumulator city = new Accumulator();
+
+        DayAggregates(LocalDate date) {
+            this.date = date;
+        }
+
+        Accumulator district(String districtName) {
+            return districts.computeIfAbsent(String.valueOf(districtName), k -> new Accumulator());
+        }
+
+        void add(String districtName, long mwh, int voltage) {
+            district(districtName).add(mwh, voltage, 1);
+            city.add(mwh, voltage, 1);
+        }
+    }
+
+    /**
+     * Aggregates being rebuilt, and the recorded_at from which readings are added to them live
+     */
+    private static class Reconciliation {
+        final DayAggregates fresh;
+        final long cutoffMillis;
+
+        Reconciliation(DayAggregates fresh, long cutoffMillis) {
+            this.fresh = fresh;
+            this.cutoffMillis = cutoffMillis;
+        }
+    }
+
+    /**
+     * Striped counters: kWh (as milli-Wh), voltage sum and reading count
+     */
+    private static class Accumulator {
+        final LongAdder mwh = new LongAdder();
+        final LongAdder voltageSum = new LongAdder();
+        final LongAdder readingCount = new LongAdder();
+
+        void add(long mwhDelta, long voltageDelta, long readings) {
+            mwh.add(mwhDelta);
+            voltageSum.add(voltageDelta);
+            readingCount.add(readings);
+        }
+    }
+}
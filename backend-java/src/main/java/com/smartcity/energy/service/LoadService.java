@@ -0,0 +1,164 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.LoadResponse;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.timeseries.SampleRing;
+import com.smartcity.energy.timeseries.SlottedWindow;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sliding-window instantaneous power per sensor, district and city.
+ * kW = kWh in the trailing window / window length in hours, for 1, 5 and 15
+ * minute windows. Sensors keep ring buffers of recent samples; districts and
+ * the city keep 10-second slot rings, so every reading is O(1) and silent
+ * sensors age out without scanning.
+ */
+@Service
+public class LoadService implements EnergyReadingListener {
+
+    private static final long[] WINDOWS = {60_000L, 300_000L, 900_000L};
+    private static final long SLOT_MILLIS = 10_000L;
+    // The widest window plus the current, partly filled slot
+    private static final int SLOTS = (int) (WINDOWS[2] / SLOT_MILLIS) + 1;
+    private static final String CITY_LABEL = "All Districts";
+
+    private final SensorRegistry sensorRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<UUID, SampleRing> sensorRings = new ConcurrentHashMap<>();
+    private final Map<String, SlottedWindow> districtWindows = new ConcurrentHashMap<>();
+    private final SlottedWindow cityWindow = new SlottedWindow(SLOT_MILLIS, SLOTS);
+
+    public LoadService(SensorRegistry sensorRegistry, SimpMessagingTemplate messagingTemplate) {
+        this.sensorRegistry = sensorRegistry;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Add the reading to its sensor ring and district/city slot rings
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        long timestamp = log.getRecordedAt().toEpochMilli();
+        long mwh = log.getKwhUsage().movePointRight(6).longValue();
+
+        SampleRing ring = sensorRings.computeIfAbsent(log.getSensorId(), k -> new SampleRing(WINDOWS, 256));
+        synchronized (ring) {
+            ring.add(timestamp, mwh);
+        }
+        districtWindows.computeIfAbsent(String.valueOf(sensor.getDistrictName()),
+            k -> new SlottedWindow(SLOT_MILLIS, SLOTS)).add(timestamp, mwh);
+        cityWindow.add(timestamp, mwh);
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        sensorRings.remove(sensorId);
+    }
+
+    /**
+     * Current load of one sensor
+     */
+    public LoadResponse getSensorLoad(UUID sensorId) {
+        long now = System.currentTimeMillis();
+        long[] sums = new long[WINDOWS.length];
+        SampleRing ring = sensorRings.get(sensorId);
+        if (ring != null) {
+            synchronized (ring) {
+                for (int w = 0; w < WINDOWS.length; w++) {
+                    sums[w] = ring.windowSum(w, now);
+                }
+            }
+        }
+        return toResponse(sensorId.toString(), sums, now);
+    }
+
+    /**
+     * Current load of a district
+     */
+    public LoadResponse getDistrictLoad(String districtName) {
+        return fromWindow(districtName, districtWindows.get(districtName));
+    }
+
+    /**
+     * Current city-wide load
+     */
+    public LoadResponse getCityLoad() {
+        return fromWindow(CITY_LABEL, cityWindow);
+    }
+
+    /**
+     * Current load of every district with sensors
+     */
+    public List<LoadResponse> getDistrictLoads() {
+        List<LoadResponse> loads = new ArrayList<>();
+        for (String district : sensorRegistry.getDistrictNames()) {
+            loads.add(getDistrictLoad(district));
+        }
+        return loads;
+    }
+
+    /**
+     * Publish city and district load to /topic/load
+     */
+    @Scheduled(fixedDelayString = "${energy.load.broadcast-interval-ms:5000}")
+    public void broadcast() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("city", getCityLoad());
+        payload.put("districts", getDistrictLoads());
+        messagingTemplate.convertAndSend("/topic/load", payload);
+    }
+
+    /**
+     * Slot sums span the window plus the elapsed part of the current slot, so they are
+     * divided by that span rather than the window length
+     */
+    private LoadResponse fromWindow(String scope, SlottedWindow window) {
+        long now = System.currentTimeMillis();
+        long[] sums = new long[WINDOWS.length];
+        long[] spans = WINDOWS.clone();
+        if (window != null) {
+            for (int w = 0; w < WINDOWS.length; w++) {
+                sums[w] = window.windowSum(WINDOWS[w], now);
+                spans[w] = window.coveredMillis(WINDOWS[w], now);
+            }
+        }
+        return toResponse(scope, sums, spans, now);
+    }
+
+    private LoadResponse toResponse(String scope, long[] sumsMwh, long now) {
+        return toResponse(scope, sumsMwh, WINDOWS, now);
+    }
+
+    private LoadResponse toResponse(String scope, long[] sumsMwh, long[] spansMillis, long now) {
+        return new LoadResponse(
+            scope,
+            toKw(sumsMwh[0], spansMillis[0]),
+            toKw(sumsMwh[1], spansMillis[1]),
+            toKw(sumsMwh[2], spansMillis[2]),
+            Instant.ofEpochMilli(now)
+        );
+    }
+
+    /**
+     * milli-Wh over a window -> average kW (kWh / hours)
+     */
+    private BigDecimal toKw(long mwh, long windowMillis) {
+        return BigDecimal.valueOf(mwh, 6)
+            .multiply(BigDecimal.valueOf(3_600_000L))
+            .divide(BigDecimal.valueOf(windowMillis), 3, RoundingMode.HALF_UP);
+    }
+}
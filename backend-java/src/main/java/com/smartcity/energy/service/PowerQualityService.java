@@ -0,0 +1,230 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.PowerQualityResponse;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.PowerQualityHour;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.PowerQualityRepository;
+import com.smartcity.energy.timeseries.PowerQualityBucket;
+import com.smartcity.energy.timeseries.VoltageEventDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Power-quality event counters (sag / swell / interruption) per sensor and district.
+ * A per-sensor state machine runs on the ingest path against bands derived from
+ * the nominal voltage; counts and durations accumulate in the sensor's current
+ * hour bucket. Closed buckets are persisted once and day summaries are served
+ * from those rows plus the open buckets, never from energy_logs.
+ */
+@Service
+public class PowerQualityService implements EnergyReadingListener {
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int TYPES = VoltageEventDetector.EVENT_TYPES.length;
+
+    private final PowerQualityRepository powerQualityRepository;
+    private final SensorRegistry sensorRegistry;
+    private final ZoneId zoneId;
+    private final VoltageEventDetector detector;
+
+    private final Map<UUID, SensorState> states = new ConcurrentHashMap<>();
+
+    public PowerQualityService(PowerQualityRepository powerQualityRepository,
+                               SensorRegistry sensorRegistry,
+                               ZoneId energyZoneId,
+                               @Value("${energy.pq.nominal-voltage:220}") int nominalVoltage,
+                               @Value("${energy.pq.sag-ratio:0.9}") double sagRatio,
+                               @Value("${energy.pq.swell-ratio:1.1}") double swellRatio,
+                               @Value("${energy.pq.interruption-ratio:0.1}") double interruptionRatio) {
+        this.powerQualityRepository = powerQualityRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.zoneId = energyZoneId;
+        this.detector = new VoltageEventDetector(
+            (int) Math.round(nominalVoltage * interruptionRatio),
+            (int) Math.round(nominalVoltage * sagRatio),
+            (int) Math.round(nominalVoltage * swellRatio)
+        );
+    }
+
+    /**
+     * Run the reading through the sensor's state machine
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        long timestamp = log.getRecordedAt().toEpochMilli();
+        long epochHour = Math.floorDiv(timestamp, HOUR_MILLIS);
+        SensorState state = states.computeIfAbsent(log.getSensorId(),
+            k -> new SensorState(sensor.getDistrictName()));
+
+        synchronized (state) {
+            state.districtName = sensor.getDistrictName();
+            if (state.bucket == null || state.bucket.getEpochHour() < epochHour) {
+                flush(log.getSensorId(), state);
+                state.bucket = new PowerQualityBucket(epochHour);
+            } else if (state.bucket.getEpochHour() > epochHour) {
+                return; // late reading for an hour that is already closed
+            }
+            detector.observe(state.event, timestamp, log.getVoltage(), state.bucket);
+        }
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        SensorState state = states.remove(sensorId);
+        if (state != null) {
+            synchronized (state) {
+                flush(sensorId, state);
+            }
+        }
+    }
+
+    /**
+     * Persist buckets of sensors that went quiet after their hour ended
+     */
+    @Scheduled(fixedDelayString = "${energy.pq.flush-interval-ms:60000}")
+    public void flushClosedHours() {
+        long currentHour = Math.floorDiv(System.currentTimeMillis(), HOUR_MILLIS);
+        states.forEach((sensorId, state) -> {
+            synchronized (state) {
+                if (state.bucket != null && state.bucket.getEpochHour() < currentHour) {
+                    flush(sensorId, state);
+                }
+            }
+        });
+    }
+
+    /**
+     * Day summary of one sensor
+     */
+    public PowerQualityResponse getSensorSummary(UUID sensorId, LocalDate date) {
+        long[][] hours = new long[24][2 * TYPES];
+        for (PowerQualityHour row : powerQualityRepository.findBySensor(sensorId, date)) {
+            addRow(hours, row);
+        }
+        addOpenBucket(hours, states.get(sensorId), date);
+        return toResponse(sensorId.toString(), date, hours);
+    }
+
+    /**
+     * Day summary of a district (closed rows of all its sensors plus their open buckets)
+     */
+    public PowerQualityResponse getDistrictSummary(String districtName, LocalDate date) {
+        long[][] hours = new long[24][2 * TYPES];
+        for (PowerQualityHour row : powerQualityRepository.findByDistrict(districtName, date)) {
+            addRow(hours, row);
+        }
+        for (Sensor sensor : sensorRegistry.getByDistrict(districtName)) {
+            addOpenBucket(hours, states.get(sensor.getSensorId()), date);
+        }
+        return toResponse(districtName, date, hours);
+    }
+
+    /**
+     * Write the sensor's open bucket if it holds any event (caller holds the state lock)
+     */
+    private void flush(UUID sensorId, SensorState state) {
+        PowerQualityBucket bucket = state.bucket;
+        state.bucket = null;
+        if (bucket == null || bucket.isEmpty()) {
+            return;
+        }
+        ZonedDateTime start = Instant.ofEpochMilli(bucket.getEpochHour() * HOUR_MILLIS).atZone(zoneId);
+        powerQualityRepository.saveAsync(new PowerQualityHour(
+            sensorId,
+            state.districtName,
+            start.toLocalDate(),
+            start.getHour(),
+            bucket.getCount(VoltageEventDetector.SAG),
+            bucket.getCount(VoltageEventDetector.SWELL),
+            bucket.getCount(VoltageEventDetector.INTERRUPTION),
+            bucket.getDurationMillis(VoltageEventDetector.SAG),
+            bucket.getDurationMillis(VoltageEventDetector.SWELL),
+            bucket.getDurationMillis(VoltageEventDetector.INTERRUPTION)
+        ));
+    }
+
+    private void addRow(long[][] hours, PowerQualityHour row) {
+        long[] slot = hours[row.getHour()];
+        slot[VoltageEventDetector.SAG] += row.getSagCount();
+        slot[VoltageEventDetector.SWELL] += row.getSwellCount();
+        slot[VoltageEventDetector.INTERRUPTION] += row.getInterruptionCount();
+        slot[TYPES + VoltageEventDetector.SAG] += row.getSagMillis();
+        slot[TYPES + VoltageEventDetector.SWELL] += row.getSwellMillis();
+        slot[TYPES + VoltageEventDetector.INTERRUPTION] += row.getInterruptionMillis();
+    }
+
+    private void addOpenBucket(long[][] hours, SensorState state, LocalDate date) {
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            PowerQualityBucket bucket = state.bucket;
+            if (bucket == null) {
+                return;
+            }
+            ZonedDateTime start = Instant.ofEpochMilli(bucket.getEpochHour() * HOUR_MILLIS).atZone(zoneId);
+            if (!start.toLocalDate().equals(date)) {
+                return;
+            }
+            long[] slot = hours[start.getHour()];
+            for (int type = 0; type < TYPES; type++) {
+                slot[type] += bucket.getCount(type);
+                slot[TYPES + type] += bucket.getDurationMillis(type);
+            }
+        }
+    }
+
+    private PowerQualityResponse toResponse(String scope, LocalDate date, long[][] hours) {
+        long[] total = new long[2 * TYPES];
+        List<PowerQualityResponse.Counters> perHour = new ArrayList<>();
+        for (int hour = 0; hour < hours.length; hour++) {
+            long[] slot = hours[hour];
+            boolean empty = true;
+            for (int i = 0; i < slot.length; i++) {
+                total[i] += slot[i];
+                empty &= slot[i] == 0;
+            }
+            if (!empty) {
+                perHour.add(toCounters(hour, slot));
+            }
+        }
+        return new PowerQualityResponse(scope, date, toCounters(null, total), perHour);
+    }
+
+    private PowerQualityResponse.Counters toCounters(Integer hour, long[] slot) {
+        return new PowerQualityResponse.Counters(
+            hour,
+            (int) slot[VoltageEventDetector.SAG],
+            (int) slot[VoltageEventDetector.SWELL],
+            (int) slot[VoltageEventDetector.INTERRUPTION],
+            slot[TYPES + VoltageEventDetector.SAG] / 1000.0,
+            slot[TYPES + VoltageEventDetector.SWELL] / 1000.0,
+            slot[TYPES + VoltageEventDetector.INTERRUPTION] / 1000.0
+        );
+    }
+
+    /**
+     * State machine and open hour bucket of one sensor
+     */
+    private static class SensorState {
+        final VoltageEventDetector.State event = new VoltageEventDetector.State();
+        String districtName;
+        PowerQualityBucket bucket;
+
+        SensorState(String districtName) {
+            this.districtName = districtName;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.SensorStatusMessage;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.SensorRepository;
+import com.smartcity.energy.timeseries.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Heartbeat-based liveness: every reading re-arms the sensor's timeout in a
+ * hashed timer wheel (O(1), no fleet scan). An Active sensor whose timer
+ * expires is marked Offline; an Offline sensor that reports again is marked
+ * Active. Sensors are armed at startup and when they are created, so a meter
+ * that never reports goes Offline too. Manually set statuses such as
+ * Maintenance are left alone.
+ */
+@Service
+public class SensorLivenessService implements EnergyReadingListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorLivenessService.class);
+    private static final String TOPIC = "/topic/sensors/status";
+    private static final String ACTIVE = "Active";
+    private static final String OFFLINE = "Offline";
+
+    private final SensorRepository sensorRepository;
+    private final SensorRegistry sensorRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SingleFlight singleFlight;
+    private final long timeoutMillis;
+    private final HashedTimerWheel<UUID> wheel;
+
+    private volatile boolean seeded;
+
+    public SensorLivenessService(SensorRepository sensorRepository,
+                                 SensorRegistry sensorRegistry,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 SingleFlight singleFlight,
+                                 @Value("${energy.liveness.timeout-ms:120000}") long timeoutMillis,
+                                 @Value("${energy.liveness.tick-ms:1000}") long tickMillis) {
+        this.sensorRepository = sensorRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.messagingTemplate = messagingTemplate;
+        this.singleFlight = singleFlight;
+        this.timeoutMillis = timeoutMillis;
+        this.wheel = new HashedTimerWheel<>(tickMillis, 512);
+    }
+
+    /**
+     * Re-arm the sensor's timeout; bring it back if it was marked Offline
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        wheel.touch(log.getSensorId(), System.currentTimeMillis() + timeoutMillis);
+        if (OFFLINE.equalsIgnoreCase(sensor.getStatus())) {
+            changeStatus(sensor, ACTIVE);
+        }
+    }
+
+    /**
+     * Arm a new sensor right away so it goes Offline if it never reports
+     */
+    @Override
+    public void onSensorAdded(Sensor sensor) {
+        wheel.touch(sensor.getSensorId(), System.currentTimeMillis() + timeoutMillis);
+    }
+
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        wheel.cancel(sensorId);
+    }
+
+    /**
+     * Advance the wheel; only the bucket(s) for the elapsed ticks are visited
+     */
+    @Scheduled(fixedDelayString = "${energy.liveness.tick-ms:1000}")
+    public void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!seeded) {
+                seed(now);
+            }
+            wheel.advance(now, this::expire);
+        } catch (RuntimeException e) {
+            logger.warn("Liveness tick failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Arm every known sensor once at startup so meters that never report are caught too
+     */
+    private void seed(long now) {
+        for (Sensor sensor : sensorRegistry.getAll()) {
+            wheel.touch(sensor.getSensorId(), now + timeoutMillis);
+        }
+        seeded = true;
+    }
+
+    private void expire(UUID sensorId) {
+        sensorRegistry.get(sensorId).ifPresent(sensor -> {
+            if (ACTIVE.equalsIgnoreCase(sensor.getStatus())) {
+                changeStatus(sensor, OFFLINE);
+            }
+        });
+    }
+
+    /**
+     * Flip the cached status right away and write it without blocking the caller
+     * (an ingest callback or the tick); a failed write restores the cached status
+     * so the next reading or expiry tries again.
+     */
+    private void changeStatus(Sensor sensor, String status) {
+        String previous;
+        synchronized (this) {
+            // concurrent readings of a recovering sensor race here; only the first one flips it
+            Sensor current = sensorRegistry.get(sensor.getSensorId()).orElse(sensor);
+            if (status.equalsIgnoreCase(current.getStatus())) {
+                return;
+            }
+            previous = current.getStatus();
+            sensorRegistry.updateStatus(sensor.getSensorId(), status);
+        }
+        sensorRepository.updateStatusAsync(sensor.getSensorId(), status).whenComplete((done, error) -> {
+            if (error != null) {
+                logger.warn("Failed to mark sensor {} {}: {}", sensor.getSensorId(), status, error.getMessage());
+                restoreStatus(sensor.getSensorId(), status, previous);
+                singleFlight.invalidate("sensors");
+                return;
+            }
+            singleFlight.invalidate("sensors");
+            messagingTemplate.convertAndSend(TOPIC, new SensorStatusMessage(
+                sensor.getSensorId(),
+                sensor.getDistrictName(),
+                previous,
+                status,
+                Instant.now()
+            ));
+        });
+    }
+
+    private synchronized void restoreStatus(UUID sensorId, String status, String previous) {
+        sensorRegistry.get(sensorId).ifPresent(current -> {
+            if (status.equalsIgnoreCase(current.getStatus())) {
+                sensorRegistry.updateStatus(sensorId, previous);
+            }
+        });
+    }
+}
@@ -0,0 +1,197 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.SensorRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory sensor metadata cache with per-district sensor counts.
+ * Keeps the ingest path free of sensor lookups and serves total/solar/active
+ * counts in O(1); counts are adjusted on every sensor change.
+ */
+@Service
+public class SensorRegistry {
+
+    private final SensorRepository sensorRepository;
+
+    private final Map<UUID, Sensor> sensors = new ConcurrentHashMap<>();
+    private volatile Map<String, SensorCounts> districtCounts = new ConcurrentHashMap<>();
+    private volatile SensorCounts cityCounts = new SensorCounts();
+
+    public SensorRegistry(SensorRepository sensorRepository) {
+        this.sensorRepository = sensorRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Reload all sensors from Cassandra and rebuild counts
+     */
+    public synchronized void reload() {
+        Map<UUID, Sensor> fresh = new ConcurrentHashMap<>();
+        for (Sensor sensor : sensorRepository.findAll()) {
+            fresh.put(sensor.getSensorId(), sensor);
+        }
+
+        // Build counts aside and swap, so readers never observe a half-built view
+        Map<String, SensorCounts> freshDistricts = new ConcurrentHashMap<>();
+        SensorCounts freshCity = new SensorCounts();
+        for (Sensor sensor : fresh.values()) {
+            freshDistricts.computeIfAbsent(String.valueOf(sensor.getDistrictName()), k -> new SensorCounts())
+                .adjust(sensor, 1);
+            freshCity.adjust(sensor, 1);
+        }
+
+        sensors.putAll(fresh);
+        sensors.keySet().retainAll(fresh.keySet());
+        districtCounts = freshDistricts;
+        cityCounts = freshCity;
+    }
+
+    /**
+     * Get sensor by ID, loading it from Cassandra on a cache miss
+     */
+    public Optional<Sensor> get(UUID sensorId) {
+        Sensor sensor = sensors.get(sensorId);
+        if (sensor != null) {
+            return Optional.of(sensor);
+        }
+        Optional<Sensor> loaded = sensorRepository.findById(sensorId);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * All cached sensors
+     */
+    public Collection<Sensor> getAll() {
+        return sensors.values();
+    }
+
+    /**
+     * Cached sensors of a district
+     */
+    public List<Sensor> getByDistrict(String districtName) {
+        List<Sensor> result = new ArrayList<>();
+        for (Sensor sensor : sensors.values()) {
+            if (districtName.equals(sensor.getDistrictName())) {
+                result.add(sensor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Insert or replace a sensor
+     */
+    public synchronized void put(Sensor sensor) {
+        Sensor previous = sensors.put(sensor.getSensorId(), sensor);
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        adjust(sensor, 1);
+    }
+
+    /**
+     * Change the status of a cached sensor
+     */
+    public synchronized void updateStatus(UUID sensorId, String status) {
+        Sensor previous = sensors.get(sensorId);
+        if (previous == null) {
+            return;
+        }
+        Sensor updated = new Sensor(
+            previous.getSensorId(),
+            previous.getDistrictName(),
+            previous.getLatitude(),
+            previous.getLongitude(),
+            previous.getEnergySource(),
+            status,
+            previous.getCreatedAt()
+        );
+        put(updated);
+    }
+
+    /**
+     * Remove a sensor
+     */
+    public synchronized void remove(UUID sensorId) {
+        Sensor previous = sensors.remove(sensorId);
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+    }
+
+    /**
+     * Names of all districts that have at least one sensor
+     */
+    public Set<String> getDistrictNames() {
+        Set<String> names = new TreeSet<>();
+        districtCounts.forEach((name, counts) -> {
+            if (counts.getTotal() > 0) {
+                names.add(name);
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Sensor counts for a district (zeros for unknown districts)
+     */
+    public SensorCounts getDistrictCounts(String districtName) {
+        SensorCounts counts = districtCounts.get(districtName);
+        return counts != null ? counts : new SensorCounts();
+    }
+
+    /**
+     * Sensor counts for the whole city
+     */
+    public SensorCounts getCityCounts() {
+        return cityCounts;
+    }
+
+    private void adjust(Sensor sensor, int delta) {
+        SensorCounts district = districtCounts.computeIfAbsent(
+            String.valueOf(sensor.getDistrictName()), k -> new SensorCounts());
+        district.adjust(sensor, delta);
+        cityCounts.adjust(sensor, delta);
+    }
+
+    /**
+     * Total, solar and active sensor counts
+     */
+    public static class SensorCounts {
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger solar = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+
+        void adjust(Sensor sensor, int delta) {
+            total.addAndGet(delta);
+            if ("Solar".equalsIgnoreCase(sensor.getEnergySource())) {
+                solar.addAndGet(delta);
+            }
+            if ("Active".equalsIgnoreCase(sensor.getStatus())) {
+                active.addAndGet(delta);
+            }
+        }
+
+        public int getTotal() { return total.get(); }
+        public int getSolar() { return solar.get(); }
+        public int getActive() { return active.get(); }
+    }
+}
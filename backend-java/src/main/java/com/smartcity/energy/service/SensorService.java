@@ -16,10 +16,15 @@ public class SensorService {
 
     private final SensorRepository sensorRepository;
     private final EnergyLogRepository energyLogRepository;
+    private final SensorRegistry sensorRegistry;
+    private final List<EnergyReadingListener> readingListeners;
 
-    public SensorService(SensorRepository sensorRepository, EnergyLogRepository energyLogRepository) {
+    public SensorService(SensorRepository sensorRepository, EnergyLogRepository energyLogRepository,
+                         SensorRegistry sensorRegistry, List<EnergyReadingListener> readingListeners) {
         this.sensorRepository = sensorRepository;
         this.energyLogRepository = energyLogRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.readingListeners = readingListeners;
     }
 
     /**
@@ -33,6 +38,8 @@ public class SensorService {
         sensor.setEnergySource(request.getEnergySource());
         
         Sensor saved = sensorRepository.save(sensor);
+        sensorRegistry.put(saved);
+        readingListeners.forEach(listener -> listener.onSensorAdded(saved));
         return toSensorResponse(saved);
     }
 
@@ -62,11 +69,21 @@ public class SensorService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * IDs of the sensors in a district (from the in-memory registry)
+     */
+    public List<UUID> getSensorIdsByDistrict(String districtName) {
+        return sensorRegistry.getByDistrict(districtName).stream()
+            .map(Sensor::getSensorId)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Update sensor status
      */
     public void updateSensorStatus(UUID sensorId, String status) {
         sensorRepository.updateStatus(sensorId, status);
+        sensorRegistry.updateStatus(sensorId, status);
     }
 
     /**
@@ -81,6 +98,7 @@ public class SensorService {
             request.getEnergySource(),
             request.getStatus()
         );
+        sensorRepository.findById(sensorId).ifPresent(sensorRegistry::put);
         return getSensorById(sensorId).orElse(null);
     }
 
@@ -89,13 +107,15 @@ public class SensorService {
      */
     public void deleteSensor(UUID sensorId) {
         sensorRepository.deleteById(sensorId);
+        sensorRegistry.remove(sensorId);
+        readingListeners.forEach(listener -> listener.onSensorRemoved(sensorId));
     }
 
     /**
      * Check if sensor exists
      */
     public boolean sensorExists(UUID sensorId) {
-        return sensorRepository.findById(sensorId).isPresent();
+        return sensorRegistry.get(sensorId).isPresent();
     }
 
     /**
@@ -0,0 +1,168 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.CoalescingStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight request coalescing for expensive reads.
+ * Concurrent calls with the same key share one in-flight computation; the
+ * result can additionally be reused for a short TTL. Failures are never
+ * cached, and neither are results of computations that started before the
+ * last {@link #invalidate} of their group. Keys are "group:args", counters are kept per group so the
+ * coalescing ratio (requests / computations) can be observed.
+ */
+@Service
+public class SingleFlight {
+
+    private final long ttlMillis;
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(@Value("${energy.coalesce.ttl-ms:1000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Return the shared result for {@code key}, running {@code loader} only if no
+     * computation is in flight and no fresh result is cached
+     */
+    public <T> T execute(String key, Supplier<T> loader) {
+        Counters stats = counters.computeIfAbsent(group(key), k -> new Counters());
+        stats.requests.increment();
+
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight != null) {
+                if (!flight.future.isDone()) {
+                    stats.shared.increment();
+                    return join(flight);
+                }
+                if (flight.expiresAt > System.currentTimeMillis()) {
+                    stats.cached.increment();
+                    return join(flight);
+                }
+                flights.remove(key, flight);
+            }
+
+            long generation = stats.generation.get();
+            Flight mine = new Flight();
+            if (flights.putIfAbsent(key, mine) != null) {
+                continue; // lost the race, join the winner
+            }
+
+            stats.computations.increment();
+            T value;
+            try {
+                value = loader.get();
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, mine);
+                mine.future.completeExceptionally(e);
+                throw e;
+            }
+            mine.expiresAt = System.currentTimeMillis() + ttlMillis;
+            mine.future.complete(value);
+            if (ttlMillis <= 0 || stats.generation.get() != generation) {
+                flights.remove(key, mine); // may predate a write: do not cache
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Per-group counters plus a "total" row
+     */
+    public List<CoalescingStatsResponse> getStats() {
+        List<CoalescingStatsResponse> result = new ArrayList<>();
+        long requests = 0;
+        long computations = 0;
+        long shared = 0;
+        long cached = 0;
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(counters).entrySet()) {
+            Counters c = entry.getValue();
+            result.add(toResponse(entry.getKey(), c.requests.sum(), c.computations.sum(),
+                c.shared.sum(), c.cached.sum()));
+            requests += c.requests.sum();
+            computations += c.computations.sum();
+            shared += c.shared.sum();
+            cached += c.cached.sum();
+        }
+        result.add(toResponse("total", requests, computations, shared, cached));
+        return result;
+    }
+
+    /**
+     * Forget results of a group after a write. Computations still in flight finish for
+     * their current callers, but later calls start a new one and their result is not cached.
+     */
+    public void invalidate(String group) {
+        counters.computeIfAbsent(group, k -> new Counters()).generation.incrementAndGet();
+        String prefix = group + ":";
+        flights.keySet().removeIf(key -> key.equals(group) || key.startsWith(prefix));
+    }
+
+    /**
+     * Drop expired results so one-off keys (dates, districts) do not accumulate
+     */
+    @Scheduled(fixedDelayString = "${energy.coalesce.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        flights.entrySet().removeIf(e -> e.getValue().future.isDone() && e.getValue().expiresAt <= now);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T join(Flight flight) {
+        try {
+            return (T) flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static String group(String key) {
+        int colon = key.indexOf(':');
+        return colon >= 0 ? key.substring(0, colon) : key;
+    }
+
+    private static CoalescingStatsResponse toResponse(String group, long requests, long computations,
+                                                      long shared, long cached) {
+        double ratio = computations > 0 ? (double) requests / computations : 0;
+        return new CoalescingStatsResponse(group, requests, computations, shared, cached,
+            Math.round(ratio * 100) / 100.0);
+    }
+
+    /**
+     * One computation and its shared result
+     */
+    private static class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        volatile long expiresAt;
+    }
+
+    private static class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder computations = new LongAdder();
+        final LongAdder shared = new LongAdder();
+        final LongAdder cached = new LongAdder();
+        final AtomicLong generation = new AtomicLong();
+    }
+}
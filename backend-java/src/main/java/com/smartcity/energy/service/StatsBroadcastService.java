@@ -0,0 +1,174 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.DistrictStatsResponse;
+import com.smartcity.energy.dto.HourlyStatsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes city, district and hourly stats once per tick and pushes only the
+ * changed fields over STOMP, so server work no longer scales with viewers.
+ *
+ * Topics (deltas):  /topic/stats/city, /topic/stats/district/{name}, /topic/stats/hourly
+ * Snapshots:        subscribe to /app/stats/... (see StatsSubscriptionController)
+ */
+@Service
+public class StatsBroadcastService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsBroadcastService.class);
+
+    private final StatsService statsService;
+    private final SensorRegistry sensorRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ZoneId zoneId;
+
+    private volatile DistrictStatsResponse citySnapshot;
+    private final Map<String, DistrictStatsResponse> districtSnapshots = new ConcurrentHashMap<>();
+    private volatile List<HourlyStatsResponse> hourlySnapshot = List.of();
+    private volatile LocalDate hourlyDate;
+
+    public StatsBroadcastService(StatsService statsService,
+                                 SensorRegistry sensorRegistry,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 ZoneId energyZoneId) {
+        this.statsService = statsService;
+        this.sensorRegistry = sensorRegistry;
+        this.messagingTemplate = messagingTemplate;
+        this.zoneId = energyZoneId;
+    }
+
+    /**
+     * Compute stats once and publish deltas to all subscribers. Hourly stats (and city and
+     * district stats until live stats are ready) are read from Cassandra, so this runs on
+     * the bulk scheduler.
+     */
+    @Scheduled(fixedDelayString = "${energy.stats.broadcast-interval-ms:3000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void tick() {
+        try {
+            publishCity();
+            publishDistricts();
+            publishHourly();
+        } catch (RuntimeException e) {
+            logger.warn("Stats broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Latest city snapshot (computed on demand before the first tick)
+     */
+    public DistrictStatsResponse getCitySnapshot() {
+        DistrictStatsResponse snapshot = citySnapshot;
+        return snapshot != null ? snapshot : statsService.getCityStats();
+    }
+
+    /**
+     * Latest district snapshot
+     */
+    public DistrictStatsResponse getDistrictSnapshot(String districtName) {
+        DistrictStatsResponse snapshot = districtSnapshots.get(districtName);
+        return snapshot != null ? snapshot : statsService.getDistrictStats(districtName);
+    }
+
+    /**
+     * Latest hourly snapshot for today
+     */
+    public List<HourlyStatsResponse> getHourlySnapshot() {
+        LocalDate today = LocalDate.now(zoneId);
+        return today.equals(hourlyDate) ? hourlySnapshot : statsService.getHourlyStats(today, null);
+    }
+
+    private void publishCity() {
+        DistrictStatsResponse current = statsService.getCityStats();
+        Map<String, Object> delta = diff(citySnapshot, current);
+        citySnapshot = current;
+        if (!delta.isEmpty()) {
+            messagingTemplate.convertAndSend("/topic/stats/city", delta);
+        }
+    }
+
+    private void publishDistricts() {
+        for (String district : sensorRegistry.getDistrictNames()) {
+            DistrictStatsResponse current = statsService.getDistrictStats(district);
+            Map<String, Object> delta = diff(districtSnapshots.get(district), current);
+            districtSnapshots.put(district, current);
+            if (!delta.isEmpty()) {
+                delta.put("district", district);
+                messagingTemplate.convertAndSend("/topic/stats/district/" + district, delta);
+            }
+        }
+    }
+
+    private void publishHourly() {
+        LocalDate today = LocalDate.now(zoneId);
+        List<HourlyStatsResponse> current = statsService.getHourlyStats(today, null);
+        List<HourlyStatsResponse> previous = today.equals(hourlyDate) ? hourlySnapshot : List.of();
+
+        List<HourlyStatsResponse> changed = new ArrayList<>();
+        for (HourlyStatsResponse hour : current) {
+            int index = hour.getHour();
+            if (index >= previous.size() || !sameHour(previous.get(index), hour)) {
+                changed.add(hour);
+            }
+        }
+
+        boolean newDay = !today.equals(hourlyDate);
+        hourlySnapshot = current;
+        hourlyDate = today;
+        if (newDay || !changed.isEmpty()) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("date", today.toString());
+            delta.put("reset", newDay);
+            delta.put("hours", changed);
+            messagingTemplate.convertAndSend("/topic/stats/hourly", delta);
+        }
+    }
+
+    /**
+     * Fields of current that differ from previous (all fields if there is no previous)
+     */
+    private Map<String, Object> diff(DistrictStatsResponse previous, DistrictStatsResponse current) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (previous == null || !sameDecimal(previous.getTotalKwh(), current.getTotalKwh())) {
+            delta.put("totalKwh", current.getTotalKwh());
+        }
+        if (previous == null || !sameDecimal(previous.getSolarRatio(), current.getSolarRatio())) {
+            delta.put("solarRatio", current.getSolarRatio());
+        }
+        if (previous == null || previous.getTotalSensors() != current.getTotalSensors()) {
+            delta.put("totalSensors", current.getTotalSensors());
+        }
+        if (previous == null || previous.getActiveSensors() != current.getActiveSensors()) {
+            delta.put("activeSensors", current.getActiveSensors());
+        }
+        if (previous == null || !sameDecimal(previous.getAvgVoltage(), current.getAvgVoltage())) {
+            delta.put("avgVoltage", current.getAvgVoltage());
+        }
+        return delta;
+    }
+
+    private boolean sameHour(HourlyStatsResponse a, HourlyStatsResponse b) {
+        return a.getReadingCount() == b.getReadingCount()
+            && sameDecimal(a.getTotalKwh(), b.getTotalKwh())
+            && sameDecimal(a.getSolarKwh(), b.getSolarKwh())
+            && sameDecimal(a.getGridKwh(), b.getGridKwh());
+    }
+
+    private boolean sameDecimal(BigDecimal a, BigDecimal b) {
+        return Objects.equals(a, b) || (a != null && b != null && a.compareTo(b) == 0);
+    }
+}
@@ -3,18 +3,26 @@ package com.smartcity.energy.service;
 import com.smartcity.energy.dto.DistrictStatsResponse;
 import com.smartcity.energy.dto.HourlyStatsResponse;
 import com.smartcity.energy.model.DistrictProfile;
+import com.smartcity.energy.model.HourlyRollup;
 import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.model.SensorDailyAggregate;
 import com.smartcity.energy.repository.DistrictProfileRepository;
 import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.HourlyRollupRepository;
 import com.smartcity.energy.repository.SensorRepository;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class StatsService {
@@ -22,93 +30,110 @@ public class StatsService {
     private final SensorRepository sensorRepository;
     private final EnergyLogRepository energyLogRepository;
     private final DistrictProfileRepository districtProfileRepository;
+    private final HourlyRollupRepository hourlyRollupRepository;
+    private final LiveStatsService liveStatsService;
+    private final SensorRegistry sensorRegistry;
+    private final ZoneId zoneId;
 
     public StatsService(SensorRepository sensorRepository,
                         EnergyLogRepository energyLogRepository,
-                        DistrictProfileRepository districtProfileRepository) {
+                        DistrictProfileRepository districtProfileRepository,
+                        HourlyRollupRepository hourlyRollupRepository,
+                        LiveStatsService liveStatsService,
+                        SensorRegistry sensorRegistry,
+                        ZoneId energyZoneId) {
         this.sensorRepository = sensorRepository;
         this.energyLogRepository = energyLogRepository;
         this.districtProfileRepository = districtProfileRepository;
+        this.hourlyRollupRepository = hourlyRollupRepository;
+        this.liveStatsService = liveStatsService;
+        this.sensorRegistry = sensorRegistry;
+        this.zoneId = energyZoneId;
     }
 
     /**
      * Get aggregated statistics for a district
      */
     public DistrictStatsResponse getDistrictStats(String districtName) {
-        List<Sensor> sensors = sensorRepository.findByDistrict(districtName);
-        
-        if (sensors.isEmpty()) {
-            return new DistrictStatsResponse(
-                districtName,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                0, 0,
-                BigDecimal.ZERO
-            );
+        if (liveStatsService.isReady()) {
+            return liveStatsService.getDistrictStats(districtName);
         }
+        return aggregateStats(districtName, sensorRepository.findByDistrict(districtName));
+    }
 
-        LocalDate today = LocalDate.now();
-        BigDecimal totalKwh = BigDecimal.ZERO;
-        double totalVoltage = 0;
-        int voltageCount = 0;
-        int solarCount = 0;
-        int activeSensors = 0;
-
-        for (Sensor sensor : sensors) {
-            // Sum daily kWh
-            BigDecimal dailyTotal = energyLogRepository.calculateDailyTotal(sensor.getSensorId(), today);
-            totalKwh = totalKwh.add(dailyTotal);
+    /**
+     * Get city-wide statistics
+     */
+    public DistrictStatsResponse getCityStats() {
+        if (liveStatsService.isReady()) {
+            return liveStatsService.getCityStats();
+        }
+        return aggregateStats("All Districts", sensorRepository.findAll());
+    }
 
-            // Average voltage
-            double avgVoltage = energyLogRepository.calculateAverageVoltage(sensor.getSensorId(), today);
-            if (avgVoltage > 0) {
-                totalVoltage += avgVoltage;
-                voltageCount++;
+    /**
+     * City-wide statistics plus every district's, from one pass over the data:
+     * live aggregates when ready, otherwise one sensor read and one aggregate
+     * query per sensor shared by the city and its districts.
+     */
+    public Overview getOverview() {
+        if (liveStatsService.isReady()) {
+            List<DistrictStatsResponse> districts = new ArrayList<>();
+            for (String district : sensorRegistry.getDistrictNames()) {
+                districts.add(liveStatsService.getDistrictStats(district));
             }
+            return new Overview(liveStatsService.getCityStats(), districts);
+        }
 
-            // Count solar sensors
-            if ("Solar".equalsIgnoreCase(sensor.getEnergySource())) {
-                solarCount++;
-            }
+        List<Sensor> sensors = sensorRepository.findAll();
+        List<SensorDailyAggregate> aggregates = fetchAggregates(sensors);
 
-            // Count active sensors
-            if ("Active".equalsIgnoreCase(sensor.getStatus())) {
-                activeSensors++;
-            }
+        Map<String, List<Integer>> byDistrict = new TreeMap<>();
+        for (int i = 0; i < sensors.size(); i++) {
+            byDistrict.computeIfAbsent(String.valueOf(sensors.get(i).getDistrictName()), k -> new ArrayList<>()).add(i);
         }
 
-        // Calculate solar ratio
-        BigDecimal solarRatio = sensors.size() > 0 
-            ? BigDecimal.valueOf(solarCount)
-                .divide(BigDecimal.valueOf(sensors.size()), 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-            : BigDecimal.ZERO;
-
-        // Calculate average voltage
-        BigDecimal avgVoltage = voltageCount > 0 
-            ? BigDecimal.valueOf(totalVoltage / voltageCount)
-                .setScale(2, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
+        List<DistrictStatsResponse> districts = new ArrayList<>(byDistrict.size());
+        byDistrict.forEach((district, indexes) -> {
+            List<Sensor> districtSensors = new ArrayList<>(indexes.size());
+            List<SensorDailyAggregate> districtAggregates = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                districtSensors.add(sensors.get(i));
+                districtAggregates.add(aggregates.get(i));
+            }
+            districts.add(aggregateStats(district, districtSensors, districtAggregates));
+        });
 
-        return new DistrictStatsResponse(
-            districtName,
-            totalKwh.setScale(2, RoundingMode.HALF_UP),
-            solarRatio.setScale(2, RoundingMode.HALF_UP),
-            sensors.size(),
-            activeSensors,
-            avgVoltage
-        );
+        return new Overview(aggregateStats("All Districts", sensors, aggregates), districts);
     }
 
     /**
-     * Get city-wide statistics
+     * Aggregate today's statistics for a set of sensors (used until live aggregates are ready).
+     * One server-side aggregate query per sensor, issued concurrently.
      */
-    public DistrictStatsResponse getCityStats() {
-        List<Sensor> allSensors = sensorRepository.findAll();
-        
-        if (allSensors.isEmpty()) {
+    private DistrictStatsResponse aggregateStats(String label, List<Sensor> sensors) {
+        return aggregateStats(label, sensors, fetchAggregates(sensors));
+    }
+
+    private List<SensorDailyAggregate> fetchAggregates(List<Sensor> sensors) {
+        LocalDate today = LocalDate.now(zoneId);
+        List<CompletableFuture<SensorDailyAggregate>> futures = new ArrayList<>(sensors.size());
+        for (Sensor sensor : sensors) {
+            futures.add(energyLogRepository.aggregateDailyAsync(sensor.getSensorId(), today));
+        }
+
+        List<SensorDailyAggregate> aggregates = new ArrayList<>(sensors.size());
+        for (CompletableFuture<SensorDailyAggregate> future : futures) {
+            aggregates.add(future.join());
+        }
+        return aggregates;
+    }
+
+    private DistrictStatsResponse aggregateStats(String label, List<Sensor> sensors,
+                                                 List<SensorDailyAggregate> aggregates) {
+        if (sensors.isEmpty()) {
             return new DistrictStatsResponse(
-                "All Districts",
+                label,
                 BigDecimal.ZERO,
                 BigDecimal.ZERO,
                 0, 0,
@@ -116,48 +141,53 @@ public class StatsService {
             );
         }
 
-        LocalDate today = LocalDate.now();
         BigDecimal totalKwh = BigDecimal.ZERO;
         double totalVoltage = 0;
         int voltageCount = 0;
         int solarCount = 0;
         int activeSensors = 0;
 
-        for (Sensor sensor : allSensors) {
-            BigDecimal dailyTotal = energyLogRepository.calculateDailyTotal(sensor.getSensorId(), today);
-            totalKwh = totalKwh.add(dailyTotal);
+        for (int i = 0; i < sensors.size(); i++) {
+            Sensor sensor = sensors.get(i);
+            SensorDailyAggregate aggregate = aggregates.get(i);
+
+            // Sum daily kWh
+            totalKwh = totalKwh.add(aggregate.getTotalKwh());
 
-            double avgVoltage = energyLogRepository.calculateAverageVoltage(sensor.getSensorId(), today);
+            // Average voltage
+            double avgVoltage = aggregate.getAverageVoltage();
             if (avgVoltage > 0) {
                 totalVoltage += avgVoltage;
                 voltageCount++;
             }
 
+            // Count solar sensors
             if ("Solar".equalsIgnoreCase(sensor.getEnergySource())) {
                 solarCount++;
             }
 
+            // Count active sensors
             if ("Active".equalsIgnoreCase(sensor.getStatus())) {
                 activeSensors++;
             }
         }
 
-        BigDecimal solarRatio = allSensors.size() > 0 
-            ? BigDecimal.valueOf(solarCount)
-                .divide(BigDecimal.valueOf(allSensors.size()), 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-            : BigDecimal.ZERO;
+        // Calculate solar ratio
+        BigDecimal solarRatio = BigDecimal.valueOf(solarCount)
+            .divide(BigDecimal.valueOf(sensors.size()), 4, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(100));
 
+        // Calculate average voltage
         BigDecimal avgVoltage = voltageCount > 0 
             ? BigDecimal.valueOf(totalVoltage / voltageCount)
                 .setScale(2, RoundingMode.HALF_UP)
             : BigDecimal.ZERO;
 
         return new DistrictStatsResponse(
-            "All Districts",
+            label,
             totalKwh.setScale(2, RoundingMode.HALF_UP),
             solarRatio.setScale(2, RoundingMode.HALF_UP),
-            allSensors.size(),
+            sensors.size(),
             activeSensors,
             avgVoltage
         );
@@ -178,54 +208,153 @@ public class StatsService {
     }
 
     /**
-     * Get hourly aggregated statistics for a specific date
+     * Get hourly aggregated statistics for a specific date (city-wide or one district).
+     * Served from the hourly rollup tables: at most 24 x energy source rows.
      */
-    public List<HourlyStatsResponse> getHourlyStats(LocalDate date) {
-        List<Sensor> allSensors = sensorRepository.findAll();
-        List<HourlyStatsResponse> hourlyStats = new ArrayList<>();
-        
-        // Get current hour if today, otherwise 24 hours
-        int maxHour = date.equals(LocalDate.now()) 
-            ? java.time.LocalTime.now().getHour() + 1 
-            : 24;
+    public List<HourlyStatsResponse> getHourlyStats(LocalDate date, String district) {
+        List<HourlyRollup> rollups = district == null
+            ? hourlyRollupRepository.findCity(date)
+            : hourlyRollupRepository.findByDistrict(district, date);
 
+        // Dates before the rollups existed are rebuilt from raw logs
+        if (rollups.isEmpty() && date.isBefore(LocalDate.now(zoneId))) {
+            List<Sensor> sensors = district == null
+                ? sensorRepository.findAll()
+                : sensorRepository.findByDistrict(district);
+            return computeHourlyStatsFromLogs(date, sensors);
+        }
+
+        int maxHour = maxHourFor(date);
+        long[] solarMwh = new long[24];
+        long[] gridMwh = new long[24];
+        long[] readingCounts = new long[24];
+
+        for (HourlyRollup rollup : rollups) {
+            int hour = rollup.getHour();
+            if ("SOLAR".equalsIgnoreCase(rollup.getEnergySource())) {
+                solarMwh[hour] += rollup.getTotalMwh();
+            } else {
+                gridMwh[hour] += rollup.getTotalMwh();
+            }
+            readingCounts[hour] += rollup.getReadingCount();
+        }
+
+        List<HourlyStatsResponse> hourlyStats = new ArrayList<>(maxHour);
         for (int hour = 0; hour < maxHour; hour++) {
-            BigDecimal totalKwh = BigDecimal.ZERO;
-            BigDecimal solarKwh = BigDecimal.ZERO;
-            BigDecimal gridKwh = BigDecimal.ZERO;
-            int readingCount = 0;
-
-            java.time.Instant startTime = date.atTime(hour, 0).atZone(java.time.ZoneId.systemDefault()).toInstant();
-            java.time.Instant endTime = date.atTime(hour, 59, 59).atZone(java.time.ZoneId.systemDefault()).toInstant();
-
-            for (Sensor sensor : allSensors) {
-                List<com.smartcity.energy.model.EnergyLog> logs = 
-                    energyLogRepository.findByDateRange(sensor.getSensorId(), date, startTime, endTime);
-                
-                for (com.smartcity.energy.model.EnergyLog log : logs) {
-                    BigDecimal kwh = log.getKwhUsage();
-                    totalKwh = totalKwh.add(kwh);
-                    
-                    if ("Solar".equalsIgnoreCase(sensor.getEnergySource())) {
-                        solarKwh = solarKwh.add(kwh);
-                    } else {
-                        gridKwh = gridKwh.add(kwh);
+            hourlyStats.add(new HourlyStatsResponse(
+                hour,
+                String.format("%02d:00", hour),
+                toKwh(solarMwh[hour] + gridMwh[hour]),
+                toKwh(solarMwh[hour]),
+                toKwh(gridMwh[hour]),
+                (int) readingCounts[hour]
+            ));
+        }
+
+        return hourlyStats;
+    }
+
+    /**
+     * Compute hourly statistics from raw energy logs.
+     * One async partition read per sensor (all sensors in parallel); each row is
+     * bucketed into its hour of the configured zone in a single pass.
+     */
+    private List<HourlyStatsResponse> computeHourlyStatsFromLogs(LocalDate date, List<Sensor> allSensors) {
+        int maxHour = maxHourFor(date);
+
+        // hourStarts[h] = epoch millis of h:00 in the configured zone, hourStarts[24] = end of day
+        long[] hourStarts = new long[25];
+        for (int hour = 0; hour < 24; hour++) {
+            hourStarts[hour] = date.atTime(hour, 0).atZone(zoneId).toInstant().toEpochMilli();
+        }
+        hourStarts[24] = date.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+
+        List<long[]> sensorMwh = new ArrayList<>(allSensors.size());
+        List<int[]> sensorCounts = new ArrayList<>(allSensors.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(allSensors.size());
+
+        for (Sensor sensor : allSensors) {
+            long[] mwh = new long[24];
+            int[] counts = new int[24];
+            sensorMwh.add(mwh);
+            sensorCounts.add(counts);
+            futures.add(energyLogRepository.forEachReadingAsync(sensor.getSensorId(), date,
+                (recordedAt, kwhUsage, voltage) -> {
+                    int hour = hourOf(hourStarts, recordedAt);
+                    if (hour >= 0 && hour < maxHour) {
+                        mwh[hour] += kwhUsage.movePointRight(6).longValue();
+                        counts[hour]++;
                     }
-                    readingCount++;
-                }
+                }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        long[] solarMwh = new long[24];
+        long[] gridMwh = new long[24];
+        int[] readingCounts = new int[24];
+        for (int i = 0; i < allSensors.size(); i++) {
+            long[] target = "Solar".equalsIgnoreCase(allSensors.get(i).getEnergySource()) ? solarMwh : gridMwh;
+            long[] mwh = sensorMwh.get(i);
+            int[] counts = sensorCounts.get(i);
+            for (int hour = 0; hour < maxHour; hour++) {
+                target[hour] += mwh[hour];
+                readingCounts[hour] += counts[hour];
             }
+        }
 
-            String timeLabel = String.format("%02d:00", hour);
+        List<HourlyStatsResponse> hourlyStats = new ArrayList<>(maxHour);
+        for (int hour = 0; hour < maxHour; hour++) {
             hourlyStats.add(new HourlyStatsResponse(
                 hour,
-                timeLabel,
-                totalKwh.setScale(2, RoundingMode.HALF_UP),
-                solarKwh.setScale(2, RoundingMode.HALF_UP),
-                gridKwh.setScale(2, RoundingMode.HALF_UP),
-                readingCount
+                String.format("%02d:00", hour),
+                toKwh(solarMwh[hour] + gridMwh[hour]),
+                toKwh(solarMwh[hour]),
+                toKwh(gridMwh[hour]),
+                readingCounts[hour]
             ));
         }
 
         return hourlyStats;
     }
+
+    /**
+     * Hour bucket of a timestamp (binary search over hour boundaries), -1 if outside the day
+     */
+    private static int hourOf(long[] hourStarts, long epochMillis) {
+        if (epochMillis < hourStarts[0] || epochMillis >= hourStarts[24]) {
+            return -1;
+        }
+        int low = 0;
+        int high = 23;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (hourStarts[mid] <= epochMillis) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Current hour + 1 if today, otherwise 24 hours
+     */
+    private int maxHourFor(LocalDate date) {
+        return date.equals(LocalDate.now(zoneId))
+            ? LocalTime.now(zoneId).getHour() + 1
+            : 24;
+    }
+
+    /**
+     * Convert milli-Wh to kWh with 2 decimals
+     */
+    private BigDecimal toKwh(long mwh) {
+        return BigDecimal.valueOf(mwh, 6).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * City statistics together with per-district statistics
+     */
+    public record Overview(DistrictStatsResponse city, List<DistrictStatsResponse> districts) {}
 }
@@ -0,0 +1,111 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.config.SchedulingConfig;
+import com.smartcity.energy.dto.StorageMigrationResponse;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.repository.EnergyLogRepository;
+import com.smartcity.energy.repository.RetentionPolicy;
+import com.smartcity.energy.repository.StorageMode;
+import com.smartcity.energy.repository.StorageTier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background copy of energy_logs into energy_logs_compact while the repository runs
+ * in DUAL mode. Each run copies a few partitions, oldest retained date first, and
+ * records per-sensor progress so reads switch over partition by partition and a
+ * restart resumes where it stopped. A sensor is complete once today's partition
+ * has been copied: from then on dual writes keep the compact copy whole.
+ */
+@Service
+public class StorageMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageMigrationService.class);
+
+    private final EnergyLogRepository energyLogRepository;
+    private final SensorRegistry sensorRegistry;
+    private final ZoneId zoneId;
+    private final int rawRetentionDays;
+    private final int partitionsPerRun;
+
+    private final AtomicLong partitionsCopied = new AtomicLong();
+    private final AtomicLong rowsCopied = new AtomicLong();
+
+    public StorageMigrationService(EnergyLogRepository energyLogRepository,
+                                   SensorRegistry sensorRegistry,
+                                   ZoneId energyZoneId,
+                                   RetentionPolicy retentionPolicy,
+                                   @Value("${energy.storage.migration.partitions-per-run:4}") int partitionsPerRun) {
+        this.energyLogRepository = energyLogRepository;
+        this.sensorRegistry = sensorRegistry;
+        this.zoneId = energyZoneId;
+        this.rawRetentionDays = (int) TimeUnit.MILLISECONDS.toDays(retentionPolicy.retentionMillis(StorageTier.RAW));
+        this.partitionsPerRun = partitionsPerRun;
+    }
+
+    /**
+     * Copy the next few partitions (no-op unless the storage mode is DUAL)
+     */
+    @Scheduled(initialDelayString = "${energy.storage.migration.initial-delay-ms:30000}",
+               fixedDelayString = "${energy.storage.migration.interval-ms:1000}",
+               scheduler = SchedulingConfig.BULK_SCHEDULER)
+    public void migrateNext() {
+        if (energyLogRepository.getStorageMode() != StorageMode.DUAL) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now(zoneId);
+            LocalDate oldest = today.minusDays(rawRetentionDays);
+            int budget = partitionsPerRun;
+            for (Sensor sensor : sensorRegistry.getAll()) {
+                LocalDate next = energyLogRepository.getMigratedUntil(sensor.getSensorId());
+                if (next == null || next.isBefore(oldest)) {
+                    next = oldest;
+                }
+                while (budget > 0 && !next.isAfter(today)) {
+                    long rows = energyLogRepository.migratePartitionAsync(sensor.getSensorId(), next).join();
+                    energyLogRepository.markMigrated(sensor.getSensorId(), next.plusDays(1), next.equals(today));
+                    partitionsCopied.incrementAndGet();
+                    rowsCopied.addAndGet(rows);
+                    next = next.plusDays(1);
+                    budget--;
+                }
+                if (budget == 0) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Storage migration step failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Migration progress across the sensor fleet
+     */
+    public StorageMigrationResponse getStatus() {
+        int sensors = 0;
+        int migrated = 0;
+        for (Sensor sensor : sensorRegistry.getAll()) {
+            sensors++;
+            if (LocalDate.MAX.equals(energyLogRepository.getMigratedUntil(sensor.getSensorId()))) {
+                migrated++;
+            }
+        }
+        return new StorageMigrationResponse(
+            energyLogRepository.getStorageMode().name(),
+            sensors,
+            migrated,
+            partitionsCopied.get(),
+            rowsCopied.get(),
+            energyLogRepository.getMigrationRowsSkipped()
+        );
+    }
+}
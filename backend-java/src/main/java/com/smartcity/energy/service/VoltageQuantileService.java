@@ -0,0 +1,88 @@
+package com.smartcity.energy.service;
+
+import com.smartcity.energy.dto.VoltageQuantilesResponse;
+import com.smartcity.energy.model.EnergyLog;
+import com.smartcity.energy.model.Sensor;
+import com.smartcity.energy.timeseries.HourlyHistogramRing;
+import com.smartcity.energy.timeseries.VoltageHistogram;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming voltage quantiles per sensor, district and city.
+ * Each reading updates one hourly histogram per scope (3 x O(1)); queries merge
+ * at most 24 hourly histograms, independent of the number of readings or sensors.
+ */
+@Service
+public class VoltageQuantileService implements EnergyReadingListener {
+
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private final Map<UUID, HourlyHistogramRing> sensorRings = new ConcurrentHashMap<>();
+    private final Map<String, HourlyHistogramRing> districtRings = new ConcurrentHashMap<>();
+    private final HourlyHistogramRing cityRing = new HourlyHistogramRing();
+
+    /**
+     * Record the reading's voltage in its sensor, district and city histograms
+     */
+    @Override
+    public void onReading(EnergyLog log, Sensor sensor) {
+        long epochHour = log.getRecordedAt().toEpochMilli() / MILLIS_PER_HOUR;
+        int voltage = log.getVoltage();
+        sensorRings.computeIfAbsent(log.getSensorId(), k -> new HourlyHistogramRing()).add(epochHour, voltage);
+        districtRings.computeIfAbsent(String.valueOf(sensor.getDistrictName()), k -> new HourlyHistogramRing())
+            .add(epochHour, voltage);
+        cityRing.add(epochHour, voltage);
+    }
+
+    /**
+     * Voltage quantiles of one sensor over the last {@code hours} hours
+     */
+    public VoltageQuantilesResponse getSensorQuantiles(UUID sensorId, int hours) {
+        return quantiles(sensorId.toString(), sensorRings.get(sensorId), hours);
+    }
+
+    /**
+     * Voltage quantiles of a district over the last {@code hours} hours
+     */
+    public VoltageQuantilesResponse getDistrictQuantiles(String districtName, int hours) {
+        return quantiles(districtName, districtRings.get(districtName), hours);
+    }
+
+    /**
+     * City-wide voltage quantiles over the last {@code hours} hours
+     */
+    public VoltageQuantilesResponse getCityQuantiles(int hours) {
+        return quantiles("All Districts", cityRing, hours);
+    }
+
+    /**
+     * Drop a sensor's sketches (sensor deleted)
+     */
+    @Override
+    public void onSensorRemoved(UUID sensorId) {
+        sensorRings.remove(sensorId);
+    }
+
+    private VoltageQuantilesResponse quantiles(String scope, HourlyHistogramRing ring, int hours) {
+        int window = Math.max(1, Math.min(hours, HourlyHistogramRing.HOURS));
+        VoltageHistogram merged = new VoltageHistogram();
+        if (ring != null) {
+            ring.mergeInto(merged, System.currentTimeMillis() / MILLIS_PER_HOUR, window);
+        }
+        return new VoltageQuantilesResponse(
+            scope,
+            window,
+            merged.getTotal(),
+            merged.quantile(0),
+            merged.quantile(0.05),
+            merged.quantile(0.50),
+            merged.quantile(0.95),
+            merged.quantile(0.99),
+            merged.quantile(1)
+        );
+    }
+}
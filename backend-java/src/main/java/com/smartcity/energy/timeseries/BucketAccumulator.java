@@ -0,0 +1,74 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Running aggregate of the current fixed-width bucket of one series
+ * (sum in milli-Wh, count, voltage sum/min/max). {@code partial} marks a
+ * bucket that may have missed earlier readings (first bucket seen after a
+ * restart), so its owner can rebuild it from raw data instead.
+ * Not thread-safe; callers synchronize per series.
+ */
+public class BucketAccumulator {
+
+    private final long bucketMillis;
+
+    private long bucketStart = Long.MIN_VALUE;
+    private long totalMwh;
+    private long readingCount;
+    private long voltageSum;
+    private int minVoltage;
+    private int maxVoltage;
+    private boolean partial;
+
+    public BucketAccumulator(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+    }
+
+    /**
+     * Start of the bucket containing {@code timestamp}
+     */
+    public long bucketOf(long timestamp) {
+        return Math.floorDiv(timestamp, bucketMillis) * bucketMillis;
+    }
+
+    /**
+     * Start a new bucket
+     */
+    public void reset(long bucketStart, boolean partial) {
+        this.bucketStart = bucketStart;
+        this.totalMwh = 0;
+        this.readingCount = 0;
+        this.voltageSum = 0;
+        this.minVoltage = Integer.MAX_VALUE;
+        this.maxVoltage = Integer.MIN_VALUE;
+        this.partial = partial;
+    }
+
+    public void add(long mwh, int voltage) {
+        totalMwh += mwh;
+        readingCount++;
+        voltageSum += voltage;
+        minVoltage = Math.min(minVoltage, voltage);
+        maxVoltage = Math.max(maxVoltage, voltage);
+    }
+
+    public boolean isOpen() {
+        return bucketStart != Long.MIN_VALUE && readingCount > 0;
+    }
+
+    /**
+     * Forget the current bucket (after it was flushed)
+     */
+    public void close() {
+        bucketStart = Long.MIN_VALUE;
+        readingCount = 0;
+    }
+
+    public long getBucketMillis() { return bucketMillis; }
+    public long getBucketStart() { return bucketStart; }
+    public long getTotalMwh() { return totalMwh; }
+    public long getReadingCount() { return readingCount; }
+    public long getVoltageSum() { return voltageSum; }
+    public int getMinVoltage() { return minVoltage; }
+    public int getMaxVoltage() { return maxVoltage; }
+    public boolean isPartial() { return partial; }
+}
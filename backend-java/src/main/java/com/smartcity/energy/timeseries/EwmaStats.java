@@ -0,0 +1,60 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Exponentially weighted mean/variance of a metric plus an EWMA of the
+ * absolute change between consecutive samples. O(1) state and update,
+ * no history. Not thread-safe; callers synchronize per series.
+ */
+public class EwmaStats {
+
+    private final double alpha;
+
+    private double mean;
+    private double variance;
+    private double meanAbsDelta;
+    private double last;
+    private long count;
+
+    public EwmaStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Absolute z-score of x against the current estimate (before update)
+     */
+    public double zScore(double x) {
+        double std = Math.sqrt(variance);
+        return std > 1e-9 ? Math.abs(x - mean) / std : 0;
+    }
+
+    /**
+     * |x - previous sample| relative to the typical absolute change (before update)
+     */
+    public double changeScore(double x) {
+        return meanAbsDelta > 1e-9 ? Math.abs(x - last) / meanAbsDelta : 0;
+    }
+
+    /**
+     * Fold a new sample into the estimates
+     */
+    public void update(double x) {
+        if (count == 0) {
+            mean = x;
+        } else {
+            double diff = x - mean;
+            mean += alpha * diff;
+            variance = (1 - alpha) * (variance + alpha * diff * diff);
+            meanAbsDelta += alpha * (Math.abs(x - last) - meanAbsDelta);
+        }
+        last = x;
+        count++;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,149 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Cursor over a block written by {@link GorillaEncoder}.
+ * {@link #next()} advances to the following reading, whose fields are then read
+ * through {@link #timestamp()}, {@link #mwh()} and {@link #voltage()}; nothing is
+ * allocated per reading, and one decoder can be {@link #reset} onto another block.
+ * Not thread-safe.
+ */
+public class GorillaDecoder {
+
+    private byte[] data;
+    private long bitPosition;
+    private long bitLimit;
+    private int count;
+    private int index;
+
+    private long timestamp;
+    private long delta;
+    private long mwh;
+    private int voltage;
+    private int leading;
+    private int trailing;
+
+    public GorillaDecoder() {
+    }
+
+    public GorillaDecoder(byte[] block) {
+        reset(block, 0, block.length);
+    }
+
+    /**
+     * Position the cursor before the first reading of the block at {@code data[offset, offset + length)}
+     */
+    public GorillaDecoder reset(byte[] block, int offset, int length) {
+        if (length < GorillaEncoder.HEADER_BYTES || block[offset] != GorillaEncoder.VERSION) {
+            throw new IllegalArgumentException("Not a Gorilla block (version " + GorillaEncoder.VERSION + ")");
+        }
+        this.data = block;
+        this.count = ((block[offset + 1] & 0xFF) << 24) | ((block[offset + 2] & 0xFF) << 16)
+            | ((block[offset + 3] & 0xFF) << 8) | (block[offset + 4] & 0xFF);
+        this.bitPosition = (offset + (long) GorillaEncoder.HEADER_BYTES) * 8;
+        this.bitLimit = (offset + (long) length) * 8;
+        this.index = 0;
+        this.delta = 0;
+        this.leading = 0;
+        this.trailing = 0;
+        return this;
+    }
+
+    /**
+     * Number of readings in the block
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Advance to the next reading; {@code false} once all readings were read
+     */
+    public boolean next() {
+        if (index >= count) {
+            return false;
+        }
+        if (index == 0) {
+            timestamp = readBits(64);
+            mwh = readBits(64);
+            voltage = (int) readBits(32);
+        } else {
+            delta += unzigzag(readTimestamp());
+            timestamp += delta;
+            mwh ^= readValue();
+            voltage += (int) unzigzag(readVoltage());
+        }
+        index++;
+        return true;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public long mwh() {
+        return mwh;
+    }
+
+    public int voltage() {
+        return voltage;
+    }
+
+    private long readTimestamp() {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 0) {
+            return readBits(7);
+        }
+        if (readBits(1) == 0) {
+            return readBits(9);
+        }
+        if (readBits(1) == 0) {
+            return readBits(12);
+        }
+        return readBits(1) == 0 ? readBits(20) : readBits(64);
+    }
+
+    private long readValue() {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 1) {
+            leading = (int) readBits(6);
+            int length = (int) readBits(6) + 1;
+            trailing = 64 - leading - length;
+        }
+        return readBits(64 - leading - trailing) << trailing;
+    }
+
+    private long readVoltage() {
+        if (readBits(1) == 0) {
+            return 0;
+        }
+        if (readBits(1) == 0) {
+            return readBits(6);
+        }
+        return readBits(1) == 0 ? readBits(10) : readBits(33);
+    }
+
+    private long readBits(int bits) {
+        if (bitPosition + bits > bitLimit) {
+            throw new IllegalStateException("Truncated Gorilla block");
+        }
+        long value = 0;
+        while (bits > 0) {
+            int current = data[(int) (bitPosition >>> 3)] & 0xFF;
+            int available = 8 - (int) (bitPosition & 7);
+            int take = Math.min(available, bits);
+            int chunk = (current >>> (available - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            bits -= take;
+            bitPosition += take;
+        }
+        return value;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
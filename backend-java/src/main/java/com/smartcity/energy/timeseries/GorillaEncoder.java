@@ -0,0 +1,191 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compressed block of one sensor's readings.
+ * Layout: version byte, reading count (int), then a bit stream where the first
+ * reading is stored in full (64-bit timestamp, 64-bit milli-Wh, 32-bit voltage)
+ * and every later reading as
+ * <ul>
+ *   <li>timestamp: zigzag delta-of-delta in a prefix-selected width
+ *       ({@code 0} | {@code 10}+7 | {@code 110}+9 | {@code 1110}+12 | {@code 11110}+20 | {@code 11111}+64)</li>
+ *   <li>milli-Wh: XOR with the previous value ({@code 0} equal | {@code 10} same leading/trailing
+ *       zero window | {@code 11}+6-bit leading zeros+6-bit length, then the meaningful bits)</li>
+ *   <li>voltage: zigzag delta ({@code 0} | {@code 10}+6 | {@code 110}+10 | {@code 111}+33)</li>
+ * </ul>
+ * Values are XOR-ed as integers, not as double bits: milli-Wh are small integers,
+ * so the meaningful window stays narrow. Readings at a steady interval with slowly
+ * moving values cost about 4-6 bytes instead of 20 raw (or ~125 as EnergyLog objects).
+ * Reusable via {@link #reset()}; appends do not allocate unless the buffer grows.
+ * Not thread-safe.
+ */
+public class GorillaEncoder {
+
+    public static final byte VERSION = 1;
+    static final int HEADER_BYTES = 1 + Integer.BYTES;
+
+    private byte[] buffer;
+    private long bitPosition;
+    private int count;
+
+    private long previousTimestamp;
+    private long previousDelta;
+    private long previousMwh;
+    private int previousVoltage;
+    private int previousLeading = Integer.MAX_VALUE;
+    private int previousTrailing;
+
+    public GorillaEncoder() {
+        this(256);
+    }
+
+    public GorillaEncoder(int initialBytes) {
+        this.buffer = new byte[Math.max(initialBytes, HEADER_BYTES + 32)];
+        reset();
+    }
+
+    /**
+     * Start a new, empty block (keeps the buffer)
+     */
+    public void reset() {
+        Arrays.fill(buffer, 0, (int) Math.min(buffer.length, (bitPosition + 7) / 8 + 1), (byte) 0);
+        bitPosition = HEADER_BYTES * 8L;
+        count = 0;
+        previousDelta = 0;
+        previousLeading = Integer.MAX_VALUE;
+        previousTrailing = 0;
+    }
+
+    /**
+     * Append one reading
+     */
+    public void append(long timestamp, long mwh, int voltage) {
+        ensureCapacity(256);
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            writeBits(mwh, 64);
+            writeBits(voltage, 32);
+        } else {
+            long delta = timestamp - previousTimestamp;
+            writeTimestamp(zigzag(delta - previousDelta));
+            writeValue(mwh ^ previousMwh);
+            writeVoltage(zigzag((long) voltage - previousVoltage));
+            previousDelta = delta;
+        }
+        previousTimestamp = timestamp;
+        previousMwh = mwh;
+        previousVoltage = voltage;
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Encoded size of the block so far
+     */
+    public int sizeInBytes() {
+        return (int) ((bitPosition + 7) / 8);
+    }
+
+    /**
+     * Copy of the finished block
+     */
+    public byte[] toByteArray() {
+        buffer[0] = VERSION;
+        buffer[1] = (byte) (count >>> 24);
+        buffer[2] = (byte) (count >>> 16);
+        buffer[3] = (byte) (count >>> 8);
+        buffer[4] = (byte) count;
+        return Arrays.copyOf(buffer, sizeInBytes());
+    }
+
+    /**
+     * Zigzag values are unsigned: an overflowing delta-of-delta may have the top bit set
+     */
+    private void writeTimestamp(long dod) {
+        if (dod == 0) {
+            writeBits(0, 1);
+        } else if (dod >>> 7 == 0) {
+            writeBits(0b10, 2);
+            writeBits(dod, 7);
+        } else if (dod >>> 9 == 0) {
+            writeBits(0b110, 3);
+            writeBits(dod, 9);
+        } else if (dod >>> 12 == 0) {
+            writeBits(0b1110, 4);
+            writeBits(dod, 12);
+        } else if (dod >>> 20 == 0) {
+            writeBits(0b11110, 5);
+            writeBits(dod, 20);
+        } else {
+            writeBits(0b11111, 5);
+            writeBits(dod, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Long.numberOfLeadingZeros(xor);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= previousLeading && trailing >= previousTrailing) {
+            // Fits the previous window: only the meaningful bits
+            writeBits(0b10, 2);
+            writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            return;
+        }
+        int length = 64 - leading - trailing;
+        writeBits(0b11, 2);
+        writeBits(leading, 6);
+        writeBits(length - 1, 6); // 1..64 stored as 0..63
+        writeBits(xor >>> trailing, length);
+        previousLeading = leading;
+        previousTrailing = trailing;
+    }
+
+    private void writeVoltage(long delta) {
+        if (delta == 0) {
+            writeBits(0, 1);
+        } else if (delta < (1L << 6)) {
+            writeBits(0b10, 2);
+            writeBits(delta, 6);
+        } else if (delta < (1L << 10)) {
+            writeBits(0b110, 3);
+            writeBits(delta, 10);
+        } else {
+            writeBits(0b111, 3);
+            writeBits(delta, 33); // zigzag of an int difference needs 33 bits
+        }
+    }
+
+    /**
+     * Write the low {@code bits} bits of {@code value}, most significant first
+     */
+    private void writeBits(long value, int bits) {
+        while (bits > 0) {
+            int byteIndex = (int) (bitPosition >>> 3);
+            int free = 8 - (int) (bitPosition & 7);
+            int take = Math.min(free, bits);
+            int chunk = (int) (value >>> (bits - take)) & ((1 << take) - 1);
+            buffer[byteIndex] |= (byte) (chunk << (free - take));
+            bits -= take;
+            bitPosition += take;
+        }
+    }
+
+    private void ensureCapacity(int extraBits) {
+        long neededBytes = (bitPosition + extraBits + 7) / 8;
+        if (neededBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(neededBytes, buffer.length * 2L));
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
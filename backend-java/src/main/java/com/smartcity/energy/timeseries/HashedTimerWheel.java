@@ -0,0 +1,142 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel with lazy re-arming for per-key timeouts.
+ * {@link #touch} only moves the key's deadline forward (O(1), no bucket move);
+ * when the wheel reaches the bucket holding a timer whose deadline was pushed
+ * back, the timer is re-hashed to its new bucket instead of expiring. Each
+ * tick visits one bucket, so there is never a scan over all keys.
+ */
+public class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Timer<K>>[] buckets;
+    private final Map<K, Timer<K>> timers = new ConcurrentHashMap<>();
+
+    private volatile long nextTick = -1;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int wheelSize) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = (ArrayDeque<Timer<K>>[]) new ArrayDeque<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Arm or re-arm the key's timeout. Returns true when the key had no pending
+     * timer (first sighting or already expired).
+     */
+    public boolean touch(K key, long deadline) {
+        Timer<K> timer = timers.computeIfAbsent(key, Timer::new);
+        boolean armed;
+        synchronized (timer) {
+            timer.deadline = deadline;
+            armed = !timer.scheduled;
+            timer.scheduled = true;
+            timer.cancelled = false;
+        }
+        if (armed) {
+            place(timer, deadline);
+        }
+        return armed;
+    }
+
+    /**
+     * Forget the key; a pending timer is dropped when its bucket comes up
+     */
+    public void cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer != null) {
+            synchronized (timer) {
+                timer.cancelled = true;
+            }
+        }
+    }
+
+    /**
+     * Process every tick up to {@code now}, calling {@code onExpire} for each timed-out key
+     */
+    public void advance(long now, Consumer<K> onExpire) {
+        long target = Math.floorDiv(now, tickMillis);
+        synchronized (this) {
+            if (nextTick < 0) {
+                nextTick = target;
+            }
+            // after a long pause one full rotation covers every bucket
+            long from = Math.max(nextTick, target - mask);
+            nextTick = target + 1;
+            for (long tick = from; tick <= target; tick++) {
+                expireBucket((int) (tick & mask), now, onExpire);
+            }
+        }
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    private void expireBucket(int index, long now, Consumer<K> onExpire) {
+        ArrayDeque<Timer<K>> due;
+        synchronized (buckets[index]) {
+            if (buckets[index].isEmpty()) {
+                return;
+            }
+            due = new ArrayDeque<>(buckets[index]);
+            buckets[index].clear();
+        }
+
+        for (Timer<K> timer : due) {
+            boolean expired = false;
+            long deadline;
+            synchronized (timer) {
+                if (timer.cancelled) {
+                    timer.scheduled = false;
+                    continue;
+                }
+                deadline = timer.deadline;
+                if (deadline <= now) {
+                    timer.scheduled = false;
+                    expired = true;
+                }
+            }
+            if (expired) {
+                onExpire.accept(timer.key);
+            } else {
+                place(timer, deadline);
+            }
+        }
+    }
+
+    private void place(Timer<K> timer, long deadline) {
+        // never hash into a bucket this rotation has already passed
+        long tick = Math.max(Math.floorDiv(deadline, tickMillis), nextTick);
+        int index = (int) (tick & mask);
+        synchronized (buckets[index]) {
+            buckets[index].add(timer);
+        }
+    }
+
+    /**
+     * Pending timeout of one key
+     */
+    private static class Timer<K> {
+        final K key;
+        long deadline;
+        boolean scheduled;
+        boolean cancelled;
+
+        Timer(K key) {
+            this.key = key;
+        }
+    }
+}
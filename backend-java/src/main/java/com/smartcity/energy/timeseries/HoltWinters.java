@@ -0,0 +1,87 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) with a fixed season
+ * length. The first full season bootstraps level and seasonal offsets; after
+ * that every observation is an O(1) update and forecasts are O(1) per step.
+ * Not thread-safe; callers synchronize per model.
+ */
+public class HoltWinters {
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[] season;
+
+    private double level;
+    private double trend;
+    private long observations;
+
+    public HoltWinters(double alpha, double beta, double gamma, int period) {
+        this(alpha, beta, gamma, new double[period], 0, 0, 0);
+    }
+
+    /**
+     * Restore a model from persisted state
+     */
+    public HoltWinters(double alpha, double beta, double gamma,
+                       double[] season, double level, double trend, long observations) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.season = season.clone();
+        this.level = level;
+        this.trend = trend;
+        this.observations = observations;
+    }
+
+    /**
+     * Fold the observation for seasonal slot {@code slot} (e.g. hour of day)
+     */
+    public void update(int slot, double value) {
+        int period = season.length;
+        if (observations < period) {
+            // bootstrap: remember raw values, then centre them on the first season's mean
+            season[slot] = value;
+            level += value;
+            if (++observations == period) {
+                level /= period;
+                for (int i = 0; i < period; i++) {
+                    season[i] -= level;
+                }
+                trend = 0;
+            }
+            return;
+        }
+
+        double previousLevel = level;
+        level = alpha * (value - season[slot]) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        season[slot] = gamma * (value - level) + (1 - gamma) * season[slot];
+        observations++;
+    }
+
+    /**
+     * Forecast {@code steps} observations ahead for seasonal slot {@code slot}, never negative.
+     * Before the first season completes this is the last value seen in that slot.
+     */
+    public double forecast(int slot, int steps) {
+        double value = isReady()
+            ? level + steps * trend + season[slot]
+            : season[slot];
+        return Math.max(0, value);
+    }
+
+    /**
+     * True once a full season has been observed
+     */
+    public boolean isReady() {
+        return observations >= season.length;
+    }
+
+    public int getPeriod() { return season.length; }
+    public double getLevel() { return level; }
+    public double getTrend() { return trend; }
+    public double[] getSeason() { return season.clone(); }
+    public long getObservations() { return observations; }
+}
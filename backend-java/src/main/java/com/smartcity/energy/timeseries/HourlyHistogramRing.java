@@ -0,0 +1,49 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Ring of 24 hourly voltage histograms keyed by absolute epoch hour.
+ * Slots are recycled when a new hour lands on them, so the ring always
+ * covers the last 24 hours in constant memory.
+ */
+public class HourlyHistogramRing {
+
+    public static final int HOURS = 24;
+
+    private final long[] slotHours = new long[HOURS];
+    private final VoltageHistogram[] slots = new VoltageHistogram[HOURS];
+
+    public HourlyHistogramRing() {
+        Arrays.fill(slotHours, -1);
+    }
+
+    /**
+     * Record a voltage for the given epoch hour
+     */
+    public synchronized void add(long epochHour, int voltage) {
+        int index = (int) (epochHour % HOURS);
+        if (slotHours[index] != epochHour) {
+            if (slots[index] == null) {
+                slots[index] = new VoltageHistogram();
+            } else {
+                slots[index].clear();
+            }
+            slotHours[index] = epochHour;
+        }
+        slots[index].add(voltage);
+    }
+
+    /**
+     * Merge the hours in (currentEpochHour - hours, currentEpochHour] into target
+     */
+    public synchronized void mergeInto(VoltageHistogram target, long currentEpochHour, int hours) {
+        long oldest = currentEpochHour - Math.min(hours, HOURS) + 1;
+        for (int i = 0; i < HOURS; i++) {
+            long hour = slotHours[i];
+            if (hour >= oldest && hour <= currentEpochHour) {
+                target.merge(slots[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.smartcity.energy.timeseries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Append-only readings of one sensor in off-heap column chunks.
+ * Each chunk is a single direct buffer laid out as three columns (timestamps,
+ * milli-Wh, voltage) with a min/max timestamp zone map, so range scans skip
+ * whole chunks and the heap only holds a few objects per chunk. Chunk capacity
+ * doubles from {@link #FIRST_CHUNK_ROWS} up to {@link #MAX_CHUNK_ROWS} so quiet
+ * sensors stay small.
+ *
+ * One writer at a time (appends are synchronized); readers are lock-free: a
+ * chunk's row count is published after its cells, and the chunk array is
+ * replaced, never modified, when chunks are added or dropped.
+ */
+public class OffHeapSeries {
+
+    static final int FIRST_CHUNK_ROWS = 256;
+    static final int MAX_CHUNK_ROWS = 8192;
+    private static final int ROW_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    /**
+     * Row callback; return {@code false} to stop the scan
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(long timestamp, long mwh, int voltage);
+    }
+
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile boolean ordered = true;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Append one reading
+     */
+    public synchronized void append(long timestamp, long mwh, int voltage) {
+        Chunk[] current = chunks;
+        Chunk tail = current.length > 0 ? current[current.length - 1] : null;
+        if (tail == null || tail.size == tail.capacity) {
+            int capacity = tail == null ? FIRST_CHUNK_ROWS : Math.min(MAX_CHUNK_ROWS, tail.capacity * 2);
+            tail = new Chunk(capacity);
+            Chunk[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = tail;
+            chunks = grown;
+        }
+        tail.append(timestamp, mwh, voltage);
+        if (timestamp < lastTimestamp) {
+            ordered = false;
+        }
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+    }
+
+    /**
+     * Visit readings with {@code from <= timestamp < to}, most recently appended first
+     * (newest first when appends arrived in time order, see {@link #isOrdered()})
+     */
+    public void scan(long from, long to, Visitor visitor) {
+        Chunk[] current = chunks;
+        for (int c = current.length - 1; c >= 0; c--) {
+            Chunk chunk = current[c];
+            int size = chunk.size;
+            if (size == 0 || chunk.maxTimestamp < from || chunk.minTimestamp >= to) {
+                continue;
+            }
+            for (int row = size - 1; row >= 0; row--) {
+                long timestamp = chunk.timestamp(row);
+                if (timestamp >= from && timestamp < to
+                        && !visitor.visit(timestamp, chunk.mwh(row), chunk.voltage(row))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit the newest reading in [from, to); returns {@code false} when there is none
+     */
+    public boolean latest(long from, long to, Visitor visitor) {
+        Chunk[] current = chunks;
+        long best = Long.MIN_VALUE;
+        Chunk bestChunk = null;
+        int bestRow = -1;
+        for (int c = current.length - 1; c >= 0; c--) {
+            Chunk chunk = current[c];
+            int size = chunk.size;
+            if (size == 0 || chunk.maxTimestamp < from || chunk.minTimestamp >= to
+                    || chunk.maxTimestamp <= best) {
+                continue;
+            }
+            for (int row = size - 1; row >= 0; row--) {
+                long timestamp = chunk.timestamp(row);
+                if (timestamp >= from && timestamp < to && timestamp > best) {
+                    best = timestamp;
+                    bestChunk = chunk;
+                    bestRow = row;
+                }
+            }
+            if (ordered && bestChunk != null) {
+                break; // later chunks only hold newer readings
+            }
+        }
+        if (bestChunk == null) {
+            return false;
+        }
+        visitor.visit(best, bestChunk.mwh(bestRow), bestChunk.voltage(bestRow));
+        return true;
+    }
+
+    /**
+     * Release leading chunks whose readings are all older than {@code timestamp}
+     */
+    public synchronized void dropBefore(long timestamp) {
+        Chunk[] current = chunks;
+        int drop = 0;
+        // The tail chunk is kept even when expired: appends continue into it
+        while (drop < current.length - 1 && current[drop].maxTimestamp < timestamp) {
+            drop++;
+        }
+        if (drop > 0) {
+            chunks = Arrays.copyOfRange(current, drop, current.length);
+        }
+    }
+
+    /**
+     * True while every append carried a timestamp no older than the previous one
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Off-heap bytes reserved by this series
+     */
+    public long reservedBytes() {
+        long bytes = 0;
+        for (Chunk chunk : chunks) {
+            bytes += (long) chunk.capacity * ROW_BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Number of stored readings
+     */
+    public long size() {
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.size;
+        }
+        return rows;
+    }
+
+    /**
+     * Fixed-capacity column block: [timestamps | milli-Wh | voltages]
+     */
+    private static final class Chunk {
+        final int capacity;
+        final ByteBuffer buffer;
+        final int mwhOffset;
+        final int voltageOffset;
+        volatile long minTimestamp = Long.MAX_VALUE;
+        volatile long maxTimestamp = Long.MIN_VALUE;
+        volatile int size;
+
+        Chunk(int capacity) {
+            this.capacity = capacity;
+            this.buffer = ByteBuffer.allocateDirect(capacity * ROW_BYTES).order(ByteOrder.nativeOrder());
+            this.mwhOffset = capacity * Long.BYTES;
+            this.voltageOffset = 2 * capacity * Long.BYTES;
+        }
+
+        void append(long timestamp, long mwh, int voltage) {
+            int row = size;
+            buffer.putLong(row * Long.BYTES, timestamp);
+            buffer.putLong(mwhOffset + row * Long.BYTES, mwh);
+            buffer.putInt(voltageOffset + row * Integer.BYTES, voltage);
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            size = row + 1; // publishes the cells above to lock-free readers
+        }
+
+        long timestamp(int row) {
+            return buffer.getLong(row * Long.BYTES);
+        }
+
+        long mwh(int row) {
+            return buffer.getLong(mwhOffset + row * Long.BYTES);
+        }
+
+        int voltage(int row) {
+            return buffer.getInt(voltageOffset + row * Integer.BYTES);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Ring of fixed-width panes holding partial aggregates (count, sum, min, max).
+ * Any tumbling or sliding window whose size and slide are multiples of the
+ * pane width is answered by combining its panes, so several windows over the
+ * same stream share one ring. Panes are recycled by id, no eviction pass.
+ */
+public class PaneAggregator {
+
+    private final long paneMillis;
+
+    private long[] paneIds;
+    private long[] counts;
+    private double[] sums;
+    private double[] mins;
+    private double[] maxs;
+
+    public PaneAggregator(long paneMillis, int panes) {
+        this.paneMillis = paneMillis;
+        allocate(panes);
+    }
+
+    public synchronized void add(long timestamp, double value) {
+        long pane = Math.floorDiv(timestamp, paneMillis);
+        int i = (int) Math.floorMod(pane, (long) paneIds.length);
+        if (paneIds[i] != pane) {
+            if (pane < paneIds[i]) {
+                return; // older than anything the ring still holds
+            }
+            paneIds[i] = pane;
+            counts[i] = 0;
+            sums[i] = 0;
+            mins[i] = Double.POSITIVE_INFINITY;
+            maxs[i] = Double.NEGATIVE_INFINITY;
+        }
+        counts[i]++;
+        sums[i] += value;
+        mins[i] = Math.min(mins[i], value);
+        maxs[i] = Math.max(maxs[i], value);
+    }
+
+    /**
+     * Combine panes covering [fromMillis, toMillis) into {@code out} = {count, sum, min, max}
+     */
+    public synchronized void aggregate(long fromMillis, long toMillis, double[] out) {
+        out[0] = 0;
+        out[1] = 0;
+        out[2] = Double.POSITIVE_INFINITY;
+        out[3] = Double.NEGATIVE_INFINITY;
+        long toPane = Math.floorDiv(toMillis, paneMillis);
+        for (long pane = Math.floorDiv(fromMillis, paneMillis); pane < toPane; pane++) {
+            int i = (int) Math.floorMod(pane, (long) paneIds.length);
+            if (paneIds[i] == pane) {
+                out[0] += counts[i];
+                out[1] += sums[i];
+                out[2] = Math.min(out[2], mins[i]);
+                out[3] = Math.max(out[3], maxs[i]);
+            }
+        }
+    }
+
+    /**
+     * Grow the ring so it retains at least {@code panes} panes, keeping live panes
+     */
+    public synchronized void ensureCapacity(int panes) {
+        if (panes <= paneIds.length) {
+            return;
+        }
+        long[] oldIds = paneIds;
+        long[] oldCounts = counts;
+        double[] oldSums = sums;
+        double[] oldMins = mins;
+        double[] oldMaxs = maxs;
+        allocate(panes);
+        for (int j = 0; j < oldIds.length; j++) {
+            if (oldIds[j] == Long.MIN_VALUE) {
+                continue;
+            }
+            int i = (int) Math.floorMod(oldIds[j], (long) panes);
+            if (oldIds[j] > paneIds[i]) {
+                paneIds[i] = oldIds[j];
+                counts[i] = oldCounts[j];
+                sums[i] = oldSums[j];
+                mins[i] = oldMins[j];
+                maxs[i] = oldMaxs[j];
+            }
+        }
+    }
+
+    public long getPaneMillis() {
+        return paneMillis;
+    }
+
+    public synchronized int capacity() {
+        return paneIds.length;
+    }
+
+    private void allocate(int panes) {
+        paneIds = new long[panes];
+        Arrays.fill(paneIds, Long.MIN_VALUE);
+        counts = new long[panes];
+        sums = new double[panes];
+        mins = new double[panes];
+        maxs = new double[panes];
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Power-quality counters of one hour: event count and total duration per
+ * event type (see {@link VoltageEventDetector}). Two small primitive arrays,
+ * no boxing. Not thread-safe; callers synchronize per series.
+ */
+public class PowerQualityBucket {
+
+    private final long epochHour;
+    private final int[] counts = new int[VoltageEventDetector.EVENT_TYPES.length];
+    private final long[] durationMillis = new long[VoltageEventDetector.EVENT_TYPES.length];
+
+    public PowerQualityBucket(long epochHour) {
+        this.epochHour = epochHour;
+    }
+
+    public void addEvent(int type) {
+        counts[type]++;
+    }
+
+    public void addDuration(int type, long millis) {
+        durationMillis[type] += millis;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0 || durationMillis[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getEpochHour() { return epochHour; }
+    public int getCount(int type) { return counts[type]; }
+    public long getDurationMillis(int type) { return durationMillis[type]; }
+}
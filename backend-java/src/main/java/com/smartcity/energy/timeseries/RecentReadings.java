@@ -0,0 +1,209 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Recent readings of one sensor in primitive ring buffers (timestamps, kWh as
+ * unscaled value and scale, voltage), kept sorted by timestamp. Keeping the scale
+ * lets the owner rebuild the exact decimal that was stored. {@code coveredFrom} is the earliest time
+ * from which the ring is known to hold every reading; it starts at "nothing
+ * covered", is set by {@link #merge} once history has been loaded, and moves
+ * forward whenever the oldest entries are evicted. Late readings older than the
+ * covered window are not stored. Capacity grows by doubling up to a limit the
+ * owner decides per call, so memory follows the sensor's actual rate.
+ * All methods are synchronized; scans are short array walks.
+ */
+public class RecentReadings {
+
+    public static final int BYTES_PER_READING = Long.BYTES + Long.BYTES + Byte.BYTES + Integer.BYTES;
+
+    /**
+     * Row callback; return {@code false} to stop the scan
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(long timestamp, long unscaled, int scale, int voltage);
+    }
+
+    private long[] timestamps;
+    private long[] unscaled;
+    private byte[] scales;
+    private int[] voltages;
+    private int head;       // index of the oldest entry
+    private int size;
+    private long coveredFrom = Long.MAX_VALUE;
+
+    public RecentReadings(int initialCapacity) {
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Add a live reading. When full, the ring grows if {@code maxCapacity} allows,
+     * otherwise the oldest entry is evicted. Returns the capacity delta (0 or the growth).
+     */
+    public synchronized int add(long timestamp, long value, byte scale, int voltage, int maxCapacity) {
+        if (timestamp < coveredFrom && coveredFrom != Long.MAX_VALUE) {
+            return 0; // older than the window the ring vouches for
+        }
+        int grown = 0;
+        if (size == timestamps.length) {
+            if (timestamps.length < maxCapacity) {
+                grown = resize(Math.min(maxCapacity, timestamps.length * 2));
+            } else {
+                evictOldest();
+            }
+        }
+        insertSorted(timestamp, value, scale, voltage);
+        return grown;
+    }
+
+    /**
+     * Merge loaded history (ascending by timestamp) and mark everything from {@code from}
+     * as covered. Entries already present with the same timestamp are kept once.
+     */
+    public synchronized int merge(long[] loadedTimestamps, long[] loadedValues, byte[] loadedScales,
+                                  int[] loadedVoltages, int count, long from, int maxCapacity) {
+        int grown = 0;
+        if (size + count > timestamps.length && timestamps.length < maxCapacity) {
+            grown = resize(Math.min(maxCapacity, Integer.highestOneBit(Math.max(1, size + count - 1)) << 1));
+        }
+        coveredFrom = Long.MIN_VALUE; // accept the loaded rows; narrowed below
+        for (int i = 0; i < count; i++) {
+            if (indexOf(loadedTimestamps[i]) < 0) {
+                if (size == timestamps.length) {
+                    if (loadedTimestamps[i] < timestamps[head]) {
+                        coveredFrom = Math.max(coveredFrom, loadedTimestamps[i] + 1);
+                        continue; // would be evicted right away
+                    }
+                    evictOldest();
+                }
+                insertSorted(loadedTimestamps[i], loadedValues[i], loadedScales[i], loadedVoltages[i]);
+            }
+        }
+        coveredFrom = Math.max(coveredFrom, from);
+        return grown;
+    }
+
+    /**
+     * Drop entries older than {@code timestamp}; returns true when the ring is empty afterwards
+     */
+    public synchronized boolean evictBefore(long timestamp) {
+        while (size > 0 && timestamps[head] < timestamp) {
+            evictOldest();
+        }
+        if (coveredFrom != Long.MAX_VALUE) {
+            coveredFrom = Math.max(coveredFrom, timestamp);
+        }
+        return size == 0;
+    }
+
+    /**
+     * Mark everything from {@code from} as covered (a new sensor, or one with no readings
+     * inside the window, has nothing older to load)
+     */
+    public synchronized void markCovered(long from) {
+        coveredFrom = Math.min(coveredFrom, from);
+    }
+
+    /**
+     * Visit readings with {@code from <= timestamp < to}, newest first. Returns {@code false}
+     * without visiting anything when readings from {@code from} on are not all in the ring.
+     */
+    public synchronized boolean scan(long from, long to, Visitor visitor) {
+        if (coveredFrom > from) {
+            return false;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            int index = slot(i);
+            long timestamp = timestamps[index];
+            if (timestamp < from) {
+                break;
+            }
+            if (timestamp < to && !visitor.visit(timestamp, unscaled[index], scales[index], voltages[index])) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    public synchronized int capacity() {
+        return timestamps.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void insertSorted(long timestamp, long value, byte scale, int voltage) {
+        // Readings almost always arrive in order: walk back from the tail
+        int position = size;
+        while (position > 0 && timestamps[slot(position - 1)] > timestamp) {
+            int from = slot(position - 1);
+            int to = slot(position);
+            timestamps[to] = timestamps[from];
+            unscaled[to] = unscaled[from];
+            scales[to] = scales[from];
+            voltages[to] = voltages[from];
+            position--;
+        }
+        int index = slot(position);
+        timestamps[index] = timestamp;
+        unscaled[index] = value;
+        scales[index] = scale;
+        voltages[index] = voltage;
+        size++;
+    }
+
+    private void evictOldest() {
+        if (coveredFrom != Long.MAX_VALUE) {
+            coveredFrom = Math.max(coveredFrom, timestamps[head] + 1);
+        }
+        head = (head + 1) % timestamps.length;
+        size--;
+    }
+
+    private int indexOf(long timestamp) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = timestamps[slot(mid)];
+            if (value < timestamp) {
+                low = mid + 1;
+            } else if (value > timestamp) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int slot(int offset) {
+        return (head + offset) % timestamps.length;
+    }
+
+    private int resize(int capacity) {
+        long[] oldTimestamps = timestamps;
+        long[] oldUnscaled = unscaled;
+        byte[] oldScales = scales;
+        int[] oldVoltages = voltages;
+        int oldHead = head;
+        int oldCapacity = oldTimestamps.length;
+        allocate(capacity);
+        for (int i = 0; i < size; i++) {
+            int from = (oldHead + i) % oldCapacity;
+            timestamps[i] = oldTimestamps[from];
+            unscaled[i] = oldUnscaled[from];
+            scales[i] = oldScales[from];
+            voltages[i] = oldVoltages[from];
+        }
+        head = 0;
+        return capacity - oldCapacity;
+    }
+
+    private void allocate(int capacity) {
+        timestamps = new long[capacity];
+        unscaled = new long[capacity];
+        scales = new byte[capacity];
+        voltages = new int[capacity];
+    }
+}
@@ -0,0 +1,90 @@
+package com.smartcity.energy.timeseries;
+
+
+/**
+ * Ring buffer of recent (timestamp, milli-Wh) samples of one sensor with
+ * running sums over several trailing windows. Each add evicts expired
+ * samples per window with a moving head, so updates are amortized O(1).
+ * Not thread-safe; callers synchronize per sensor.
+ */
+public class SampleRing {
+
+    private final long[] windowsMillis;
+    private final long[] windowSums;
+    private final long[] windowHeads;   // absolute sample index of the oldest sample inside each window
+
+    private long[] timestamps;
+    private long[] values;
+    private long next;                  // absolute index of the next sample
+
+    public SampleRing(long[] windowsMillis, int initialCapacity) {
+        this.windowsMillis = windowsMillis.clone();
+        this.windowSums = new long[windowsMillis.length];
+        this.windowHeads = new long[windowsMillis.length];
+        this.timestamps = new long[initialCapacity];
+        this.values = new long[initialCapacity];
+    }
+
+    /**
+     * Append a sample and slide all windows
+     */
+    public void add(long timestamp, long value) {
+        ensureCapacity();
+        int slot = (int) (next % timestamps.length);
+        timestamps[slot] = timestamp;
+        values[slot] = value;
+        next++;
+        for (int w = 0; w < windowSums.length; w++) {
+            windowSums[w] += value;
+        }
+        evict(timestamp);
+    }
+
+    /**
+     * Sum of the samples in window w that are newer than now - window
+     */
+    public long windowSum(int w, long now) {
+        evict(now);
+        return windowSums[w];
+    }
+
+    private void evict(long now) {
+        for (int w = 0; w < windowSums.length; w++) {
+            long cutoff = now - windowsMillis[w];
+            while (windowHeads[w] < next) {
+                int slot = (int) (windowHeads[w] % timestamps.length);
+                if (timestamps[slot] > cutoff) {
+                    break;
+                }
+                windowSums[w] -= values[slot];
+                windowHeads[w]++;
+            }
+        }
+    }
+
+    /**
+     * Grow when the widest window still needs the slot about to be overwritten
+     */
+    private void ensureCapacity() {
+        long oldestNeeded = next;
+        for (long head : windowHeads) {
+            oldestNeeded = Math.min(oldestNeeded, head);
+        }
+        if (next - oldestNeeded < timestamps.length) {
+            return;
+        }
+        int capacity = timestamps.length;
+        long[] grownTs = new long[capacity * 2];
+        long[] grownValues = new long[capacity * 2];
+        for (long i = oldestNeeded; i < next; i++) {
+            grownTs[(int) (i % grownTs.length)] = timestamps[(int) (i % capacity)];
+            grownValues[(int) (i % grownValues.length)] = values[(int) (i % capacity)];
+        }
+        timestamps = grownTs;
+        values = grownValues;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+}
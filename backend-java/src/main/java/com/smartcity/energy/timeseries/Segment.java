@@ -0,0 +1,190 @@
+package com.smartcity.energy.timeseries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Read-only view of a segment file written by {@link SegmentWriter}.
+ * The file is memory-mapped; only the partition and block columns are copied to
+ * the heap when it is opened, readings are decoded from the mapping on demand.
+ * Partitions are addressed by the index returned from {@link #indexOf(UUID)}.
+ * Thread-safe: every scan decodes with its own cursor.
+ */
+public class Segment {
+
+    /**
+     * Row callback; return {@code false} to stop the scan
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        boolean visit(long timestamp, long mwh, int voltage);
+    }
+
+    private final MappedByteBuffer data;
+    private final int maxBlockLength;
+
+    private final long[] sensorMsb;
+    private final long[] sensorLsb;
+    private final int[] firstBlock;
+    private final int[] blockCount;
+    private final long[] totalMwh;
+    private final long[] readingCount;
+    private final long[] voltageSum;
+    private final int[] minVoltage;
+    private final int[] maxVoltage;
+
+    private final long[] blockOffset;
+    private final int[] blockLength;
+    private final long[] blockMin;
+    private final long[] blockMax;
+
+    private Segment(MappedByteBuffer data) {
+        this.data = data;
+        int size = data.capacity();
+        if (size < SegmentWriter.FOOTER_BYTES
+                || data.getInt(size - 2 * Integer.BYTES) != SegmentWriter.MAGIC
+                || data.getInt(size - Integer.BYTES) != SegmentWriter.VERSION) {
+            throw new IllegalArgumentException("Not a segment file (version " + SegmentWriter.VERSION + ")");
+        }
+        ByteBuffer columns = data.duplicate();
+        columns.position((int) data.getLong(size - SegmentWriter.FOOTER_BYTES));
+
+        int partitions = columns.getInt();
+        sensorMsb = longs(columns, partitions);
+        sensorLsb = longs(columns, partitions);
+        firstBlock = ints(columns, partitions);
+        blockCount = ints(columns, partitions);
+        totalMwh = longs(columns, partitions);
+        readingCount = longs(columns, partitions);
+        voltageSum = longs(columns, partitions);
+        minVoltage = ints(columns, partitions);
+        maxVoltage = ints(columns, partitions);
+
+        int blocks = columns.getInt();
+        blockOffset = longs(columns, blocks);
+        blockLength = ints(columns, blocks);
+        blockMin = longs(columns, blocks);
+        blockMax = longs(columns, blocks);
+
+        int longest = 0;
+        for (int length : blockLength) {
+            longest = Math.max(longest, length);
+        }
+        maxBlockLength = longest;
+    }
+
+    /**
+     * Map a finished segment file
+     */
+    public static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Partition index of the sensor, or -1 when the segment has no readings of it
+     */
+    public int indexOf(UUID sensorId) {
+        long msb = sensorId.getMostSignificantBits();
+        long lsb = sensorId.getLeastSignificantBits();
+        int low = 0;
+        int high = sensorMsb.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = Long.compare(sensorMsb[mid], msb);
+            if (order == 0) {
+                order = Long.compare(sensorLsb[mid], lsb);
+            }
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int partitionCount() {
+        return sensorMsb.length;
+    }
+
+    public UUID sensorId(int partition) {
+        return new UUID(sensorMsb[partition], sensorLsb[partition]);
+    }
+
+    public long totalMwh(int partition) {
+        return totalMwh[partition];
+    }
+
+    public long readingCount(int partition) {
+        return readingCount[partition];
+    }
+
+    public long voltageSum(int partition) {
+        return voltageSum[partition];
+    }
+
+    public int minVoltage(int partition) {
+        return minVoltage[partition];
+    }
+
+    public int maxVoltage(int partition) {
+        return maxVoltage[partition];
+    }
+
+    /**
+     * Visit the partition's readings with {@code from <= timestamp < to} in stored order,
+     * decoding only blocks whose timestamp range overlaps the request
+     */
+    public void scan(int partition, long from, long to, Visitor visitor) {
+        byte[] block = new byte[maxBlockLength];
+        GorillaDecoder decoder = new GorillaDecoder();
+        int end = firstBlock[partition] + blockCount[partition];
+        for (int b = firstBlock[partition]; b < end; b++) {
+            if (blockMax[b] < from || blockMin[b] >= to) {
+                continue;
+            }
+            data.get((int) blockOffset[b], block, 0, blockLength[b]);
+            decoder.reset(block, 0, blockLength[b]);
+            while (decoder.next()) {
+                long timestamp = decoder.timestamp();
+                if (timestamp >= from && timestamp < to
+                        && !visitor.visit(timestamp, decoder.mwh(), decoder.voltage())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Size of the mapped file
+     */
+    public long sizeInBytes() {
+        return data.capacity();
+    }
+
+    private static long[] longs(ByteBuffer columns, int count) {
+        long[] column = new long[count];
+        for (int i = 0; i < count; i++) {
+            column[i] = columns.getLong();
+        }
+        return column;
+    }
+
+    private static int[] ints(ByteBuffer columns, int count) {
+        int[] column = new int[count];
+        for (int i = 0; i < count; i++) {
+            column[i] = columns.getInt();
+        }
+        return column;
+    }
+}
@@ -0,0 +1,223 @@
+package com.smartcity.energy.timeseries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes one cold segment file: the closed daily partitions of many sensors.
+ * Layout (big-endian):
+ * <pre>
+ * [data]       Gorilla blocks of at most {@link #BLOCK_ROWS} readings, partition after partition
+ * [partitions] count, then one column each: sensor id msb, lsb, first block, block count,
+ *              total milli-Wh, reading count, voltage sum, min voltage, max voltage (sorted by sensor id)
+ * [blocks]     count, then one column each: offset, length, min timestamp, max timestamp
+ * [footer]     partitions offset (long), magic, version
+ * </pre>
+ * The block columns are the sparse index: a range read decodes only blocks whose
+ * timestamp range overlaps it, and daily aggregates come from the partition columns
+ * without decoding anything. Readings are written in the order they are appended.
+ * Not thread-safe.
+ */
+public class SegmentWriter implements Closeable {
+
+    public static final int MAGIC = 0x45534547; // "ESEG"
+    public static final int VERSION = 1;
+    public static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    static final int BLOCK_ROWS = 1024;
+
+    private final FileChannel channel;
+    private final GorillaEncoder encoder = new GorillaEncoder(8192);
+    private long position;
+
+    private final List<Partition> partitions = new ArrayList<>();
+    private long[] blockOffsets = new long[64];
+    private int[] blockLengths = new int[64];
+    private long[] blockMin = new long[64];
+    private long[] blockMax = new long[64];
+    private int blockCount;
+
+    private Partition current;
+    private long currentBlockMin;
+    private long currentBlockMax;
+
+    public SegmentWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Start the partition of {@code sensorId}; every sensor may appear once per segment
+     */
+    public void beginPartition(UUID sensorId) {
+        if (current != null) {
+            throw new IllegalStateException("Partition of " + current.sensorId + " is still open");
+        }
+        current = new Partition(sensorId, blockCount);
+    }
+
+    /**
+     * Append one reading to the open partition
+     */
+    public void append(long timestamp, long mwh, int voltage) {
+        if (encoder.count() == BLOCK_ROWS) {
+            flushBlock();
+        }
+        if (encoder.count() == 0) {
+            currentBlockMin = Long.MAX_VALUE;
+            currentBlockMax = Long.MIN_VALUE;
+        }
+        encoder.append(timestamp, mwh, voltage);
+        currentBlockMin = Math.min(currentBlockMin, timestamp);
+        currentBlockMax = Math.max(currentBlockMax, timestamp);
+
+        current.totalMwh += mwh;
+        current.readingCount++;
+        current.voltageSum += voltage;
+        current.minVoltage = Math.min(current.minVoltage, voltage);
+        current.maxVoltage = Math.max(current.maxVoltage, voltage);
+    }
+
+    /**
+     * Close the open partition (partitions without readings are left out)
+     */
+    public void endPartition() {
+        if (encoder.count() > 0) {
+            flushBlock();
+        }
+        if (current.readingCount > 0) {
+            partitions.add(current);
+        }
+        current = null;
+    }
+
+    /**
+     * Number of partitions with readings written so far
+     */
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Write the partition and block columns and the footer, then force the file to disk
+     */
+    public void finish() throws IOException {
+        partitions.sort((a, b) -> compare(a.sensorId, b.sensorId));
+        int n = partitions.size();
+        long partitionsOffset = position;
+
+        ByteBuffer columns = ByteBuffer.allocate(Integer.BYTES + n * (5 * Long.BYTES + 4 * Integer.BYTES)
+            + Integer.BYTES + blockCount * (3 * Long.BYTES + Integer.BYTES) + FOOTER_BYTES);
+        columns.putInt(n);
+        putLongs(columns, p -> p.sensorId.getMostSignificantBits());
+        putLongs(columns, p -> p.sensorId.getLeastSignificantBits());
+        putInts(columns, p -> p.firstBlock);
+        putInts(columns, p -> p.blockCount);
+        putLongs(columns, p -> p.totalMwh);
+        putLongs(columns, p -> p.readingCount);
+        putLongs(columns, p -> p.voltageSum);
+        putInts(columns, p -> p.minVoltage);
+        putInts(columns, p -> p.maxVoltage);
+
+        columns.putInt(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            columns.putLong(blockOffsets[i]);
+        }
+        for (int i = 0; i < blockCount; i++) {
+            columns.putInt(blockLengths[i]);
+        }
+        for (int i = 0; i < blockCount; i++) {
+            columns.putLong(blockMin[i]);
+        }
+        for (int i = 0; i < blockCount; i++) {
+            columns.putLong(blockMax[i]);
+        }
+
+        columns.putLong(partitionsOffset);
+        columns.putInt(MAGIC);
+        columns.putInt(VERSION);
+        columns.flip();
+        write(columns);
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Order of the partition columns (readers binary-search with the same comparison)
+     */
+    static int compare(UUID a, UUID b) {
+        int byMsb = Long.compare(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return byMsb != 0 ? byMsb : Long.compare(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private void putLongs(ByteBuffer columns, ToLongFunction<Partition> column) {
+        for (Partition partition : partitions) {
+            columns.putLong(column.applyAsLong(partition));
+        }
+    }
+
+    private void putInts(ByteBuffer columns, ToIntFunction<Partition> column) {
+        for (Partition partition : partitions) {
+            columns.putInt(column.applyAsInt(partition));
+        }
+    }
+
+    private void flushBlock() {
+        byte[] block = encoder.toByteArray();
+        encoder.reset();
+        if (blockCount == blockOffsets.length) {
+            int capacity = blockCount * 2;
+            blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+            blockLengths = Arrays.copyOf(blockLengths, capacity);
+            blockMin = Arrays.copyOf(blockMin, capacity);
+            blockMax = Arrays.copyOf(blockMax, capacity);
+        }
+        blockOffsets[blockCount] = position;
+        blockLengths[blockCount] = block.length;
+        blockMin[blockCount] = currentBlockMin;
+        blockMax[blockCount] = currentBlockMax;
+        blockCount++;
+        current.blockCount++;
+        try {
+            write(ByteBuffer.wrap(block));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    private static final class Partition {
+        final UUID sensorId;
+        final int firstBlock;
+        int blockCount;
+        long totalMwh;
+        long readingCount;
+        long voltageSum;
+        int minVoltage = Integer.MAX_VALUE;
+        int maxVoltage = Integer.MIN_VALUE;
+
+        Partition(UUID sensorId, int firstBlock) {
+            this.sensorId = sensorId;
+            this.firstBlock = firstBlock;
+        }
+    }
+}
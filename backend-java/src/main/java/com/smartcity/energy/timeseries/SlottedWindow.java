@@ -0,0 +1,68 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * Fixed ring of time slots accumulating values for aggregate scopes
+ * (district, city). A slot is recycled when a newer slot key lands on it, so
+ * stale data from silent sensors expires without any per-sensor sweep.
+ * O(1) per update; a window query visits at most {@code slots} slots. A window
+ * is the current, partly filled slot plus enough whole slots before it to span
+ * the window length, so a ring of {@code slots} holds windows up to
+ * {@code slots - 1} slots long.
+ */
+public class SlottedWindow {
+
+    private final long slotMillis;
+    private final long[] slotKeys;
+    private final long[] slotSums;
+
+    public SlottedWindow(long slotMillis, int slots) {
+        this.slotMillis = slotMillis;
+        this.slotKeys = new long[slots];
+        this.slotSums = new long[slots];
+        Arrays.fill(slotKeys, -1);
+    }
+
+    public synchronized void add(long timestamp, long value) {
+        long key = timestamp / slotMillis;
+        int index = (int) (key % slotKeys.length);
+        if (slotKeys[index] != key) {
+            if (slotKeys[index] > key) {
+                return; // older than the ring
+            }
+            slotKeys[index] = key;
+            slotSums[index] = 0;
+        }
+        slotSums[index] += value;
+    }
+
+    /**
+     * Sum over the current slot and the whole slots before it, i.e. over
+     * (now - {@link #coveredMillis}, now]; that span is never shorter than windowMillis
+     */
+    public synchronized long windowSum(long windowMillis, long now) {
+        long newest = now / slotMillis;
+        long oldest = newest - wholeSlots(windowMillis);
+        long sum = 0;
+        for (int i = 0; i < slotKeys.length; i++) {
+            if (slotKeys[i] >= oldest && slotKeys[i] <= newest) {
+                sum += slotSums[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Length of the span {@link #windowSum} adds up at {@code now}: the whole slots
+     * plus the elapsed part of the current slot
+     */
+    public long coveredMillis(long windowMillis, long now) {
+        return wholeSlots(windowMillis) * slotMillis + now % slotMillis;
+    }
+
+    private long wholeSlots(long windowMillis) {
+        long slots = (windowMillis + slotMillis - 1) / slotMillis;
+        return Math.min(slotKeys.length - 1, slots);
+    }
+}
@@ -0,0 +1,150 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving heavy-hitter summary.
+ *
+ * Tracks at most {@code capacity} keys in a min-heap ordered by count. An
+ * untracked key replaces the current minimum and inherits its count as
+ * error bound, so every key whose true weight exceeds total/capacity is
+ * guaranteed to be present. Updates are O(log capacity), queries sort
+ * at most {@code capacity} entries - both independent of the key universe.
+ */
+public class SpaceSavingTopK<K> {
+
+    private final int capacity;
+    private final Map<K, Entry<K>> entries;
+    private final List<Entry<K>> heap;
+
+    public SpaceSavingTopK(int capacity) {
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+        this.heap = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Add weight to a key
+     */
+    public synchronized void add(K key, long weight) {
+        Entry<K> entry = entries.get(key);
+        if (entry != null) {
+            entry.count += weight;
+            siftDown(entry.index);
+            return;
+        }
+        if (heap.size() < capacity) {
+            entry = new Entry<>(key, weight, 0);
+            entry.index = heap.size();
+            heap.add(entry);
+            entries.put(key, entry);
+            siftUp(entry.index);
+            return;
+        }
+        // Evict the minimum and let the new key inherit its count as error
+        Entry<K> min = heap.get(0);
+        entries.remove(min.key);
+        Entry<K> replacement = new Entry<>(key, min.count + weight, min.count);
+        replacement.index = 0;
+        heap.set(0, replacement);
+        entries.put(key, replacement);
+        siftDown(0);
+    }
+
+    /**
+     * Stop tracking a key
+     */
+    public synchronized void remove(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        int index = entry.index;
+        Entry<K> last = heap.remove(heap.size() - 1);
+        if (index < heap.size()) {
+            heap.set(index, last);
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    /**
+     * The k heaviest keys, highest count first
+     */
+    public synchronized List<Estimate<K>> top(int k) {
+        List<Estimate<K>> result = new ArrayList<>(heap.size());
+        for (Entry<K> entry : heap) {
+            result.add(new Estimate<>(entry.key, entry.count, entry.error));
+        }
+        result.sort(Comparator.comparingLong((Estimate<K> e) -> e.count()).reversed());
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        heap.clear();
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap.get(parent).count <= heap.get(index).count) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int size = heap.size();
+        while (true) {
+            int left = 2 * index + 1;
+            int right = left + 1;
+            int smallest = index;
+            if (left < size && heap.get(left).count < heap.get(smallest).count) {
+                smallest = left;
+            }
+            if (right < size && heap.get(right).count < heap.get(smallest).count) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Entry<K> a = heap.get(i);
+        Entry<K> b = heap.get(j);
+        heap.set(i, b);
+        heap.set(j, a);
+        a.index = j;
+        b.index = i;
+    }
+
+    private static class Entry<K> {
+        final K key;
+        long count;
+        final long error;
+        int index;
+
+        Entry(K key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Estimated count of a key; the true count lies in [count - error, count]
+     */
+    public record Estimate<K>(K key, long count, long error) {}
+}
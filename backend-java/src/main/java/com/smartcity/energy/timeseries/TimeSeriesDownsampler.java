@@ -0,0 +1,194 @@
+package com.smartcity.energy.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming downsampler for (timestamp, kWh, voltage) series.
+ *
+ * Stage 1 (streaming, bounded memory): the [start, end) range is split into
+ * {@code points} equal time buckets; each bucket keeps only its first, last,
+ * min and max sample (M4). Samples may arrive in any order and partial
+ * downsamplers over the same grid can be merged, so days can be read concurrently.
+ *
+ * Stage 2: Largest-Triangle-Three-Buckets over the M4 candidates picks the
+ * final {@code points} samples.
+ */
+public class TimeSeriesDownsampler {
+
+    private final long start;
+    private final long end;
+    private final int buckets;
+    private final double bucketWidth;
+
+    // Per bucket: first, last, min, max sample (timestamp, value, voltage)
+    private final long[] firstTs, lastTs, minTs, maxTs;
+    private final double[] firstVal, lastVal, minVal, maxVal;
+    private final int[] firstV, lastV, minV, maxV;
+    private final boolean[] filled;
+
+    public TimeSeriesDownsampler(long startMillis, long endMillis, int points) {
+        if (endMillis <= startMillis || points < 3) {
+            throw new IllegalArgumentException("Invalid downsampling range or point count");
+        }
+        this.start = startMillis;
+        this.end = endMillis;
+        this.buckets = points;
+        this.bucketWidth = (double) (endMillis - startMillis) / points;
+        this.firstTs = new long[points];
+        this.lastTs = new long[points];
+        this.minTs = new long[points];
+        this.maxTs = new long[points];
+        this.firstVal = new double[points];
+        this.lastVal = new double[points];
+        this.minVal = new double[points];
+        this.maxVal = new double[points];
+        this.firstV = new int[points];
+        this.lastV = new int[points];
+        this.minV = new int[points];
+        this.maxV = new int[points];
+        this.filled = new boolean[points];
+    }
+
+    /**
+     * Create an empty downsampler over the same bucket grid (for concurrent partial results)
+     */
+    public TimeSeriesDownsampler newPartial() {
+        return new TimeSeriesDownsampler(start, end, buckets);
+    }
+
+    /**
+     * Add one sample; samples outside [start, end) are ignored
+     */
+    public void add(long timestamp, double value, int voltage) {
+        if (timestamp < start || timestamp >= end) {
+            return;
+        }
+        int b = Math.min(buckets - 1, (int) ((timestamp - start) / bucketWidth));
+        if (!filled[b]) {
+            filled[b] = true;
+            firstTs[b] = lastTs[b] = minTs[b] = maxTs[b] = timestamp;
+            firstVal[b] = lastVal[b] = minVal[b] = maxVal[b] = value;
+            firstV[b] = lastV[b] = minV[b] = maxV[b] = voltage;
+            return;
+        }
+        if (timestamp < firstTs[b]) {
+            firstTs[b] = timestamp; firstVal[b] = value; firstV[b] = voltage;
+        }
+        if (timestamp > lastTs[b]) {
+            lastTs[b] = timestamp; lastVal[b] = value; lastV[b] = voltage;
+        }
+        if (value < minVal[b]) {
+            minTs[b] = timestamp; minVal[b] = value; minV[b] = voltage;
+        }
+        if (value > maxVal[b]) {
+            maxTs[b] = timestamp; maxVal[b] = value; maxV[b] = voltage;
+        }
+    }
+
+    /**
+     * Merge a partial downsampler built with {@link #newPartial()}
+     */
+    public synchronized void merge(TimeSeriesDownsampler other) {
+        for (int b = 0; b < buckets; b++) {
+            if (other.filled[b]) {
+                add(other.firstTs[b], other.firstVal[b], other.firstV[b]);
+                add(other.lastTs[b], other.lastVal[b], other.lastV[b]);
+                add(other.minTs[b], other.minVal[b], other.minV[b]);
+                add(other.maxTs[b], other.maxVal[b], other.maxV[b]);
+            }
+        }
+    }
+
+    /**
+     * Final downsampled series in ascending time order (at most {@code points} samples)
+     */
+    public synchronized List<Sample> result() {
+        List<Sample> candidates = new ArrayList<>();
+        long[] seen = new long[4];
+        for (int b = 0; b < buckets; b++) {
+            if (!filled[b]) {
+                continue;
+            }
+            Sample[] bucket = {
+                new Sample(firstTs[b], firstVal[b], firstV[b]),
+                new Sample(minTs[b], minVal[b], minV[b]),
+                new Sample(maxTs[b], maxVal[b], maxV[b]),
+                new Sample(lastTs[b], lastVal[b], lastV[b])
+            };
+            Arrays.sort(bucket, (x, y) -> Long.compare(x.timestamp(), y.timestamp()));
+            int distinct = 0;
+            for (Sample sample : bucket) {
+                boolean duplicate = false;
+                for (int i = 0; i < distinct; i++) {
+                    if (seen[i] == sample.timestamp()) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+                if (!duplicate) {
+                    seen[distinct++] = sample.timestamp();
+                    candidates.add(sample);
+                }
+            }
+        }
+        return lttb(candidates, buckets);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets selection of {@code threshold} samples
+     */
+    static List<Sample> lttb(List<Sample> data, int threshold) {
+        int size = data.size();
+        if (threshold >= size || threshold < 3) {
+            return data;
+        }
+
+        List<Sample> sampled = new ArrayList<>(threshold);
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled.add(data.get(0));
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += data.get(j).timestamp();
+                avgY += data.get(j).value();
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // Point in the current bucket forming the largest triangle with a and the average
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double pointAX = data.get(a).timestamp();
+            double pointAY = data.get(a).value();
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((pointAX - avgX) * (data.get(j).value() - pointAY)
+                    - (pointAX - data.get(j).timestamp()) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled.add(data.get(next));
+            a = next;
+        }
+
+        sampled.add(data.get(size - 1));
+        return sampled;
+    }
+
+    /**
+     * One downsampled point
+     */
+    public record Sample(long timestamp, double value, int voltage) {}
+}
@@ -0,0 +1,73 @@
+package com.smartcity.energy.timeseries;
+
+/**
+ * Voltage band classifier and per-series event state machine for power-quality
+ * events (IEEE 1159 style): interruption below {@code interruptionBelow},
+ * sag below {@code sagBelow}, swell above {@code swellAbove}. An event starts
+ * on the first out-of-band reading and ends on the first reading in another
+ * band; its duration is measured between those two readings.
+ */
+public class VoltageEventDetector {
+
+    public static final int NONE = -1;
+    public static final int SAG = 0;
+    public static final int SWELL = 1;
+    public static final int INTERRUPTION = 2;
+    public static final String[] EVENT_TYPES = {"SAG", "SWELL", "INTERRUPTION"};
+
+    private final int interruptionBelow;
+    private final int sagBelow;
+    private final int swellAbove;
+
+    public VoltageEventDetector(int interruptionBelow, int sagBelow, int swellAbove) {
+        this.interruptionBelow = interruptionBelow;
+        this.sagBelow = sagBelow;
+        this.swellAbove = swellAbove;
+    }
+
+    /**
+     * Event band of a voltage, {@link #NONE} when within the nominal band
+     */
+    public int classify(int voltage) {
+        if (voltage < interruptionBelow) {
+            return INTERRUPTION;
+        }
+        if (voltage < sagBelow) {
+            return SAG;
+        }
+        if (voltage > swellAbove) {
+            return SWELL;
+        }
+        return NONE;
+    }
+
+    /**
+     * Advance the state machine with one reading. Event starts are counted and
+     * finished durations added to {@code bucket}.
+     */
+    public void observe(State state, long timestamp, int voltage, PowerQualityBucket bucket) {
+        int band = classify(voltage);
+        if (band == state.event) {
+            return;
+        }
+        if (state.event != NONE) {
+            bucket.addDuration(state.event, Math.max(0, timestamp - state.startedAt));
+        }
+        state.event = band;
+        state.startedAt = timestamp;
+        if (band != NONE) {
+            bucket.addEvent(band);
+        }
+    }
+
+    /**
+     * Open event of one series
+     */
+    public static class State {
+        int event = NONE;
+        long startedAt;
+
+        public int getEvent() { return event; }
+        public long getStartedAt() { return startedAt; }
+    }
+}